@@ -1,9 +1,15 @@
+import estruturas.VerificacaoTransporte;
 import simulacao.InterfaceSimulador;
 import simulacao.LoggerSimulacao;
 import simulacao.Simulador;
+import simulacao.VerificacaoMotores;
 
 public class Main {
     public static void main(String[] args) {
+        // --verificar: só roda as autoverificações e sai com código 1 se alguma falhar
+        if (args.length > 0 && args[0].equals("--verificar")) {
+            System.exit(autoverificar() ? 0 : 1);
+        }
         try {
             Simulador simulador = new Simulador();
             InterfaceSimulador interfaceCLI = new InterfaceSimulador(simulador);
@@ -12,4 +18,16 @@ public class Main {
             LoggerSimulacao.log("ERRO","Erro ao iniciar o simulador: " + e.getMessage());
         }
     }
+
+    // Transporte de custo mínimo contra força bruta e motores sequencial, minuto a minuto e em shards entre si
+    private static boolean autoverificar() {
+        String erroTransporte = VerificacaoTransporte.verificar();
+        if (erroTransporte != null) {
+            LoggerSimulacao.log("ERRO", "TransporteCustoMinimo difere da força bruta na " + erroTransporte);
+        } else {
+            LoggerSimulacao.log("INFO", "TransporteCustoMinimo: OK (mesmo total e custo da força bruta)");
+        }
+        boolean motoresOk = VerificacaoMotores.verificar();
+        return erroTransporte == null && motoresOk;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package desempenho;
+
+import simulacao.ConfiguracaoSimulacao;
+import simulacao.ContextoSimulacao;
+import simulacao.LoggerSimulacao;
+import simulacao.Simulador;
+
+// Monta simulações silenciosas e reproduzíveis para os benchmarks: log desligado, semente fixa e a frota
+// dividida igualmente entre os quatro tipos de caminhão pequeno
+final class AmbienteBenchmark {
+    static final long SEMENTE = 7;
+
+    private AmbienteBenchmark() {
+    }
+
+    static ConfiguracaoSimulacao configuracao(int frota) {
+        int porTipo = frota / 4;
+        int resto = frota % 4;
+        return new ConfiguracaoSimulacao(30, 30, 10, ConfiguracaoSimulacao.intervalosPadrao(), 0, 1, 2,
+                porTipo + resto, porTipo, porTipo, porTipo);
+    }
+
+    // Simulação configurada e vinculada à thread atual, com o lixo do primeiro dia já gerado
+    static Simulador montar(int frota) {
+        ContextoSimulacao contexto = new ContextoSimulacao(SEMENTE);
+        contexto.setLogAtivo(false);
+        LoggerSimulacao.vincularContexto(contexto);
+        Simulador simulador = new Simulador(contexto);
+        simulador.configurar(configuracao(frota));
+        return simulador;
+    }
+}
@@ -0,0 +1,63 @@
+package desempenho;
+
+import caminhoes.CaminhaoPequeno;
+import caminhoes.DistribuicaoCaminhoes;
+import caminhoes.EstadoCaminhaoPequeno;
+import caminhoes.FrotaCaminhoesPequenos;
+import estruturas.Lista;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulacao.ContextoSimulacao;
+import simulacao.Simulador;
+import zonas.ZonaUrbana;
+
+import java.util.concurrent.TimeUnit;
+
+// Distribuição dos caminhões disponíveis entre as zonas
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistribuicaoBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int frota;
+
+    private DistribuicaoCaminhoes distribuicao;
+    private FrotaCaminhoesPequenos caminhoes;
+    private Lista<ZonaUrbana> zonas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Simulador simulador = AmbienteBenchmark.montar(frota);
+        ContextoSimulacao contexto = simulador.getContexto();
+        distribuicao = contexto.getDistribuicao();
+        caminhoes = contexto.getCaminhoesPequenos();
+        zonas = contexto.getZonas();
+    }
+
+    // A distribuição só muda o estado e o destino dos caminhões: voltar todos para DISPONÍVEL repete a mesma decisão
+    @Setup(Level.Invocation)
+    public void liberarCaminhoes() {
+        for (CaminhaoPequeno caminhao : caminhoes) {
+            caminhao.setEstado(EstadoCaminhaoPequeno.DISPONIVEL);
+            caminhao.setZonaDestino(null);
+        }
+    }
+
+    @Benchmark
+    public int distribuirCaminhoes() {
+        return distribuicao.distribuirCaminhoes(caminhoes, zonas);
+    }
+}
@@ -0,0 +1,79 @@
+package desempenho;
+
+import caminhoes.CaminhaoGrande;
+import caminhoes.CaminhaoPequeno;
+import estacoes.EstacaoTransferencia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulacao.ContextoSimulacao;
+import simulacao.Simulador;
+import zonas.ZonaUrbana;
+
+import java.util.concurrent.TimeUnit;
+
+// Esvaziamento da fila de uma estação com 'frota' caminhões de 2t na fila e caminhões grandes suficientes
+// para receber toda a carga. Cada invocação recebe uma estação nova, porque processarFila consome a fila
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstacaoBenchmark {
+    private static final int CARGA_PEQUENO = 2000;
+    private static final int CAPACIDADE_GRANDE = 20000;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int frota;
+
+    private ContextoSimulacao contexto;
+    private ZonaUrbana zona;
+    private EstacaoTransferencia estacao;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Simulador simulador = AmbienteBenchmark.montar(0);
+        contexto = simulador.getContexto();
+        zona = contexto.getZonas().obter(0);
+    }
+
+    @Setup(Level.Invocation)
+    public void encherFila() {
+        // Caminhões grandes liberados nas invocações anteriores não interessam a esta
+        contexto.getCaminhoesGrandesOcupados().limpar();
+        contexto.getAgenda().limpar();
+        estacao = new EstacaoTransferencia(contexto, 0, "Estação Benchmark", 30, zona);
+        int grandes = frota * CARGA_PEQUENO / CAPACIDADE_GRANDE + 1;
+        for (int i = 0; i < grandes; i++) {
+            estacao.atribuirCaminhaoGrande(new CaminhaoGrande(contexto, 30));
+        }
+        int tempo = contexto.getTempoSimulado();
+        for (int i = 0; i < frota; i++) {
+            CaminhaoPequeno caminhao = new CaminhaoPequeno(contexto, 1, 10, zona);
+            caminhao.carregar(CARGA_PEQUENO);
+            estacao.receberCaminhaoPequeno(caminhao, tempo);
+        }
+    }
+
+    @Benchmark
+    public int processarFilaAteEsvaziar() {
+        int tempo = contexto.getTempoSimulado();
+        int processados = 0;
+        while (!estacao.getFilaPequenos().estaVazia()) {
+            if (estacao.processarFila(++tempo).foiProcessado()) {
+                processados++;
+            }
+        }
+        return processados;
+    }
+}
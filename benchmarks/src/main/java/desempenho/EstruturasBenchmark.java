@@ -0,0 +1,103 @@
+package desempenho;
+
+import estruturas.Fila;
+import estruturas.Lista;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Operações básicas de Lista e Fila com o mesmo número de elementos das frotas simuladas
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstruturasBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int tamanho;
+
+    private Integer[] valores;
+    private Lista<Integer> listaCheia;
+    private Fila<Integer> filaCheia;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        valores = new Integer[tamanho];
+        listaCheia = new Lista<>(tamanho);
+        filaCheia = new Fila<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            valores[i] = i;
+            listaCheia.adicionar(valores[i]);
+            filaCheia.enfileirar(valores[i]);
+        }
+    }
+
+    // Lista criada vazia e preenchida, incluindo as realocações do array
+    @Benchmark
+    public Lista<Integer> listaAdicionar() {
+        Lista<Integer> lista = new Lista<>();
+        for (Integer valor : valores) {
+            lista.adicionar(valor);
+        }
+        return lista;
+    }
+
+    @Benchmark
+    public void listaObterPorIndice(Blackhole bh) {
+        for (int i = 0; i < listaCheia.getTamanho(); i++) {
+            bh.consume(listaCheia.obter(i));
+        }
+    }
+
+    @Benchmark
+    public void listaIterar(Blackhole bh) {
+        for (Integer valor : listaCheia) {
+            bh.consume(valor);
+        }
+    }
+
+    // Remove sempre o último elemento, como o simulador faz ao percorrer listas de trás para frente
+    @Benchmark
+    public Lista<Integer> listaAdicionarERemoverDoFim() {
+        Lista<Integer> lista = new Lista<>(tamanho);
+        for (Integer valor : valores) {
+            lista.adicionar(valor);
+        }
+        for (int i = lista.getTamanho() - 1; i >= 0; i--) {
+            lista.remover(i);
+        }
+        return lista;
+    }
+
+    @Benchmark
+    public Fila<Integer> filaEnfileirarERemover() {
+        Fila<Integer> fila = new Fila<>();
+        for (Integer valor : valores) {
+            fila.enfileirar(valor);
+        }
+        while (!fila.estaVazia()) {
+            fila.remover();
+        }
+        return fila;
+    }
+
+    @Benchmark
+    public void filaIterar(Blackhole bh) {
+        for (Integer valor : filaCheia) {
+            bh.consume(valor);
+        }
+    }
+}
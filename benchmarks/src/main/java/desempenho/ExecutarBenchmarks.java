@@ -0,0 +1,32 @@
+package desempenho;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+// Ponto de entrada do benchmarks.jar: aceita as mesmas opções do JMH, mas grava os resultados em JSON
+// (jmh-resultados.json) quando -rf/-rff não são informados, para comparar execuções entre commits.
+// Ex.: java -jar target/benchmarks.jar Tick -p frota=1000,10000 -rff antes.json
+public class ExecutarBenchmarks {
+    private static final String ARQUIVO_PADRAO = "jmh-resultados.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+        if (linhaDeComando.shouldHelp() || linhaDeComando.shouldList() || linhaDeComando.shouldListWithParams()
+                || linhaDeComando.shouldListProfilers() || linhaDeComando.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args); // Ajuda e listagens ficam com o JMH
+            return;
+        }
+        ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linhaDeComando);
+        if (!linhaDeComando.getResultFormat().hasValue()) {
+            opcoes.resultFormat(ResultFormatType.JSON);
+        }
+        if (!linhaDeComando.getResult().hasValue()) {
+            opcoes.result(ARQUIVO_PADRAO);
+        }
+        new Runner(opcoes.build()).run();
+    }
+}
@@ -0,0 +1,54 @@
+package desempenho;
+
+import caminhoes.DistribuicaoCaminhoes;
+import estruturas.Lista;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulacao.Simulador;
+import zonas.ZonaUrbana;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Tempo de viagem entre duas zonas: não depende da frota, então roda com uma simulação mínima
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TempoViagemBenchmark {
+    private DistribuicaoCaminhoes distribuicao;
+    private ZonaUrbana origem;
+    private ZonaUrbana destino;
+    private SplittableRandom aleatorio;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Simulador simulador = AmbienteBenchmark.montar(10);
+        distribuicao = simulador.getContexto().getDistribuicao();
+        Lista<ZonaUrbana> zonas = simulador.getContexto().getZonas();
+        origem = zonas.obter(0);
+        destino = zonas.obter(zonas.getTamanho() - 1);
+        aleatorio = new SplittableRandom(AmbienteBenchmark.SEMENTE);
+    }
+
+    @Benchmark
+    public int calcularTempoViagem() {
+        return distribuicao.calcularTempoViagem(origem, destino, aleatorio);
+    }
+
+    @Benchmark
+    public double calcularTempoViagemBase() {
+        return distribuicao.calcularTempoViagemBase(origem, destino);
+    }
+}
@@ -0,0 +1,43 @@
+package desempenho;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulacao.Simulador;
+
+import java.util.concurrent.TimeUnit;
+
+// Um minuto simulado completo (atualizarSimulacao): coletas, viagens, estações e caminhões grandes.
+// A simulação continua de uma chamada para a outra, então a medida é a média ao longo dos dias simulados
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int frota;
+
+    private Simulador simulador;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        simulador = AmbienteBenchmark.montar(frota);
+    }
+
+    @Benchmark
+    public int avancarMinuto() {
+        simulador.avancarMinuto();
+        return simulador.getTempoSimulado();
+    }
+}
@@ -1,32 +1,47 @@
 package caminhoes;
 
 import estacoes.EstacaoTransferencia;
+import simulacao.AgendaEventos;
+import simulacao.ContextoSimulacao;
 import simulacao.LoggerSimulacao;
-import simulacao.Simulador;
+import simulacao.RegistroEventosBinario;
+
+import java.util.SplittableRandom;
 
 // Representa um caminhão grande que transporta lixo para o aterro
 public class CaminhaoGrande {
     private static final int TEMPO_DESCARREGAMENTO = 30; // Tempo fixo para descarregar no aterro (minutos)
+    private final ContextoSimulacao contexto;
+    private final SplittableRandom aleatorio; // Fluxo aleatório próprio, usado nos tempos de viagem
     private String placa;
+    private final int numero; // Id numérico do caminhão no log binário de eventos
     private int capacidade;
     private int cargaAtual;
     private int toleranciaEspera;
     private int tempoEspera; // Tempo de espera acumulado
+    private int tempoOcioso; // Minutos parado na estação sem receber carga desde a última partida
+    private int minutoPartida; // Minuto em que saiu para o aterro, para medir a viagem completa
     private int status; // 0: ESPERANDO, 1: EM_VIAGEM_PARA_ATERRO, 2: DESCARREGANDO, 3: RETORNANDO
     private int tempoViagemRestante; // Tempo restante para viagem ou descarregamento
     private EstacaoTransferencia estacaoOrigem; // Estação à qual o caminhão está associado
     private EstacaoTransferencia estacaoDestino; // Estação para onde retorna, se redirecionado
 
-    public CaminhaoGrande(int toleranciaEspera) {
-        this.placa = Placa.gerarPlaca();
+    public CaminhaoGrande(ContextoSimulacao contexto, int toleranciaEspera) {
+        this.contexto = contexto;
+        this.aleatorio = contexto.novoFluxoAleatorio();
+        this.placa = Placa.gerarPlaca(contexto.getAleatorioPlacas());
+        this.numero = contexto.proximoIdCaminhao();
         this.capacidade = 20000;
         this.toleranciaEspera = toleranciaEspera;
         this.cargaAtual = 0;
         this.tempoEspera = 0;
+        this.tempoOcioso = 0;
+        this.minutoPartida = 0;
         this.status = 0; // ESPERANDO
         this.tempoViagemRestante = 0;
         this.estacaoOrigem = null;
         this.estacaoDestino = null;
+        contexto.cadastrarEntidade(RegistroEventosBinario.Tipo.CADASTRO_CAMINHAO_GRANDE, numero, placa);
     }
 
     // Carrega lixo no caminhão
@@ -37,8 +52,11 @@ public class CaminhaoGrande {
     // Descarrega o lixo no aterro e registra nas estatísticas
     public void descarregar() {
         if (status == 2) { // Apenas descarrega no status DESCARREGANDO
-            Simulador.getEstatisticas().registrarLixoAterro(cargaAtual);
-            LoggerSimulacao.log("DESCARGA", String.format("Caminhão grande %s descarregou %dkg no aterro", placa, cargaAtual));
+            contexto.getEstatisticas().registrarLixoAterro(cargaAtual);
+            contexto.registrarEvento(RegistroEventosBinario.Tipo.DESCARGA_ATERRO, numero, -1, cargaAtual, 0);
+            if (LoggerSimulacao.estaAtivo("DESCARGA")) {
+                LoggerSimulacao.log("DESCARGA", "Caminhão grande %s descarregou %dkg no aterro", placa, cargaAtual);
+            }
             cargaAtual = 0;
         }
     }
@@ -47,21 +65,33 @@ public class CaminhaoGrande {
     public void iniciarViagemParaAterro(int tempoViagem) {
         status = 1; // EM_VIAGEM_PARA_ATERRO
         tempoViagemRestante = tempoViagem;
-        LoggerSimulacao.log("VIAGEM", String.format("Caminhão grande %s iniciou viagem para o aterro (tempo: %dmin)", placa, tempoViagem));
+        contexto.getEstatisticas().registrarOciosidadeCaminhaoGrande(tempoOcioso);
+        tempoOcioso = 0;
+        minutoPartida = contexto.getTempoSimulado();
+        // Liberado pela estação antes de processarCaminhoesGrandesOcupados, então já anda no mesmo minuto
+        contexto.agendarEvento(tempoViagem - 1, AgendaEventos.TipoEvento.CHEGADA_ATERRO);
+        contexto.registrarEvento(RegistroEventosBinario.Tipo.PARTIDA_ATERRO, numero, estacaoOrigem != null ? estacaoOrigem.getId() : -1, cargaAtual, tempoViagem);
+        if (LoggerSimulacao.estaAtivo("VIAGEM")) {
+            LoggerSimulacao.log("VIAGEM", "Caminhão grande %s iniciou viagem para o aterro (tempo: %dmin)", placa, tempoViagem);
+        }
     }
 
     // Inicia descarregamento no aterro
     public void iniciarDescarregamento() {
         status = 2; // DESCARREGANDO
         tempoViagemRestante = TEMPO_DESCARREGAMENTO;
-        LoggerSimulacao.log("DESCARGA", String.format("Caminhão grande %s iniciou descarregamento no aterro", placa));
+        contexto.agendarEvento(TEMPO_DESCARREGAMENTO, AgendaEventos.TipoEvento.FIM_DESCARGA_ATERRO);
+        LoggerSimulacao.log("DESCARGA", "Caminhão grande %s iniciou descarregamento no aterro", placa);
     }
 
     // Inicia retorno para a estação
     public void iniciarRetorno(int tempoViagem) {
         status = 3; // RETORNANDO
         tempoViagemRestante = tempoViagem;
-        LoggerSimulacao.log("VIAGEM", String.format("Caminhão grande %s retornando para %s (tempo: %dmin)", placa, estacaoDestino.getNome(), tempoViagem));
+        contexto.agendarEvento(Math.max(tempoViagem, 1), AgendaEventos.TipoEvento.RETORNO_ESTACAO);
+        if (LoggerSimulacao.estaAtivo("VIAGEM")) {
+            LoggerSimulacao.log("VIAGEM", "Caminhão grande %s retornando para %s (tempo: %dmin)", placa, estacaoDestino.getNome(), tempoViagem);
+        }
     }
 
     // Atualiza o status do caminhão com base no tempo
@@ -72,17 +102,18 @@ public class CaminhaoGrande {
         tempoViagemRestante--;
         if (tempoViagemRestante <= 0) {
             if (status == 1) { // Chegou ao aterro
-                LoggerSimulacao.log("CHEGADA", String.format("Caminhão grande %s chegou ao aterro", placa));
+                LoggerSimulacao.log("CHEGADA", "Caminhão grande %s chegou ao aterro", placa);
                 iniciarDescarregamento();
                 return false;
             } else if (status == 2) { // Terminou descarregamento
                 descarregar();
                 // Calcula tempo de retorno
-                int tempoRetorno = DistribuicaoCaminhoes.calcularTempoViagem(Simulador.getZonaAterro(), estacaoDestino.getZonaDaEstacao());
+                int tempoRetorno = contexto.getDistribuicao().calcularTempoViagem(contexto.getZonaAterro(), estacaoDestino.getZonaDaEstacao(), aleatorio);
                 iniciarRetorno(tempoRetorno);
                 return false;
             } else if (status == 3) { // Chegou à estação
                 status = 0; // ESPERANDO
+                contexto.getEstatisticas().registrarViagemAterro(contexto.getTempoSimulado() - minutoPartida);
                 estacaoDestino.atribuirCaminhaoGrande(this);
                 return true; // Pronto para ser reutilizado
             }
@@ -90,11 +121,25 @@ public class CaminhaoGrande {
         return false;
     }
 
-    public void incrementarTempoEspera() { tempoEspera++; }
+    // Avança em bloco minutos de viagem ou descarregamento que não mudam o status
+    public void avancarTempo(int minutos) {
+        if (status == 0) {
+            return;
+        }
+        if (tempoViagemRestante <= minutos) {
+            throw new IllegalStateException("O avanço em bloco não pode concluir a etapa atual");
+        }
+        tempoViagemRestante -= minutos;
+    }
+
+    public void incrementarTempoEspera() { tempoEspera++; tempoOcioso++; }
+    public void incrementarTempoEspera(int minutos) { tempoEspera += minutos; tempoOcioso += minutos; }
     public void resetarTempoEspera() { tempoEspera = 0; }
 
     // Getters
     public String getPlaca() { return placa; }
+    public int getNumero() { return numero; }
+    public SplittableRandom getAleatorio() { return aleatorio; }
     public int getCapacidade() { return capacidade; }
     public int getCargaAtual() { return cargaAtual; }
     public int getToleranciaEspera() { return toleranciaEspera; }
@@ -1,17 +1,24 @@
 package caminhoes;
 
 import estacoes.EstacaoTransferencia;
-import simulacao.Simulador;
+import simulacao.AgendaEventos;
+import simulacao.ContextoSimulacao;
 import simulacao.LoggerSimulacao;
+import simulacao.RegistroEventosBinario;
 import zonas.ZonaUrbana;
 
+import java.util.SplittableRandom;
+
 public class CaminhaoPequeno {
+    private final ContextoSimulacao contexto;
+    private final SplittableRandom aleatorio; // Fluxo aleatório próprio, usado nos tempos de viagem
     private final int capacidade;
-    public int cargaAtual;
+    private int cargaAtual;
     private final String id;
+    private final int numero; // Id numérico do caminhão no log binário de eventos
     private final int limiteViagens;
-    public int viagensFeitas;
-    private int status;
+    private int viagensFeitas;
+    private EstadoCaminhaoPequeno estado;
     private ZonaUrbana zonaAtual;
     private EstacaoTransferencia estacaoDestino;
     private int tempoViagemRestante;
@@ -19,27 +26,36 @@ public class CaminhaoPequeno {
     private static final int[] OPCOES = {2000, 4000, 8000, 10000};
     private static final int TEMPO_COLETA_POR_KG = 10; // X minutos por 1000kg, ajustável
     private int tempoColetaRestante;
-    private int tempoEsperaFila;
+    private int inicioEsperaFila; // Minuto de referência da espera na fila da estação
+    private int epocaEsperaFila; // Época de espera da estação quando o caminhão entrou na fila
     private int quantidadeColetando; // Quantidade total a ser coletada
     private int cargaPorMinuto; // Carga a ser adicionada por minuto durante a coleta
+    private FrotaCaminhoesPequenos frota; // Frota que acompanha o estado do caminhão, null fora de uma frota
+    private int indiceFrota;
+    private int condicoesFrota; // Condições (FrotaCaminhoesPequenos.CONDICAO_*) que a frota conhece do caminhão
 
-    public CaminhaoPequeno(int escolha, int limiteViagens, ZonaUrbana zonaAtual, String placaOpcional) {
+    public CaminhaoPequeno(ContextoSimulacao contexto, int escolha, int limiteViagens, ZonaUrbana zonaAtual, String placaOpcional) {
+        this.contexto = contexto;
         this.cargaAtual = 0;
         this.capacidade = determinarCapacidade(escolha);
-        this.id = Placa.processarPlaca(placaOpcional);
+        this.id = Placa.processarPlaca(placaOpcional, contexto.getAleatorioPlacas());
+        this.numero = contexto.proximoIdCaminhao();
+        this.aleatorio = contexto.novoFluxoAleatorio();
         this.limiteViagens = limiteViagens;
         this.viagensFeitas = 0;
-        this.status = 1; // DISPONÍVEL
+        this.estado = EstadoCaminhaoPequeno.DISPONIVEL;
         this.zonaAtual = zonaAtual;
         this.estacaoDestino = null;
         this.tempoViagemRestante = 0;
-        this.tempoEsperaFila = 0;
+        this.inicioEsperaFila = 0;
+        this.epocaEsperaFila = 0;
         this.quantidadeColetando = 0;
         this.cargaPorMinuto = 0;
+        contexto.cadastrarEntidade(RegistroEventosBinario.Tipo.CADASTRO_CAMINHAO_PEQUENO, numero, id);
     }
 
-    public CaminhaoPequeno(int escolha, int limiteViagens, ZonaUrbana zonaInicial) {
-        this(escolha, limiteViagens, zonaInicial, null);
+    public CaminhaoPequeno(ContextoSimulacao contexto, int escolha, int limiteViagens, ZonaUrbana zonaInicial) {
+        this(contexto, escolha, limiteViagens, zonaInicial, null);
     }
 
     private int determinarCapacidade(int escolha) {
@@ -51,12 +67,14 @@ public class CaminhaoPequeno {
 
     // Inicia coleta de lixo, definindo quantidade e tempo
     public int coletar(int quantidade) {
-        if (getEstado() == 6) {
-            LoggerSimulacao.log("ERRO", "Caminhão " + id + " está ENCERRADO e não pode coletar.");
+        if (estado == EstadoCaminhaoPequeno.ENCERRADO) {
+            LoggerSimulacao.log("ERRO", "Caminhão %s está ENCERRADO e não pode coletar.", id);
             return 0;
         }
         if (tempoColetaRestante > 0) {
-            LoggerSimulacao.log("INFO", "Caminhão " + id + " ainda está coletando, tempo restante: " + tempoColetaRestante + "min.");
+            if (LoggerSimulacao.estaAtivo("INFO")) {
+                LoggerSimulacao.log("INFO", "Caminhão %s ainda está coletando, tempo restante: %dmin.", id, tempoColetaRestante);
+            }
             return 0;
         }
         int espacoLivre = capacidade - cargaAtual;
@@ -68,10 +86,17 @@ public class CaminhaoPequeno {
             tempoColetaRestante = (int) Math.ceil(coletado / 1000.0 * TEMPO_COLETA_POR_KG);
             // Calcula carga por minuto (distribui a carga ao longo do tempo de coleta)
             cargaPorMinuto = (int) Math.ceil((double) coletado / tempoColetaRestante);
-            setEstado(2); // COLETANDO
-            LoggerSimulacao.log("COLETA", "Caminhão " + id + " iniciou coleta de " + coletado + "kg em " + zonaAtual.getNome() +", tempo estimado: " + tempoColetaRestante + "min, carga por minuto: " + cargaPorMinuto + "kg.");
+            setEstado(EstadoCaminhaoPequeno.COLETANDO);
+            atualizarCondicoesNaFrota();
+            // O tempo de coleta começa a ser descontado no minuto seguinte
+            contexto.agendarEvento(tempoColetaRestante, AgendaEventos.TipoEvento.FIM_COLETA);
+            contexto.registrarEvento(RegistroEventosBinario.Tipo.INICIO_COLETA, numero, zonaAtual.getId(), coletado, tempoColetaRestante);
+            if (LoggerSimulacao.estaAtivo("COLETA")) {
+                LoggerSimulacao.log("COLETA", "Caminhão %s iniciou coleta de %dkg em %s, tempo estimado: %dmin, carga por minuto: %dkg.",
+                        id, coletado, zonaAtual.getNome(), tempoColetaRestante, cargaPorMinuto);
+            }
         } else {
-            LoggerSimulacao.log("INFO", "Caminhão " + id + " não coletou (sem lixo suficiente ou cheio).");
+            LoggerSimulacao.log("INFO", "Caminhão %s não coletou (sem lixo suficiente ou cheio).", id);
         }
         return coletado;
     }
@@ -82,45 +107,67 @@ public class CaminhaoPequeno {
             tempoColetaRestante--;
             // Calcula carga a ser adicionada neste minuto (limitada pela quantidade restante)
             int cargaAdicionar = Math.min(cargaPorMinuto, quantidadeColetando);
-            cargaAtual += cargaAdicionar;
+            alterarCarga(cargaAtual + cargaAdicionar);
             quantidadeColetando -= cargaAdicionar;
             // Atualiza a zona com a quantidade coletada e registra nas estatísticas
             if (zonaAtual != null) {
                 zonaAtual.coletarLixo(cargaAdicionar);
-                Simulador.getEstatisticas().registrarColeta(cargaAdicionar, zonaAtual.getNome());
+                contexto.getEstatisticas().registrarColeta(cargaAdicionar, zonaAtual);
             }
             // Verifica se a coleta foi finalizada
             if (tempoColetaRestante == 0) {
                 // Se ainda restar alguma carga não adicionada (por arredondamentos), coleta agora
                 if (quantidadeColetando > 0) {
-                    cargaAtual += quantidadeColetando;
+                    alterarCarga(cargaAtual + quantidadeColetando);
                     if (zonaAtual != null) {
                         zonaAtual.coletarLixo(quantidadeColetando);
-                        Simulador.getEstatisticas().registrarColeta(quantidadeColetando, zonaAtual.getNome());
+                        contexto.getEstatisticas().registrarColeta(quantidadeColetando, zonaAtual);
                     }
                     quantidadeColetando = 0;
                 }
                 // Registra um único log consolidado ao final da coleta
                 int tempoTotalColeta = (int) Math.ceil((double) cargaAtual / (cargaPorMinuto > 0 ? cargaPorMinuto : 1));
                 String nomeZona = zonaAtual != null ? zonaAtual.getNome() : "Desconhecida";
-                LoggerSimulacao.log("COLETA", String.format(
-                        "Caminhão %s finalizou coleta de %dkg em %s. Tempo de coleta: %dmin. Carga final: %dkg.",
-                        id, cargaAtual, nomeZona, tempoTotalColeta, cargaAtual));
+                contexto.registrarEvento(RegistroEventosBinario.Tipo.FIM_COLETA, numero, zonaAtual != null ? zonaAtual.getId() : -1, cargaAtual, tempoTotalColeta);
+                if (LoggerSimulacao.estaAtivo("COLETA")) {
+                    LoggerSimulacao.log("COLETA",
+                            "Caminhão %s finalizou coleta de %dkg em %s. Tempo de coleta: %dmin. Carga final: %dkg.",
+                            id, cargaAtual, nomeZona, tempoTotalColeta, cargaAtual);
+                }
                 // Limpa o indicador de carga por minuto (fim da coleta)
                 cargaPorMinuto = 0;
+                atualizarCondicoesNaFrota();
             }
             return tempoColetaRestante == 0;
         }
         return true;
     }
 
+    // Avança em bloco minutos de coleta que não a concluem (usado pelo motor de eventos ao pular minutos sem eventos)
+    public void avancarColeta(int minutos) {
+        if (tempoColetaRestante <= minutos) {
+            throw new IllegalStateException("O avanço em bloco não pode concluir a coleta");
+        }
+        tempoColetaRestante -= minutos;
+        // Mesmo total que a coleta minuto a minuto: cargaPorMinuto por minuto, limitado ao que falta coletar
+        int cargaAdicionar = (int) Math.min((long) cargaPorMinuto * minutos, quantidadeColetando);
+        alterarCarga(cargaAtual + cargaAdicionar);
+        quantidadeColetando -= cargaAdicionar;
+        if (zonaAtual != null) {
+            zonaAtual.coletarLixo(cargaAdicionar);
+            contexto.getEstatisticas().registrarColeta(cargaAdicionar, zonaAtual);
+        }
+    }
 
     // Verifica se o limite de viagens foi atingido
     public void isLimiteAtingido(int viagensFeitas) {
         if (viagensFeitas >= limiteViagens) {
-            setEstado(6); // ENCERRADO
-            if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog()) {
-                LoggerSimulacao.log("INFO", String.format("Caminhão %s atingiu o limite de %d viagens diárias e foi encerrado.", id, limiteViagens));
+            if (estado != EstadoCaminhaoPequeno.ENCERRADO) {
+                contexto.registrarEvento(RegistroEventosBinario.Tipo.ENCERRAMENTO, numero, -1, 0, limiteViagens);
+            }
+            setEstado(EstadoCaminhaoPequeno.ENCERRADO);
+            if (LoggerSimulacao.estaAtivoDebug()) {
+                LoggerSimulacao.log("INFO", "Caminhão %s atingiu o limite de %d viagens diárias e foi encerrado.", id, limiteViagens);
             }
         }
     }
@@ -128,7 +175,7 @@ public class CaminhaoPequeno {
     // Descarrega toda a carga do caminhão
     public int descarregar() {
         int carga = cargaAtual;
-        cargaAtual = 0;
+        alterarCarga(0);
         return carga;
     }
 
@@ -137,49 +184,126 @@ public class CaminhaoPequeno {
         if (quantidade > cargaAtual) {
             throw new IllegalArgumentException("Quantidade a descarregar maior que a carga atual");
         }
-        cargaAtual -= quantidade;
+        alterarCarga(cargaAtual - quantidade);
+    }
+
+    // Põe carga direto no caminhão, sem coleta (ex.: benchmarks que só exercitam a fila da estação)
+    public void carregar(int quantidade) {
+        alterarCarga(Math.min(cargaAtual + quantidade, capacidade));
+    }
+
+    // Viagem cheia rumo à estação: conta para o limite diário
+    public void registrarViagem() {
+        viagensFeitas++;
+        atualizarCondicoesNaFrota();
+    }
+
+    // Novo dia: zera as viagens feitas
+    public void reiniciarViagens() {
+        viagensFeitas = 0;
+        atualizarCondicoesNaFrota();
+    }
+
+    // Toda mudança de carga passa por aqui para a frota saber quantos caminhões estão carregados
+    private void alterarCarga(int novaCarga) {
+        if (frota != null && (cargaAtual > 0) != (novaCarga > 0)) {
+            frota.ajustarCaminhoesComCarga(novaCarga > 0 ? 1 : -1);
+        }
+        cargaAtual = novaCarga;
+    }
+
+    // Condições que obrigam o motor de eventos a rodar o minuto seguinte, calculadas do estado atual
+    int calcularCondicoes() {
+        int condicoes = 0;
+        if (viagensFeitas >= limiteViagens && estado != EstadoCaminhaoPequeno.ENCERRADO) {
+            condicoes |= FrotaCaminhoesPequenos.CONDICAO_LIMITE_VIAGENS;
+        }
+        if (estado == EstadoCaminhaoPequeno.COLETANDO && tempoColetaRestante == 0) {
+            condicoes |= FrotaCaminhoesPequenos.CONDICAO_COLETA_PARADA;
+        }
+        if (estado == EstadoCaminhaoPequeno.EM_TRANSITO && tempoViagemRestante <= 0) {
+            condicoes |= FrotaCaminhoesPequenos.CONDICAO_VIAGEM_CONCLUIDA;
+        }
+        return condicoes;
+    }
+
+    // Avisa a frota só quando alguma condição muda, então a coleta e a viagem minuto a minuto quase nunca avisam
+    private void atualizarCondicoesNaFrota() {
+        if (frota == null) {
+            return;
+        }
+        int condicoes = calcularCondicoes();
+        if (condicoes != condicoesFrota) {
+            condicoesFrota = condicoes;
+            frota.marcarCondicoes(indiceFrota, condicoes);
+        }
+    }
+
+    // Chamado pela frota ao receber o caminhão
+    void vincularFrota(FrotaCaminhoesPequenos frota, int indice, int condicoes) {
+        this.frota = frota;
+        this.indiceFrota = indice;
+        this.condicoesFrota = condicoes;
     }
 
     // Define o tempo de viagem, se não encerrado
     public void definirTempoViagem(int minutos) {
-        if (getEstado() == 6) {
-            LoggerSimulacao.log("ERRO", "Caminhão " + id + " está ENCERRADO e não pode viajar.");
+        if (estado == EstadoCaminhaoPequeno.ENCERRADO) {
+            LoggerSimulacao.log("ERRO", "Caminhão %s está ENCERRADO e não pode viajar.", id);
             return;
         }
         this.tempoViagemRestante = minutos;
+        atualizarCondicoesNaFrota();
+        // A viagem já é descontada no mesmo minuto em que é definida (processarCaminhoesEmTransito roda depois)
+        contexto.agendarEvento(minutos - 1, AgendaEventos.TipoEvento.CHEGADA_VIAGEM);
     }
 
     // Processa a viagem, retornando true se concluída
     public boolean processarViagem() {
         if (tempoViagemRestante > 0) {
             tempoViagemRestante--;
-            return tempoViagemRestante == 0;
+            if (tempoViagemRestante == 0) {
+                atualizarCondicoesNaFrota();
+                return true;
+            }
+            return false;
         }
         return true;
     }
 
+    // Avança em bloco minutos de viagem que não a concluem
+    public void avancarViagem(int minutos) {
+        if (tempoViagemRestante <= minutos) {
+            throw new IllegalStateException("O avanço em bloco não pode concluir a viagem");
+        }
+        tempoViagemRestante -= minutos;
+    }
+
     // Verifica se o caminhão está cheio
     public boolean estaCheio() {
         return cargaAtual >= capacidade;
     }
 
     // Getters e Setters
-    public int getEstado() { return status; }
-    public void setEstado(int status) { this.status = status; }
-    public String determinarEstado(int status) {
-        return switch (status) {
-            case 1 -> "DISPONÍVEL";
-            case 2 -> "COLETANDO";
-            case 3 -> "EM_TRÂNSITO";
-            case 4 -> "FILA_ESTAÇÃO";
-            case 5 -> "DESCARREGANDO";
-            case 6 -> "ENCERRADO";
-            default -> "DESCONHECIDO";
-        };
+    public EstadoCaminhaoPequeno getEstado() { return estado; }
+    public void setEstado(EstadoCaminhaoPequeno novo) {
+        if (novo == estado) {
+            return;
+        }
+        EstadoCaminhaoPequeno anterior = estado;
+        estado = novo;
+        if (frota != null) {
+            frota.mudarEstado(indiceFrota, anterior, novo);
+            atualizarCondicoesNaFrota();
+        }
     }
+    public FrotaCaminhoesPequenos getFrota() { return frota; }
     public String getPlaca() { return id; }
+    public int getNumero() { return numero; }
+    public SplittableRandom getAleatorio() { return aleatorio; }
     public int getCapacidade() { return capacidade; }
     public int getViagensFeitas() { return viagensFeitas; }
+    public int getLimiteViagens() { return limiteViagens; }
     public int getCargaAtual() { return cargaAtual; }
     public ZonaUrbana getZonaAtual() { return zonaAtual; }
     public void setZonaAtual(ZonaUrbana zona) { this.zonaAtual = zona; }
@@ -188,9 +312,12 @@ public class CaminhaoPequeno {
     public ZonaUrbana getZonaDestino() { return zonaDestino; }
     public void setZonaDestino(ZonaUrbana zona) { this.zonaDestino = zona; }
     public int getTempoColetaRestante() { return tempoColetaRestante; }
-    public int getTempoEsperaFila() { return tempoEsperaFila; }
-    public void incrementarTempoEspera() { this.tempoEsperaFila++; }
-    public void resetarTempoEspera() { this.tempoEsperaFila = 0; }
+    public int getInicioEsperaFila() { return inicioEsperaFila; }
+    public int getEpocaEsperaFila() { return epocaEsperaFila; }
+    public void marcarEsperaFila(int inicio, int epoca) {
+        this.inicioEsperaFila = inicio;
+        this.epocaEsperaFila = epoca;
+    }
     public int getTempoViagemRestante() { return tempoViagemRestante; }
 }
 
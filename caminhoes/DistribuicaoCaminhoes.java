@@ -1,16 +1,27 @@
 package caminhoes;
 
+import estruturas.ConjuntoIndices;
+import estruturas.HeapIndexado;
+import estruturas.IntLista;
 import estruturas.Lista;
+import estruturas.TransporteCustoMinimo;
+import simulacao.ContextoSimulacao;
 import simulacao.LoggerSimulacao;
-import simulacao.Simulador;
+import simulacao.RegistroEventosBinario;
+import zonas.MapaCidade;
 import zonas.ZonaEstatistica;
 import zonas.ZonaUrbana;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class DistribuicaoCaminhoes {
-    private final int limiteCaminhoesPorZona = calcularLimiteCaminhoesPorZona();
-    private static final int caminhoesPorZona = Simulador.getCaminhoesPorZona();
+    private final ContextoSimulacao contexto;
+    // Máximo de caminhões ativos por zona no modo GULOSO. É calculado quando o contexto é criado, antes da frota
+    // existir, e por isso fica em 2; mantido assim para não mudar os resultados desse modo
+    private final int limiteCaminhoesPorZona;
+    // Máximo de caminhões por zona no modo LOTE, calculado com a frota configurada e comparado com a ocupação
+    // (ativos na zona mais os que estão a caminho dela)
+    private int limiteLote;
 
     private static final int PICO_MANHA_INICIO = 7 * 60;
     private static final int PICO_MANHA_FIM = 9 * 60 - 1;
@@ -24,45 +35,239 @@ public class DistribuicaoCaminhoes {
     private static final double VELOCIDADE_MEDIA_PICO = 20.0;
     // Margem de aleatoriedade (+/- 10%)
     private static final double MARGEM_ALEATORIA = 0.1;
+    // Faixas de horário da tabela de tempos: fora do pico e no pico
+    private static final int BANDA_NORMAL = 0;
+    private static final int BANDA_PICO = 1;
+    private static final int TOTAL_BANDAS = 2;
 
-    private int calcularLimiteCaminhoesPorZona() {
+    // Tempos base de viagem já calculados: tabelaTempos[(banda * n + origem) * n + destino], n = zonas do mapa.
+    // Só é refeita quando a simulação passa a usar outro mapa; a banda do minuto atual também fica guardada
+    private MapaCidade mapaDaTabela;
+    private double[] tabelaTempos;
+    private int minutoDaBanda = -1;
+    private int bandaAtual;
+    // Menor tempo base de cada zona até qualquer outra zona: tempoMinimoSaida[banda * n + origem]
+    private double[] tempoMinimoSaida;
+
+    // Índice de prioridade das zonas válidas, com a parte da pontuação que não depende da origem (lixo e proporção
+    // restante) como chave. Só as zonas que avisaram alteração de lixo ou de caminhões ativos são reindexadas
+    private HeapIndexado indiceZonas;
+    private ZonaUrbana[] zonasIndexadas;
+    private final Lista<ZonaUrbana> zonasAlteradas = new Lista<>();
+    private int[] pilhaBusca;
+    // As zonas não mudam durante uma distribuição, então a melhor zona de cada origem é calculada uma vez por rodada
+    private int[] melhorPorOrigem;
+    private int[] rodadaPorOrigem;
+    private int rodada;
+    // Caminhões em trânsito para cada zona, recontados a cada distribuição e somados durante ela a cada partida.
+    // Só no modo LOTE; no GULOSO fica null e a ocupação é só a de caminhões ativos
+    private int[] aCaminhoPorZona;
+
+    // GULOSO: cada caminhão disponível escolhe a melhor zona para ele, na ordem da lista.
+    // LOTE: todos os disponíveis são atribuídos juntos por fluxo de custo mínimo, respeitando o limite por zona
+    public enum ModoDistribuicao { GULOSO, LOTE }
+
+    private ModoDistribuicao modo = ModoDistribuicao.GULOSO;
+
+    public DistribuicaoCaminhoes(ContextoSimulacao contexto) {
+        this.contexto = contexto;
+        this.limiteCaminhoesPorZona = calcularLimiteCaminhoesPorZona(contexto.getCaminhoesPorZona());
+        this.limiteLote = limiteCaminhoesPorZona;
+    }
+
+    public void setModoDistribuicao(ModoDistribuicao modo) {
+        if (modo != this.modo) {
+            zonasIndexadas = null; // Limite e ocupação dependem do modo: o índice é refeito na próxima distribuição
+        }
+        this.modo = modo;
+    }
+
+    public ModoDistribuicao getModoDistribuicao() {
+        return modo;
+    }
+
+    private int calcularLimiteCaminhoesPorZona(int caminhoesPorZona) {
         // Ajuste dinâmico: +1 para permitir flexibilidade em zonas com muito lixo
         return Math.max(2, caminhoesPorZona + 1);
     }
 
+    // Recalcula o limite do modo LOTE depois que a frota é configurada (o construtor roda antes dela existir)
+    public void configurarLimiteCaminhoesPorZona(int caminhoesPorZona) {
+        this.limiteLote = calcularLimiteCaminhoesPorZona(caminhoesPorZona);
+        zonasIndexadas = null; // A validade de cada zona depende do limite: o índice é refeito na próxima distribuição
+    }
+
+    // Limite por zona do modo atual
+    public int getLimiteCaminhoesPorZona() {
+        return modo == ModoDistribuicao.LOTE ? limiteLote : limiteCaminhoesPorZona;
+    }
+
     // Distribui caminhões pequenos disponíveis para zonas com lixo
-    public int distribuirCaminhoes(Lista<CaminhaoPequeno> caminhoes, Lista<ZonaUrbana> zonas) {
+    public int distribuirCaminhoes(FrotaCaminhoesPequenos caminhoes, Lista<ZonaUrbana> zonas) {
+        atualizarIndiceZonas(zonas, caminhoes);
+        if (modo == ModoDistribuicao.LOTE && zonasIndexadas != null) {
+            return distribuirEmLote(caminhoes);
+        }
         int distribuidos = 0;
-        for (int i = 0; i < caminhoes.getTamanho(); i++) {
+        if (LoggerSimulacao.estaAtivoDebug()) {
+            // No modo DEBUG a frota inteira é percorrida para logar também os caminhões não disponíveis
+            for (CaminhaoPequeno caminhao : caminhoes) {
+                if (isCaminhaoDisponivel(caminhao)) {
+                    if (aplicarDestino(caminhao, encontrarMelhorZona(caminhao, zonas))) {
+                        distribuidos++;
+                    }
+                } else {
+                    LoggerSimulacao.log("INFO", "Caminhão %s não disponível: estado=%s, viagens=%d",
+                            caminhao.getPlaca(), caminhao.getEstado().getDescricao(), caminhao.getViagensFeitas());
+                }
+            }
+            LoggerSimulacao.log("INFO", "Caminhões disponíveis: %d, zonas com lixo: %d",
+                    caminhoes.contar(EstadoCaminhaoPequeno.DISPONIVEL), contarZonasComLixo(zonas));
+            return distribuidos;
+        }
+        // Cada caminhão sai do conjunto de disponíveis ao receber destino, o que não atrapalha o percurso
+        ConjuntoIndices disponiveis = caminhoes.getIndicesNoEstado(EstadoCaminhaoPequeno.DISPONIVEL);
+        for (int i = disponiveis.proximo(0); i >= 0; i = disponiveis.proximo(i + 1)) {
+            if (aplicarDestino(caminhoes.obter(i), encontrarMelhorZona(caminhoes.obter(i), zonas))) {
+                distribuidos++;
+            }
+        }
+        return distribuidos;
+    }
+
+    // Leva o caminhão à zona escolhida (ou o encerra pelo dia, sem zona). Devolve true se ele partiu para outra zona
+    private boolean aplicarDestino(CaminhaoPequeno caminhao, ZonaUrbana melhorZona) {
+        ZonaUrbana zonaAtual = caminhao.getZonaAtual();
+        // Se não há zonas válidas, encerra o caminhão pelo dia
+        if (melhorZona == null) {
+            LoggerSimulacao.log("INFO", "Caminhão %s não tem destino para viajar, será determinado como ENCERRADO pelo dia", caminhao.getPlaca());
+            caminhao.setEstado(EstadoCaminhaoPequeno.ENCERRADO);
+            return false;
+        }
+        if (melhorZona != zonaAtual) {
+            // Redistribui para nova zona
+            int tempoViagem = calcularTempoViagem(caminhao.getZonaAtual(), melhorZona, caminhao.getAleatorio());
+            caminhao.definirTempoViagem(tempoViagem);
+            caminhao.setEstado(EstadoCaminhaoPequeno.EM_TRANSITO);
+            caminhao.setZonaDestino(melhorZona);
+            registrarPartida(melhorZona);
+            contexto.getEstatisticas().registrarViagemPequeno(tempoViagem);
+            contexto.registrarEvento(RegistroEventosBinario.Tipo.PARTIDA_ZONA, caminhao.getNumero(), melhorZona.getId(), 0, tempoViagem);
+            LoggerSimulacao.log("INFO", "Caminhão %s será redistribuído de %s para %s (viagem: %dmin)",
+                    caminhao.getPlaca(), caminhao.getZonaAtual().getNome(), melhorZona.getNome(), tempoViagem);
+            return true;
+        }
+        // Permanece na zona atual e coleta
+        LoggerSimulacao.log("INFO", "Caminhão %s já está na zona %s, iniciando coleta...", caminhao.getPlaca(), zonaAtual.getNome());
+        caminhao.setEstado(EstadoCaminhaoPequeno.COLETANDO);
+        return false;
+    }
+
+    // No modo LOTE o caminhão que partiu já ocupa uma vaga no destino. Se a zona lotou, ela sai do índice e as
+    // melhores zonas guardadas nesta rodada deixam de valer, para os próximos caminhões não escolherem uma zona sem vaga
+    private void registrarPartida(ZonaUrbana destino) {
+        if (aCaminhoPorZona == null) {
+            return;
+        }
+        int id = destino.getId();
+        aCaminhoPorZona[id]++;
+        if (indiceZonas.contem(id) && !isZonaValida(destino)) {
+            indiceZonas.remover(id);
+            rodada++;
+        }
+    }
+
+    // Distribuição em lote: todos os caminhões disponíveis são atribuídos de uma vez, maximizando a soma das
+    // pontuações (lixo e proporção restante menos o tempo de viagem) sem passar do limite de caminhões por zona.
+    // Caminhões na mesma zona são equivalentes, então o problema é um transporte entre zonas de origem (oferta =
+    // caminhões disponíveis nela) e zonas válidas (capacidade = vagas que sobram), de tamanho independente da frota
+    private int distribuirEmLote(FrotaCaminhoesPequenos caminhoes) {
+        int n = zonasIndexadas.length;
+        int[] disponiveisPorZona = new int[n];
+        int origens = 0;
+        ConjuntoIndices disponiveis = caminhoes.getIndicesNoEstado(EstadoCaminhaoPequeno.DISPONIVEL);
+        for (int i = disponiveis.proximo(0); i >= 0; i = disponiveis.proximo(i + 1)) {
             CaminhaoPequeno caminhao = caminhoes.obter(i);
-            if (isCaminhaoDisponivel(caminhao)) {
-                ZonaUrbana melhorZona = encontrarMelhorZona(caminhao, zonas);
-                ZonaUrbana zonaAtual = caminhao.getZonaAtual();
-                // Se não há zonas válidas, encerra o caminhão pelo dia
-                if (melhorZona == null) {
-                    LoggerSimulacao.log("INFO", "Caminhão " + caminhao.getPlaca() + " não tem destino para viajar, será determinado como ENCERRADO pelo dia");
-                    caminhao.setEstado(6); // ENCERRADO
-                } else if (melhorZona != zonaAtual) {
-                    // Redistribui para nova zona
-                    int tempoViagem = calcularTempoViagem(caminhao.getZonaAtual(), melhorZona);
-                    caminhao.definirTempoViagem(tempoViagem);
-                    caminhao.setEstado(3); // EM_TRÂNSITO
-                    caminhao.setZonaDestino(melhorZona);
-                    distribuidos++;
-                    LoggerSimulacao.log("INFO", String.format("Caminhão %s será redistribuído de %s para %s (viagem: %dmin)",
-                            caminhao.getPlaca(), caminhao.getZonaAtual().getNome(), melhorZona.getNome(), tempoViagem));
+            if (caminhao.getZonaAtual() != null && disponiveisPorZona[caminhao.getZonaAtual().getId()]++ == 0) {
+                origens++;
+            }
+        }
+        if (origens == 0) {
+            return 0;
+        }
+        // Destinos: as zonas do índice, que são justamente as que têm lixo e vagas
+        IntLista destinos = new IntLista();
+        IntLista vagas = new IntLista();
+        for (int z = 0; z < n; z++) {
+            if (indiceZonas.contem(z)) {
+                destinos.adicionar(z);
+                vagas.adicionar(limiteLote - ocupacao(zonasIndexadas[z]));
+            }
+        }
+        int[] idsOrigens = new int[origens];
+        int[] ofertas = new int[origens];
+        for (int z = 0, o = 0; z < n; z++) {
+            if (disponiveisPorZona[z] > 0) {
+                idsOrigens[o] = z;
+                ofertas[o++] = disponiveisPorZona[z];
+            }
+        }
+        int totalDestinos = destinos.getTamanho();
+        int[] capacidades = new int[totalDestinos];
+        for (int d = 0; d < totalDestinos; d++) {
+            capacidades[d] = vagas.obter(d);
+        }
+        // Custo = -pontuação, em milésimos de ponto. Pares com pontuação até -1 não são permitidos, como no modo guloso
+        long[] custos = new long[origens * totalDestinos];
+        boolean[] temDestino = new boolean[origens];
+        for (int o = 0; o < origens; o++) {
+            ZonaUrbana origem = zonasIndexadas[idsOrigens[o]];
+            for (int d = 0; d < totalDestinos; d++) {
+                int z = destinos.obter(d);
+                double pontuacao = indiceZonas.getChave(z) - (calcularTempoViagemBase(origem, zonasIndexadas[z]) * 50);
+                if (pontuacao > -1) {
+                    custos[o * totalDestinos + d] = -Math.round(pontuacao * 1000);
+                    temDestino[o] = true;
                 } else {
-                    // Permanece na zona atual e coleta
-                    LoggerSimulacao.log("INFO", "Caminhão " + caminhao.getPlaca() + " já está na zona " + zonaAtual.getNome() + ", iniciando coleta...");
-                    caminhao.setEstado(2); // COLETANDO
+                    custos[o * totalDestinos + d] = TransporteCustoMinimo.SEM_ARESTA;
                 }
-            } else if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog()) {
-                // Loga caminhões não disponíveis apenas no modo DEBUG
-                LoggerSimulacao.log("INFO", "Caminhão " + caminhao.getPlaca() + " não disponível: estado=" + caminhao.determinarEstado(caminhao.getEstado()) + ", viagens=" + caminhao.getViagensFeitas());
             }
         }
-        if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog()) {
-            LoggerSimulacao.log("INFO", "Caminhões disponíveis: " + contarCaminhoesDisponiveis(caminhoes) + ", zonas com lixo: " + contarZonasComLixo(zonas));
+        int[] fluxos = TransporteCustoMinimo.resolver(ofertas, capacidades, custos);
+
+        int[] indiceOrigem = new int[n];
+        for (int o = 0; o < origens; o++) {
+            indiceOrigem[idsOrigens[o]] = o;
+        }
+        int distribuidos = 0;
+        int aguardando = 0;
+        for (int i = disponiveis.proximo(0); i >= 0; i = disponiveis.proximo(i + 1)) {
+            CaminhaoPequeno caminhao = caminhoes.obter(i);
+            if (caminhao.getZonaAtual() == null) {
+                continue;
+            }
+            int o = indiceOrigem[caminhao.getZonaAtual().getId()];
+            // Ficar na própria zona tem prioridade; depois, as zonas na ordem dos ids
+            int escolhido = -1;
+            for (int d = 0; d < totalDestinos; d++) {
+                if (fluxos[o * totalDestinos + d] > 0 && (escolhido < 0 || destinos.obter(d) == idsOrigens[o])) {
+                    escolhido = d;
+                }
+            }
+            if (escolhido >= 0) {
+                fluxos[o * totalDestinos + escolhido]--;
+                if (aplicarDestino(caminhao, zonasIndexadas[destinos.obter(escolhido)])) {
+                    distribuidos++;
+                }
+            } else if (!temDestino[o]) {
+                aplicarDestino(caminhao, null);
+            } else {
+                // Há zonas para ele, mas as vagas acabaram nesta rodada: continua DISPONÍVEL até a próxima
+                aguardando++;
+            }
+        }
+        if (aguardando > 0) {
+            LoggerSimulacao.log("INFO", "%d caminhão(ões) aguardando vaga nas zonas para a próxima distribuição.", aguardando);
         }
         return distribuidos;
     }
@@ -74,134 +279,306 @@ public class DistribuicaoCaminhoes {
                 (minutosNoDia >= PICO_TARDE_INICIO && minutosNoDia <= PICO_TARDE_FIM);
     }
 
-    // Calcula o tempo base de viagem entre zonas
-    public static double calcularTempoViagemBase(ZonaUrbana origem, ZonaUrbana destino) {
+    // Tempo base de viagem entre zonas na faixa de horário atual, lido da tabela pré-calculada
+    public double calcularTempoViagemBase(ZonaUrbana origem, ZonaUrbana destino) {
         if (origem == null || destino == null) {
             LoggerSimulacao.log("ERRO", "Origem ou destino nulo. Usando tempo padrão.");
             return 15.0; // Tempo padrão em minutos
         }
-        // Obtém a distância entre as zonas
-        int distancia = ZonaUrbana.getDistancia(origem.getNome(), destino.getNome());
-        if (distancia == Integer.MAX_VALUE) {
-            LoggerSimulacao.log("ERRO", "Distância não encontrada entre " + origem.getNome() + " e " + destino.getNome() + ". Usando tempo padrão.");
-            return 15.0;
-        }
-        if (distancia == 0) {
-            if (LoggerSimulacao.getModoLog() == LoggerSimulacao.ModoLog.DEBUG) {
-                LoggerSimulacao.log("INFO", "Viagem com origem e destino iguais, caminhão não se desloca ");
-            } return 0;
-        }
-        // Determina a velocidade média com base no horário
-        int minutosNoDia = Simulador.getTempoSimulado() % TEMPO_MINUTOS_POR_DIA;
-        boolean isPico = isHorarioDePico(minutosNoDia);
-        double velocidadeMedia = isPico ? VELOCIDADE_MEDIA_PICO : VELOCIDADE_MEDIA_NORMAL;
-        // Calcula o tempo base em minutos
-        double tempoBase = (distancia / velocidadeMedia) * 60;
-        // Adiciona variação limitada por zona
-        int variacao = isPico ? (origem.getVariacaoPico() + destino.getVariacaoPico()) :
-                (origem.getVariacaoNormal() + destino.getVariacaoNormal());
-        return Math.max(5, tempoBase + Math.min(variacao, 10)); // Coloca tempo mínimo como 5 minutos e limita variação a +10 minutos
-    }
-
-    public static int calcularTempoViagem(ZonaUrbana origem, ZonaUrbana destino) {
+        MapaCidade mapa = origem.getMapa();
+        garantirTabelaTempos(mapa);
+        int n = mapa.getQuantidadeZonas();
+        double tempo = tabelaTempos[(bandaDoMinuto(contexto.getTempoSimulado()) * n + origem.getId()) * n + destino.getId()];
+        if (tempo == 0) {
+            LoggerSimulacao.debug("INFO", "Viagem com origem e destino iguais, caminhão não se desloca ");
+        }
+        return tempo;
+    }
+
+    // Tempo base em uma faixa de horário qualquer (0 a getTotalBandas() - 1), para montar tabelas derivadas
+    public double calcularTempoViagemBase(int banda, ZonaUrbana origem, ZonaUrbana destino) {
+        MapaCidade mapa = origem.getMapa();
+        garantirTabelaTempos(mapa);
+        int n = mapa.getQuantidadeZonas();
+        return tabelaTempos[(banda * n + origem.getId()) * n + destino.getId()];
+    }
+
+    public int getBandaAtual() {
+        return bandaDoMinuto(contexto.getTempoSimulado());
+    }
+
+    public static int getTotalBandas() {
+        return TOTAL_BANDAS;
+    }
+
+    // Deixa prontas a tabela de tempos e a banda do minuto atual. Tarefas paralelas do mesmo minuto (as estações
+    // processadas ao mesmo tempo) passam então só a ler esses campos ao calcular tempos de viagem
+    public void prepararLeituraConcorrente(MapaCidade mapa) {
+        garantirTabelaTempos(mapa);
+        bandaDoMinuto(contexto.getTempoSimulado());
+    }
+
+    private int bandaDoMinuto(int tempoMinutos) {
+        if (tempoMinutos != minutoDaBanda) {
+            minutoDaBanda = tempoMinutos;
+            bandaAtual = isHorarioDePico(tempoMinutos) ? BANDA_PICO : BANDA_NORMAL;
+        }
+        return bandaAtual;
+    }
+
+    private void garantirTabelaTempos(MapaCidade mapa) {
+        if (mapa != mapaDaTabela) {
+            montarTabelaTempos(mapa);
+        }
+    }
+
+    // Preenche a tabela para todas as faixas e pares de zonas com a mesma conta que era feita a cada viagem
+    private void montarTabelaTempos(MapaCidade mapa) {
+        int n = mapa.getQuantidadeZonas();
+        double[] tabela = new double[TOTAL_BANDAS * n * n];
+        double[] minimos = new double[TOTAL_BANDAS * n];
+        for (int banda = 0; banda < TOTAL_BANDAS; banda++) {
+            boolean isPico = banda == BANDA_PICO;
+            double velocidadeMedia = isPico ? VELOCIDADE_MEDIA_PICO : VELOCIDADE_MEDIA_NORMAL;
+            for (int origem = 0; origem < n; origem++) {
+                int variacaoOrigem = isPico ? mapa.getVariacaoPico(origem) : mapa.getVariacaoNormal(origem);
+                int base = (banda * n + origem) * n;
+                double minimo = Double.POSITIVE_INFINITY;
+                for (int destino = 0; destino < n; destino++) {
+                    int distancia = mapa.getDistancia(origem, destino);
+                    if (distancia != 0) { // Com origem e destino iguais o caminhão não se desloca: tempo 0
+                        // Tempo base em minutos
+                        double tempoBase = (distancia / velocidadeMedia) * 60;
+                        // Adiciona variação limitada por zona
+                        int variacao = variacaoOrigem + (isPico ? mapa.getVariacaoPico(destino) : mapa.getVariacaoNormal(destino));
+                        tabela[base + destino] = Math.max(5, tempoBase + Math.min(variacao, 10)); // Tempo mínimo de 5 minutos e variação de no máximo +10 minutos
+                    }
+                    if (destino != origem) {
+                        minimo = Math.min(minimo, tabela[base + destino]);
+                    }
+                }
+                minimos[banda * n + origem] = minimo;
+            }
+        }
+        tabelaTempos = tabela;
+        tempoMinimoSaida = minimos;
+        mapaDaTabela = mapa;
+    }
+
+    // O fator aleatório vem do fluxo do caminhão que faz a viagem
+    public int calcularTempoViagem(ZonaUrbana origem, ZonaUrbana destino, SplittableRandom aleatorio) {
         double tempoAjustado = calcularTempoViagemBase(origem, destino);
         // Adiciona pequena aleatoriedade (+/- 10%)
-        Random random = new Random();
-        double fatorAleatorio = 1.0 + (random.nextDouble() * 2 * MARGEM_ALEATORIA - MARGEM_ALEATORIA);
+        double fatorAleatorio = 1.0 + (aleatorio.nextDouble() * 2 * MARGEM_ALEATORIA - MARGEM_ALEATORIA);
         int tempoFinal = (int) Math.max(1, Math.round(tempoAjustado * fatorAleatorio));
         // Loga detalhes em modo DEBUG
         if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog() && origem != null && destino != null) {
             if (tempoAjustado == 0){
                 tempoFinal = 0;
             }
-            int distancia = ZonaUrbana.getDistancia(origem.getNome(), destino.getNome());
-            boolean isPico = isHorarioDePico(Simulador.getTempoSimulado() % TEMPO_MINUTOS_POR_DIA);
+            int distancia = ZonaUrbana.getDistancia(origem, destino);
+            boolean isPico = isHorarioDePico(contexto.getTempoSimulado() % TEMPO_MINUTOS_POR_DIA);
             double velocidadeMedia = isPico ? VELOCIDADE_MEDIA_PICO : VELOCIDADE_MEDIA_NORMAL;
             int variacao = isPico ? (origem.getVariacaoPico() + destino.getVariacaoPico())
                     : (origem.getVariacaoNormal() + destino.getVariacaoNormal());
-            LoggerSimulacao.log("VIAGEM", String.format(
+            LoggerSimulacao.log("VIAGEM",
                     "Tempo de viagem de %s para %s: distância=%dkm, velocidade=%.1fkm/h, variação=%dmin, aleatoriedade=%.2f, tempo=%dmin",
                     origem.getNome(), destino.getNome(), distancia, velocidadeMedia, variacao, fatorAleatorio, tempoFinal
-            ));
+            );
         }
         return tempoFinal;
     }
 
     private boolean isCaminhaoDisponivel(CaminhaoPequeno caminhao) {
-        return caminhao.getEstado() == 1;
+        return caminhao.getEstado() == EstadoCaminhaoPequeno.DISPONIVEL;
     }
 
-    private int contarCaminhoesDisponiveis(Lista<CaminhaoPequeno> caminhoes) {
-        int disponiveis = 0;
-        for (int i = 0; i < caminhoes.getTamanho(); i++) {
-            if (isCaminhaoDisponivel(caminhoes.obter(i))) {
-                disponiveis++;
-            }
+
+    private ZonaUrbana encontrarMelhorZona(CaminhaoPequeno caminhao, Lista<ZonaUrbana> zonas) {
+        ZonaUrbana zonaAtual = caminhao.getZonaAtual();
+        // No modo DEBUG todas as zonas são avaliadas para que a pontuação de cada uma apareça no log
+        ZonaUrbana melhorZona = zonaAtual != null && zonasIndexadas != null && !LoggerSimulacao.estaAtivoDebug()
+                ? buscarMelhorZonaIndexada(zonaAtual) : avaliarTodasAsZonas(zonaAtual, zonas);
+        // Logando a melhor zona escolhida
+        if (melhorZona == null) {
+            LoggerSimulacao.log("INFO", "Nenhuma zona válida para caminhão %s", caminhao.getPlaca());
+        } else {
+            LoggerSimulacao.log("INFO", "Caminhão %s escolheu a Zona %s (lixo =%dkg)",
+                    caminhao.getPlaca(), melhorZona.getNome(), melhorZona.getLixoAcumulado());
         }
-        return disponiveis;
+        return melhorZona;
     }
 
-    private ZonaUrbana encontrarMelhorZona(CaminhaoPequeno caminhao, Lista<ZonaUrbana> zonas) {
+    private ZonaUrbana avaliarTodasAsZonas(ZonaUrbana zonaAtual, Lista<ZonaUrbana> zonas) {
         ZonaUrbana melhorZona = null;
         double melhorPontuacao = -1;
-        ZonaUrbana zonaAtual = caminhao.getZonaAtual();
         // Avaliando zonas disponíveis para o caminhão
-        for (int i = 0; i < zonas.getTamanho(); i++) {
-            ZonaUrbana zona = zonas.obter(i);
-            if (isZonaValida(zona, zonaAtual)) {
+        for (ZonaUrbana zona : zonas) {
+            if (isZonaValida(zona)) {
                 double pontuacao = calcularPontuacao(zona, zonaAtual);
                 // Logando detalhes de pontuação apenas no modo DEBUG
-                if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog()) {
-                    LoggerSimulacao.log("INFO", String.format("Zona %s: lixo=%dkg, tempo estimado=%dmin, pontuação=%.1f",
-                            zona.getNome(), zona.getLixoAcumulado(), (int) calcularTempoViagemBase(zonaAtual, zona), pontuacao));
+                if (LoggerSimulacao.estaAtivoDebug()) {
+                    LoggerSimulacao.log("INFO", "Zona %s: lixo=%dkg, tempo estimado=%dmin, pontuação=%.1f",
+                            zona.getNome(), zona.getLixoAcumulado(), (int) calcularTempoViagemBase(zonaAtual, zona), pontuacao);
                 }
                 if (pontuacao > melhorPontuacao) {
                     melhorPontuacao = pontuacao;
                     melhorZona = zona;
                 }
-            } else if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog()) {
+            } else if (LoggerSimulacao.estaAtivoDebug()) {
                 // Logando zonas rejeitadas apenas no modo DEBUG
-                LoggerSimulacao.log("INFO", String.format("Zona %s rejeitada: lixo=%dkg, caminhões ativos=%d, distância=%d",
-                        zona.getNome(), zona.getLixoAcumulado(), zona.getCaminhoesAtivos(), ZonaUrbana.getDistancia(zona.getNome(), zonaAtual.getNome())));
+                LoggerSimulacao.log("INFO", "Zona %s rejeitada: lixo=%dkg, caminhões ativos=%d, distância=%d",
+                        zona.getNome(), zona.getLixoAcumulado(), zona.getCaminhoesAtivos(), ZonaUrbana.getDistancia(zona, zonaAtual));
             }
         }
-        // Logando a melhor zona escolhida
-        if (melhorZona == null) {
-            LoggerSimulacao.log("INFO", "Nenhuma zona válida para caminhão " + caminhao.getPlaca());
-        } else {
-            LoggerSimulacao.log("INFO", String.format("Caminhão %s escolheu a Zona %s (lixo =%dkg)",
-                    caminhao.getPlaca(), melhorZona.getNome(), melhorZona.getLixoAcumulado()));
-        }
         return melhorZona;
     }
 
+    // Mesma escolha de avaliarTodasAsZonas (maior pontuação acima de -1, empate para a zona de menor id), percorrendo
+    // o heap e podando os ramos cujo valor, descontado o menor tempo de viagem possível, já não supera a melhor zona
+    private ZonaUrbana buscarMelhorZonaIndexada(ZonaUrbana zonaAtual) {
+        int origem = zonaAtual.getId();
+        if (rodadaPorOrigem[origem] == rodada) {
+            int melhor = melhorPorOrigem[origem];
+            return melhor < 0 ? null : zonasIndexadas[melhor];
+        }
+        int melhor = -1;
+        double melhorPontuacao = -1;
+        // A própria zona não tem viagem
+        if (indiceZonas.contem(origem)) {
+            double pontuacao = indiceZonas.getChave(origem) - (calcularTempoViagemBase(zonaAtual, zonaAtual) * 50);
+            if (pontuacao > melhorPontuacao) {
+                melhorPontuacao = pontuacao;
+                melhor = origem;
+            }
+        }
+        MapaCidade mapa = zonaAtual.getMapa();
+        garantirTabelaTempos(mapa);
+        double penalidadeMinima = tempoMinimoSaida[bandaDoMinuto(contexto.getTempoSimulado()) * mapa.getQuantidadeZonas() + origem] * 50;
+        int topo = 0;
+        if (!indiceZonas.estaVazio()) {
+            pilhaBusca[topo++] = 0;
+        }
+        while (topo > 0) {
+            int posicao = pilhaBusca[--topo];
+            int id = indiceZonas.idNaPosicao(posicao);
+            if (id != origem) {
+                double valor = indiceZonas.chaveNaPosicao(posicao);
+                if (valor - penalidadeMinima < melhorPontuacao) {
+                    continue; // Os filhos têm valor menor ou igual: nenhum deles supera a melhor zona
+                }
+                double pontuacao = valor - (calcularTempoViagemBase(zonaAtual, zonasIndexadas[id]) * 50);
+                if (pontuacao > melhorPontuacao || (pontuacao == melhorPontuacao && melhor >= 0 && id < melhor)) {
+                    melhorPontuacao = pontuacao;
+                    melhor = id;
+                }
+            }
+            int filho = 2 * posicao + 1;
+            if (filho < indiceZonas.getTamanho()) {
+                pilhaBusca[topo++] = filho;
+            }
+            if (filho + 1 < indiceZonas.getTamanho()) {
+                pilhaBusca[topo++] = filho + 1;
+            }
+        }
+        rodadaPorOrigem[origem] = rodada;
+        melhorPorOrigem[origem] = melhor;
+        return melhor < 0 ? null : zonasIndexadas[melhor];
+    }
+
+    // Reindexa as zonas alteradas desde a última distribuição (ou todas, na primeira vez e quando as zonas mudam).
+    // No modo LOTE também reconta os caminhões a caminho de cada zona: as zonas cuja contagem mudou são reindexadas junto
+    private void atualizarIndiceZonas(Lista<ZonaUrbana> zonas, FrotaCaminhoesPequenos caminhoes) {
+        int n = zonas.getTamanho();
+        if (n == 0) {
+            return;
+        }
+        if (zonasIndexadas == null || zonasIndexadas.length != n || zonasIndexadas[0] != zonas.obter(0)) {
+            zonasIndexadas = new ZonaUrbana[n];
+            indiceZonas = new HeapIndexado(n);
+            pilhaBusca = new int[n];
+            melhorPorOrigem = new int[n];
+            rodadaPorOrigem = new int[n];
+            rodada = 0;
+            aCaminhoPorZona = modo == ModoDistribuicao.LOTE ? new int[n] : null;
+            zonasAlteradas.limpar();
+            for (ZonaUrbana zona : zonas) {
+                zonasIndexadas[zona.getId()] = zona;
+                zona.acompanharAlteracoes(zonasAlteradas);
+            }
+        }
+        if (aCaminhoPorZona != null) {
+            recontarCaminhoesACaminho(caminhoes);
+        }
+        for (ZonaUrbana zona : zonasAlteradas) {
+            zona.limparAlteracao();
+            if (isZonaValida(zona)) {
+                indiceZonas.definir(zona.getId(), calcularValorZona(zona));
+            } else {
+                indiceZonas.remover(zona.getId());
+            }
+        }
+        zonasAlteradas.limpar();
+        rodada++;
+    }
+
+    // Conta de novo os caminhões em trânsito para cada zona. As zonas com contagem diferente da que o índice
+    // conhece vão para a lista de alteradas, como se a zona tivesse avisado
+    private void recontarCaminhoesACaminho(FrotaCaminhoesPequenos caminhoes) {
+        int[] anterior = aCaminhoPorZona;
+        int[] atual = new int[anterior.length];
+        ConjuntoIndices emTransito = caminhoes.getIndicesNoEstado(EstadoCaminhaoPequeno.EM_TRANSITO);
+        for (int i = emTransito.proximo(0); i >= 0; i = emTransito.proximo(i + 1)) {
+            ZonaUrbana destino = caminhoes.obter(i).getZonaDestino();
+            if (destino != null) {
+                atual[destino.getId()]++;
+            }
+        }
+        aCaminhoPorZona = atual;
+        for (int z = 0; z < atual.length; z++) {
+            if (atual[z] != anterior[z]) {
+                zonasIndexadas[z].marcarParaReindexar();
+            }
+        }
+    }
+
+    // Caminhões que ocupam a zona: os ativos nela e, no modo LOTE, os que estão a caminho
+    private int ocupacao(ZonaUrbana zona) {
+        return zona.getCaminhoesAtivos() + (aCaminhoPorZona != null ? aCaminhoPorZona[zona.getId()] : 0);
+    }
+
     // Verifica se a zona é válida para alocação de caminhão
-    private boolean isZonaValida(ZonaUrbana zona, ZonaUrbana zonaAtual) {
+    private boolean isZonaValida(ZonaUrbana zona) {
         int lixo = zona.getLixoAcumulado();
-        int caminhoesAtivos = zona.getCaminhoesAtivos();
         // Rejeita zonas sem lixo ou com excesso de caminhões
-        return lixo > 0 && caminhoesAtivos < limiteCaminhoesPorZona;
+        return lixo > 0 && ocupacao(zona) < getLimiteCaminhoesPorZona();
     }
 
     // Calcula a pontuação de uma zona para decidir a alocação de caminhões
     private double calcularPontuacao(ZonaUrbana zona, ZonaUrbana zonaAtual) {
-        int lixo = zona.getLixoAcumulado();
         double tempoViagem = calcularTempoViagemBase(zonaAtual, zona);
-        int caminhoesAtivos = zona.getCaminhoesAtivos();
-        // Obtém proporção de lixo restante
-        ZonaEstatistica zonaEstatistica = Simulador.getEstatisticas().buscarZonaEstatistica(zona.getNome());
-        double proporcaoRestante = (zonaEstatistica != null && zonaEstatistica.getLixoGerado() > 0) ?
-                (double) lixo / zonaEstatistica.getLixoGerado() : 1.0;
+        int ocupacaoZona = ocupacao(zona);
+        int limite = getLimiteCaminhoesPorZona();
         // Fórmula ajustada: prioriza lixo acumulado e proporção, penaliza tempo de viagem
-        double pontuacao = (lixo * 1.0) + (proporcaoRestante * 500) - (tempoViagem * 50);
+        double pontuacao = calcularValorZona(zona) - (tempoViagem * 50);
         // Penalidade por excesso de caminhões na zona
-        if (caminhoesAtivos > limiteCaminhoesPorZona) {
-            double penalidadeCaminhoes = (caminhoesAtivos - limiteCaminhoesPorZona) * 200;
+        if (ocupacaoZona > limite) {
+            double penalidadeCaminhoes = (ocupacaoZona - limite) * 200;
             pontuacao -= penalidadeCaminhoes;
         }
         return pontuacao;
     }
 
+    // Parte da pontuação que não depende da origem do caminhão: lixo acumulado e proporção de lixo restante
+    private double calcularValorZona(ZonaUrbana zona) {
+        int lixo = zona.getLixoAcumulado();
+        // Obtém proporção de lixo restante
+        ZonaEstatistica zonaEstatistica = contexto.getEstatisticas().buscarZonaEstatistica(zona);
+        double proporcaoRestante = (zonaEstatistica != null && zonaEstatistica.getLixoGerado() > 0) ?
+                (double) lixo / zonaEstatistica.getLixoGerado() : 1.0;
+        return (lixo * 1.0) + (proporcaoRestante * 500);
+    }
+
     private int contarZonasComLixo(Lista<ZonaUrbana> zonas) {
         int count = 0;
         for (int i = 0; i < zonas.getTamanho(); i++) {
@@ -0,0 +1,21 @@
+package caminhoes;
+
+// Estados de um caminhão pequeno. A descrição é o texto mostrado nos relatórios
+public enum EstadoCaminhaoPequeno {
+    DISPONIVEL("DISPONÍVEL"),
+    COLETANDO("COLETANDO"),
+    EM_TRANSITO("EM_TRÂNSITO"),
+    FILA_ESTACAO("FILA_ESTAÇÃO"),
+    DESCARREGANDO("DESCARREGANDO"),
+    ENCERRADO("ENCERRADO");
+
+    private final String descricao;
+
+    EstadoCaminhaoPequeno(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
@@ -0,0 +1,150 @@
+package caminhoes;
+
+import estruturas.ConjuntoIndices;
+import estruturas.Lista;
+import simulacao.BufferEfeitos;
+
+import java.util.Iterator;
+
+// Frota de caminhões pequenos com o conjunto dos caminhões em cada estado. Cada caminhão guarda o seu índice na
+// frota e avisa quando muda de estado, de viagens feitas ou de carga; a frota então move o índice entre os conjuntos
+// em O(1). As fases da simulação percorrem só o conjunto que lhes interessa, em ordem de índice, que é a mesma ordem
+// da lista completa: o resultado é o mesmo de filtrar a frota inteira
+public class FrotaCaminhoesPequenos implements Iterable<CaminhaoPequeno>, BufferEfeitos.Receptor {
+    private final Lista<CaminhaoPequeno> caminhoes = new Lista<>();
+    // Condições de um caminhão que fazem o motor de eventos rodar o minuto seguinte (bits de marcarCondicoes):
+    // fez todas as viagens do dia e ainda não foi encerrado; está coletando sem coleta em andamento; está em
+    // trânsito com a viagem já concluída
+    static final int CONDICAO_LIMITE_VIAGENS = 1;
+    static final int CONDICAO_COLETA_PARADA = 2;
+    static final int CONDICAO_VIAGEM_CONCLUIDA = 4;
+    // Operações adiadas no BufferEfeitos
+    private static final int OPERACAO_MUDAR_ESTADO = 0;
+    private static final int OPERACAO_MARCAR_CONDICOES = 1;
+    private static final int OPERACAO_AJUSTAR_CARGA = 2;
+    private static final EstadoCaminhaoPequeno[] ESTADOS = EstadoCaminhaoPequeno.values();
+
+    private final ConjuntoIndices[] porEstado;
+    private final ConjuntoIndices noLimiteViagens = new ConjuntoIndices();
+    private final ConjuntoIndices comColetaParada = new ConjuntoIndices();
+    private final ConjuntoIndices comViagemConcluida = new ConjuntoIndices();
+    private int caminhoesComCarga;
+
+    public FrotaCaminhoesPequenos() {
+        this.porEstado = new ConjuntoIndices[ESTADOS.length];
+        for (int i = 0; i < ESTADOS.length; i++) {
+            porEstado[i] = new ConjuntoIndices();
+        }
+        this.caminhoesComCarga = 0;
+    }
+
+    public void adicionar(CaminhaoPequeno caminhao) {
+        if (caminhao.getFrota() != null) {
+            throw new IllegalArgumentException("O caminhão " + caminhao.getPlaca() + " já pertence a uma frota");
+        }
+        int indice = caminhoes.getTamanho();
+        int condicoes = caminhao.calcularCondicoes();
+        caminhoes.adicionar(caminhao);
+        caminhao.vincularFrota(this, indice, condicoes);
+        porEstado[caminhao.getEstado().ordinal()].adicionar(indice);
+        if (caminhao.getCargaAtual() > 0) {
+            caminhoesComCarga++;
+        }
+        marcarCondicoes(indice, condicoes);
+    }
+
+    public CaminhaoPequeno obter(int indice) {
+        return caminhoes.obter(indice);
+    }
+
+    public int getTamanho() {
+        return caminhoes.getTamanho();
+    }
+
+    public boolean estaVazia() {
+        return caminhoes.estaVazia();
+    }
+
+    @Override
+    public Iterator<CaminhaoPequeno> iterator() {
+        return caminhoes.iterator();
+    }
+
+    // Índices dos caminhões no estado, para percorrer com proximo(). Só a frota deve alterar o conjunto
+    public ConjuntoIndices getIndicesNoEstado(EstadoCaminhaoPequeno estado) {
+        return porEstado[estado.ordinal()];
+    }
+
+    public ConjuntoIndices getIndicesNoLimiteViagens() {
+        return noLimiteViagens;
+    }
+
+    // Coletando, mas sem coleta em andamento: vai tentar coletar, ficar disponível ou segue parado cheio
+    public ConjuntoIndices getIndicesComColetaParada() {
+        return comColetaParada;
+    }
+
+    // Em trânsito com o tempo de viagem zerado: chega no próximo processamento
+    public ConjuntoIndices getIndicesComViagemConcluida() {
+        return comViagemConcluida;
+    }
+
+    public int contar(EstadoCaminhaoPequeno estado) {
+        return porEstado[estado.ordinal()].getTamanho();
+    }
+
+    public int getCaminhoesComCarga() {
+        return caminhoesComCarga;
+    }
+
+    // Os avisos abaixo vêm do próprio caminhão. Dentro de uma tarefa paralela (shard de zonas ou estação) vários
+    // caminhões podem mudar ao mesmo tempo, e os conjuntos compartilham palavras do bitset: lá a mudança vai para o
+    // buffer da tarefa e é aplicada depois da barreira, em ordem
+    void mudarEstado(int indice, EstadoCaminhaoPequeno anterior, EstadoCaminhaoPequeno novo) {
+        BufferEfeitos buffer = BufferEfeitos.atual();
+        if (buffer != null) {
+            buffer.adiar(this, OPERACAO_MUDAR_ESTADO, indice, anterior.ordinal(), novo.ordinal());
+            return;
+        }
+        porEstado[anterior.ordinal()].remover(indice);
+        porEstado[novo.ordinal()].adicionar(indice);
+    }
+
+    void marcarCondicoes(int indice, int condicoes) {
+        BufferEfeitos buffer = BufferEfeitos.atual();
+        if (buffer != null) {
+            buffer.adiar(this, OPERACAO_MARCAR_CONDICOES, indice, condicoes, 0);
+            return;
+        }
+        marcar(noLimiteViagens, indice, (condicoes & CONDICAO_LIMITE_VIAGENS) != 0);
+        marcar(comColetaParada, indice, (condicoes & CONDICAO_COLETA_PARADA) != 0);
+        marcar(comViagemConcluida, indice, (condicoes & CONDICAO_VIAGEM_CONCLUIDA) != 0);
+    }
+
+    private static void marcar(ConjuntoIndices conjunto, int indice, boolean membro) {
+        if (membro) {
+            conjunto.adicionar(indice);
+        } else {
+            conjunto.remover(indice);
+        }
+    }
+
+    void ajustarCaminhoesComCarga(int variacao) {
+        BufferEfeitos buffer = BufferEfeitos.atual();
+        if (buffer != null) {
+            buffer.adiar(this, OPERACAO_AJUSTAR_CARGA, variacao, 0, 0);
+            return;
+        }
+        caminhoesComCarga += variacao;
+    }
+
+    @Override
+    public void aplicarEfeitoAdiado(int operacao, Object argumento, int a, int b, int c, int d, int e) {
+        switch (operacao) {
+            case OPERACAO_MUDAR_ESTADO -> mudarEstado(a, ESTADOS[b], ESTADOS[c]);
+            case OPERACAO_MARCAR_CONDICOES -> marcarCondicoes(a, b);
+            case OPERACAO_AJUSTAR_CARGA -> ajustarCaminhoesComCarga(a);
+            default -> throw new IllegalArgumentException("Operação adiada desconhecida: " + operacao);
+        }
+    }
+}
@@ -1,22 +1,21 @@
 package caminhoes;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 class Placa {
     private static final String PLACA_REGEX = "^[A-Z]{3}[0-9][A-Z][0-9]{2}$";
 
-    static String processarPlaca(String placaOpcional) {
+    static String processarPlaca(String placaOpcional, SplittableRandom random) {
         if (placaOpcional != null && !placaOpcional.isBlank()) {
             if (!validarPlaca(placaOpcional)) {
                 throw new IllegalArgumentException("Placa não segue normas do Mercosul");
             }
             return placaOpcional.toUpperCase();
         }
-        return gerarPlaca();
+        return gerarPlaca(random);
     }
 
-    static String gerarPlaca() {
-        Random random = new Random();
+    static String gerarPlaca(SplittableRandom random) {
         StringBuilder placa = new StringBuilder();
         // Mercosul: LLLNLNN
         for (int i = 0; i < 3; i++) {
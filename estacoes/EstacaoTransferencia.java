@@ -2,25 +2,49 @@ package estacoes;
 
 import caminhoes.CaminhaoPequeno;
 import caminhoes.CaminhaoGrande;
-import caminhoes.DistribuicaoCaminhoes;
 import estruturas.Fila;
 import estruturas.Lista;
+import simulacao.AgendaEventos;
+import simulacao.ContextoSimulacao;
 import simulacao.LoggerSimulacao;
-import simulacao.Simulador;
+import simulacao.RegistroEventosBinario;
 import zonas.ZonaUrbana;
 
 public class EstacaoTransferencia {
+    private final ContextoSimulacao contexto;
+    private final int id;
     private final String nome;
     private final Fila<CaminhaoPequeno> filaPequenos;
     private final Lista<CaminhaoGrande> listaGrandes; // Lista de caminhões grandes na estação
     private final int esperaMaxPequenos;
-    private int esperaTotalPequenos; // Acumula tempo de espera para verificar excedente
+    private long esperaTotalPequenos; // Acumula tempo de espera para verificar excedente
+    // A espera de cada caminhão na fila é derivada do minuto em que ela começou (tempo atual - início), sem
+    // contadores incrementados a cada minuto. A soma dos inícios permite somar as esperas da fila em O(1).
+    // Cada reset abre uma nova época: caminhões que já estavam na fila passam a contar a partir do reset
+    private long somaIniciosEspera;
+    private int epocaEspera;
+    private int inicioEpocaEspera;
     private final Lista<CaminhaoGrande> caminhoesGrandesEsperando; // Lista de caminhões grandes esperando
     private final Lista<Descarregamento> descarregamentosAtivos; // Lista de descarregamentos em andamento
     private ZonaUrbana zonaDaEstacao;
     private static final int TEMPO_DESCARREGAMENTO_POR_KG = 1; // 1 minuto por 1000kg
 
-    public EstacaoTransferencia(String nome, int esperaMaxPequenos, ZonaUrbana zonaDaEstacao) {
+    // Letra da estação pelo id, como colunas de planilha: 0 -> A, 25 -> Z, 26 -> AA
+    public static String letraPadrao(int id) {
+        StringBuilder letras = new StringBuilder();
+        for (int n = id + 1; n > 0; n = (n - 1) / 26) {
+            letras.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return letras.toString();
+    }
+
+    public static String nomePadrao(int id) {
+        return "Estação " + letraPadrao(id);
+    }
+
+    public EstacaoTransferencia(ContextoSimulacao contexto, int id, String nome, int esperaMaxPequenos, ZonaUrbana zonaDaEstacao) {
+        this.contexto = contexto;
+        this.id = id;
         this.nome = nome;
         this.filaPequenos = new Fila<>();
         this.listaGrandes = new Lista<>();
@@ -28,22 +52,30 @@ public class EstacaoTransferencia {
         this.descarregamentosAtivos = new Lista<>();
         this.esperaMaxPequenos = esperaMaxPequenos;
         this.esperaTotalPequenos = 0;
+        this.somaIniciosEspera = 0;
+        this.epocaEspera = 0;
+        this.inicioEpocaEspera = 0;
         this.zonaDaEstacao = zonaDaEstacao;
+        contexto.cadastrarEntidade(RegistroEventosBinario.Tipo.CADASTRO_ESTACAO, id, nome);
     }
 
     // Recebe um caminhão pequeno e o adiciona à fila
     public void receberCaminhaoPequeno(CaminhaoPequeno caminhao, int tempoAtual) {
-        filaPequenos.enfileirar(caminhao);
-        caminhao.incrementarTempoEspera();
-        LoggerSimulacao.log("CHEGADA", String.format("%s: Caminhão %s chegou à estação e entrou na fila. Tamanho da fila: %d",
-                nome, caminhao.getPlaca(), filaPequenos.getTamanho()));
+        // A espera conta 1 minuto na chegada e mais 1 no processamento da fila deste mesmo minuto
+        entrarNaFila(caminhao, tempoAtual - 2);
+        contexto.registrarEvento(RegistroEventosBinario.Tipo.CHEGADA_ESTACAO, caminhao.getNumero(), id, caminhao.getCargaAtual(), filaPequenos.getTamanho());
+        // Os logs por caminhão desta classe são testados antes: com o log desligado (replicações, varredura) não se
+        // monta o vetor de argumentos nem se encaixotam os números
+        if (LoggerSimulacao.estaAtivo("CHEGADA")) {
+            LoggerSimulacao.log("CHEGADA", "%s: Caminhão %s chegou à estação e entrou na fila. Tamanho da fila: %d",
+                    nome, caminhao.getPlaca(), filaPequenos.getTamanho());
+        }
     }
 
     // Processa a fila de caminhões pequenos, descarregando em múltiplos caminhões grandes
     public ResultadoProcessamentoFila processarFila(int tempoAtual) {
-        // Atualiza tempo de espera dos caminhões pequenos
-        int esperaAcumulada = atualizarEsperaCaminhoesPequenos();
-        esperaTotalPequenos += esperaAcumulada;
+        // Soma a espera atual de todos os caminhões pequenos da fila
+        esperaTotalPequenos += (long) filaPequenos.getTamanho() * tempoAtual - somaIniciosEspera;
 
         // Processa descarregamentos em andamento
         processarDescarregamentosAtivos();
@@ -52,18 +84,26 @@ public class EstacaoTransferencia {
         if (!filaPequenos.estaVazia() && !caminhoesGrandesEsperando.estaVazia()) {
             return descarregarCaminhaoPequeno(tempoAtual);
         }
-        return new ResultadoProcessamentoFila(null, 0, false);
+        return ResultadoProcessamentoFila.NAO_PROCESSADO;
     }
 
-    // Atualiza o tempo de espera dos caminhões pequenos e retorna o acumulado
-    private int atualizarEsperaCaminhoesPequenos() {
-        int esperaAcumulada = 0;
-        for (int i = 0; i < filaPequenos.getTamanho(); i++) {
-            CaminhaoPequeno caminhao = filaPequenos.obter(i);
-            caminhao.incrementarTempoEspera();
-            esperaAcumulada += caminhao.getTempoEsperaFila();
-        }
-        return esperaAcumulada;
+    private void entrarNaFila(CaminhaoPequeno caminhao, int inicioEspera) {
+        caminhao.marcarEsperaFila(inicioEspera, epocaEspera);
+        somaIniciosEspera += inicioEspera;
+        filaPequenos.enfileirar(caminhao);
+    }
+
+    private CaminhaoPequeno sairDaFila() {
+        CaminhaoPequeno caminhao = filaPequenos.remover();
+        int inicioEspera = inicioEspera(caminhao);
+        somaIniciosEspera -= inicioEspera;
+        caminhao.marcarEsperaFila(inicioEspera, epocaEspera);
+        return caminhao;
+    }
+
+    // Início efetivo da espera: se houve reset depois que o caminhão entrou na fila, conta a partir do reset
+    private int inicioEspera(CaminhaoPequeno caminhao) {
+        return caminhao.getEpocaEsperaFila() == epocaEspera ? caminhao.getInicioEsperaFila() : inicioEpocaEspera;
     }
 
     // Processa os descarregamentos em andamento, removendo os concluídos
@@ -71,8 +111,10 @@ public class EstacaoTransferencia {
         for (int i = descarregamentosAtivos.getTamanho() - 1; i >= 0; i--) {
             Descarregamento descarregamento = descarregamentosAtivos.obter(i);
             if (descarregamento.atualizar()) {
-                LoggerSimulacao.log("COLETA", String.format("%s: Caminhão grande %s recebeu a carga do caminhão %s",
-                        nome, descarregamento.getCaminhaoGrande().getPlaca(), descarregamento.getCaminhaoPequeno().getPlaca()));
+                if (LoggerSimulacao.estaAtivo("COLETA")) {
+                    LoggerSimulacao.log("COLETA", "%s: Caminhão grande %s recebeu a carga do caminhão %s",
+                            nome, descarregamento.getCaminhaoGrande().getPlaca(), descarregamento.getCaminhaoPequeno().getPlaca());
+                }
                 descarregamentosAtivos.remover(i);
             }
         }
@@ -80,10 +122,10 @@ public class EstacaoTransferencia {
 
     // Descarrega um caminhão pequeno em caminhões grandes disponíveis
     private ResultadoProcessamentoFila descarregarCaminhaoPequeno(int tempoAtual) {
-        CaminhaoPequeno caminhaoPequeno = filaPequenos.remover();
+        CaminhaoPequeno caminhaoPequeno = sairDaFila();
         int cargaRestante = caminhaoPequeno.getCargaAtual();
         int cargaDescarregada = caminhaoPequeno.getCargaAtual();
-        int tempoEsperaCaminhao = caminhaoPequeno.getTempoEsperaFila();
+        int tempoEsperaCaminhao = tempoAtual - caminhaoPequeno.getInicioEsperaFila();
         boolean descarregouCompletamente = true;
         int tempoAtualDescarregamento = 0;
         int tempoDescarregamento = (int) Math.ceil(cargaDescarregada / 1000.0 * TEMPO_DESCARREGAMENTO_POR_KG);
@@ -93,9 +135,9 @@ public class EstacaoTransferencia {
         while (cargaRestante > 0 && caminhaoGrande != null) {
            tempoAtualDescarregamento = descarregarEmCaminhaoGrande(caminhaoPequeno, caminhaoGrande, cargaRestante);
             cargaRestante = caminhaoPequeno.getCargaAtual();
-            if (tempoAtualDescarregamento == 0){
-                LoggerSimulacao.log("DESCARGA", String.format("%s: Caminhão %s descarregou %dkg em caminhão grande %s (tempo: %dmin)",
-                        nome, caminhaoPequeno.getPlaca(), cargaDescarregada, caminhaoGrande.getPlaca(), tempoDescarregamento));
+            if (tempoAtualDescarregamento == 0 && LoggerSimulacao.estaAtivo("DESCARGA")) {
+                LoggerSimulacao.log("DESCARGA", "%s: Caminhão %s descarregou %dkg em caminhão grande %s (tempo: %dmin)",
+                        nome, caminhaoPequeno.getPlaca(), cargaDescarregada, caminhaoGrande.getPlaca(), tempoDescarregamento);
             }
             // Verifica se o caminhão grande está cheio
             if (caminhaoGrande.getCargaAtual() == caminhaoGrande.getCapacidade()) {
@@ -110,13 +152,12 @@ public class EstacaoTransferencia {
 
         // Se ainda há carga restante, o caminhão pequeno volta para a fila
         if (cargaRestante > 0) {
-            filaPequenos.enfileirar(caminhaoPequeno);
+            entrarNaFila(caminhaoPequeno, caminhaoPequeno.getInicioEsperaFila()); // Mantém a espera acumulada
             descarregouCompletamente = false;
-            LoggerSimulacao.log("INFO", String.format("%s: Caminhão %s retornou à fila com %dkg restantes (sem caminhão grande disponível ou capacidade insuficiente)",
-                    nome, caminhaoPequeno.getPlaca(), cargaRestante));
-        } else {
-            // Caminhão pequeno descarregou completamente
-            caminhaoPequeno.resetarTempoEspera();
+            if (LoggerSimulacao.estaAtivo("INFO")) {
+                LoggerSimulacao.log("INFO", "%s: Caminhão %s retornou à fila com %dkg restantes (sem caminhão grande disponível ou capacidade insuficiente)",
+                        nome, caminhaoPequeno.getPlaca(), cargaRestante);
+            }
         }
 
         return new ResultadoProcessamentoFila(descarregouCompletamente ? caminhaoPequeno : null, tempoEsperaCaminhao, descarregouCompletamente);
@@ -131,10 +172,13 @@ public class EstacaoTransferencia {
             caminhaoGrande.carregar(cargaDescarregada);
             caminhaoPequeno.descarregarCarga(cargaDescarregada); // Descarrega parcialmente
             int tempoDescarregamento = (int) Math.ceil(cargaDescarregada / 1000.0 * TEMPO_DESCARREGAMENTO_POR_KG);
+            contexto.registrarEvento(RegistroEventosBinario.Tipo.DESCARGA_ESTACAO, caminhaoPequeno.getNumero(), id, cargaDescarregada, caminhaoGrande.getNumero());
 
             // Log do descarregamento
-            LoggerSimulacao.log("DESCARGA", String.format("%s: Caminhão %s iniciou a descarga de %dkg em caminhão grande %s (tempo: %dmin)",
-                    nome, caminhaoPequeno.getPlaca(), cargaDescarregada, caminhaoGrande.getPlaca(), tempoDescarregamento));
+            if (LoggerSimulacao.estaAtivo("DESCARGA")) {
+                LoggerSimulacao.log("DESCARGA", "%s: Caminhão %s iniciou a descarga de %dkg em caminhão grande %s (tempo: %dmin)",
+                        nome, caminhaoPequeno.getPlaca(), cargaDescarregada, caminhaoGrande.getPlaca(), tempoDescarregamento);
+            }
 
             // Reseta tempo de espera do caminhão grande
             for (int i = 0; i < caminhoesGrandesEsperando.getTamanho(); i++) {
@@ -160,7 +204,7 @@ public class EstacaoTransferencia {
         int carga = liberado.getCargaAtual();
         liberado.setEstacaoOrigem(this);
         liberado.setEstacaoDestino(this); // Retorna à mesma estação
-        int tempoViagem = DistribuicaoCaminhoes.calcularTempoViagem(zonaDaEstacao, Simulador.getZonaAterro());
+        int tempoViagem = contexto.getDistribuicao().calcularTempoViagem(zonaDaEstacao, contexto.getZonaAterro(), liberado.getAleatorio());
         liberado.iniciarViagemParaAterro(tempoViagem);
         // Remove da lista de espera
         for (int j = 0; j < caminhoesGrandesEsperando.getTamanho(); j++) {
@@ -169,10 +213,12 @@ public class EstacaoTransferencia {
                 break;
             }
         }
-        LoggerSimulacao.log("DESCARGA", String.format("%s: Caminhão grande %s liberado para o aterro com %dkg (caminhão cheio)",
-                nome, liberado.getPlaca(), carga));
+        if (LoggerSimulacao.estaAtivo("DESCARGA")) {
+            LoggerSimulacao.log("DESCARGA", "%s: Caminhão grande %s liberado para o aterro com %dkg (caminhão cheio)",
+                    nome, liberado.getPlaca(), carga);
+        }
         // Notifica o simulador para registrar a liberação
-        Simulador.adicionarCaminhaoGrandeOcupado(liberado);
+        contexto.adicionarCaminhaoGrandeOcupado(liberado);
     }
 
     // Atribui um caminhão grande à estação
@@ -190,43 +236,53 @@ public class EstacaoTransferencia {
     // Reseta o tempo de espera acumulado dos caminhões pequenos
     public void resetarEsperaTotalPequenos() {
         esperaTotalPequenos = 0;
-        for (int i = 0; i < filaPequenos.getTamanho(); i++) {
-            filaPequenos.obter(i).resetarTempoEspera();
-        }
-        LoggerSimulacao.log("INFO", String.format("%s: Tempo de espera dos caminhões pequenos resetado.", nome));
+        epocaEspera++;
+        inicioEpocaEspera = contexto.getTempoSimulado();
+        somaIniciosEspera = (long) filaPequenos.getTamanho() * inicioEpocaEspera;
+        LoggerSimulacao.log("INFO", "%s: Tempo de espera dos caminhões pequenos resetado.", nome);
     }
 
     // Atualiza o tempo de espera dos caminhões grandes
     public void atualizarTempoEsperaCaminhaoGrande() {
-        for (int i = 0; i < caminhoesGrandesEsperando.getTamanho(); i++) {
-            CaminhaoGrande caminhao = caminhoesGrandesEsperando.obter(i);
+        for (CaminhaoGrande caminhao : caminhoesGrandesEsperando) {
             // Incrementa tempo de espera apenas se não está em descarregamento ativo
-            boolean emDescarregamento = false;
-            for (int j = 0; j < descarregamentosAtivos.getTamanho(); j++) {
-                if (descarregamentosAtivos.obter(j).getCaminhaoGrande() == caminhao) {
-                    emDescarregamento = true;
-                    break;
-                }
-            }
-            if (!emDescarregamento) {
+            if (!estaEmDescarregamento(caminhao)) {
                 caminhao.incrementarTempoEspera();
             }
         }
     }
 
+    // Avança em bloco minutos sem eventos na estação (fila vazia, nenhum descarregamento concluído)
+    public void avancarMinutosOciosos(int minutos) {
+        for (CaminhaoGrande caminhao : caminhoesGrandesEsperando) {
+            if (!estaEmDescarregamento(caminhao)) {
+                caminhao.incrementarTempoEspera(minutos);
+            }
+        }
+        for (Descarregamento descarregamento : descarregamentosAtivos) {
+            descarregamento.avancar(minutos);
+        }
+    }
+
+    // Minutos até a estação liberar um caminhão grande carregado por tolerância ou por estar cheio
+    public int minutosAteProximaLiberacao() {
+        int minutos = Integer.MAX_VALUE;
+        for (CaminhaoGrande caminhao : caminhoesGrandesEsperando) {
+            if (caminhao.getCargaAtual() > 0 && !estaEmDescarregamento(caminhao)) {
+                int restante = caminhao.getCargaAtual() == caminhao.getCapacidade() ? 1 :
+                        Math.max(1, caminhao.getToleranciaEspera() - caminhao.getTempoEspera());
+                minutos = Math.min(minutos, restante);
+            }
+        }
+        return minutos;
+    }
+
     // Libera caminhões grandes se necessário (cheios ou tolerância excedida)
     public CaminhaoGrande liberarCaminhaoGrandeSeNecessario() {
         for (int i = caminhoesGrandesEsperando.getTamanho() - 1; i >= 0; i--) {
             CaminhaoGrande caminhao = caminhoesGrandesEsperando.obter(i);
             // Verifica se o caminhão está em descarregamento ativo
-            boolean emDescarregamento = false;
-            for (int j = 0; j < descarregamentosAtivos.getTamanho(); j++) {
-                if (descarregamentosAtivos.obter(j).getCaminhaoGrande() == caminhao) {
-                    emDescarregamento = true;
-                    break;
-                }
-            }
-            if (!emDescarregamento) {
+            if (!estaEmDescarregamento(caminhao)) {
                 boolean toleranciaExcedida = caminhao.getTempoEspera() >= caminhao.getToleranciaEspera();
                 boolean caminhaoCheio = caminhao.getCargaAtual() == caminhao.getCapacidade();
                 if (caminhao.getCargaAtual() > 0 && (toleranciaExcedida || caminhaoCheio)) {
@@ -234,12 +290,14 @@ public class EstacaoTransferencia {
                     int carga = liberado.getCargaAtual();
                     liberado.setEstacaoOrigem(this);
                     liberado.setEstacaoDestino(this); // Retorna à mesma estação
-                    int tempoViagem = DistribuicaoCaminhoes.calcularTempoViagem(zonaDaEstacao, Simulador.getZonaAterro());
+                    int tempoViagem = contexto.getDistribuicao().calcularTempoViagem(zonaDaEstacao, contexto.getZonaAterro(), liberado.getAleatorio());
                     liberado.iniciarViagemParaAterro(tempoViagem);
                     caminhoesGrandesEsperando.remover(i);
-                    LoggerSimulacao.log("DESCARGA", String.format("%s: Caminhão grande %s liberado para o aterro com %dkg (motivo: %s)",
-                            nome, liberado.getPlaca(), carga,
-                            caminhaoCheio ? "caminhão cheio" : "tolerância excedida"));
+                    if (LoggerSimulacao.estaAtivo("DESCARGA")) {
+                        LoggerSimulacao.log("DESCARGA", "%s: Caminhão grande %s liberado para o aterro com %dkg (motivo: %s)",
+                                nome, liberado.getPlaca(), carga,
+                                caminhaoCheio ? "caminhão cheio" : "tolerância excedida");
+                    }
                     return liberado;
                 }
             }
@@ -247,7 +305,17 @@ public class EstacaoTransferencia {
         return null;
     }
 
+    private boolean estaEmDescarregamento(CaminhaoGrande caminhao) {
+        for (int j = 0; j < descarregamentosAtivos.getTamanho(); j++) {
+            if (descarregamentosAtivos.obter(j).getCaminhaoGrande() == caminhao) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // Getters
+    public int getId() { return id; }
     public String getNome() { return nome; }
     public Fila<CaminhaoPequeno> getFilaPequenos() { return filaPequenos; }
     public ZonaUrbana getZonaDaEstacao() { return zonaDaEstacao; }
@@ -263,6 +331,8 @@ public class EstacaoTransferencia {
             this.caminhaoPequeno = caminhaoPequeno;
             this.caminhaoGrande = caminhaoGrande;
             this.tempoRestante = tempoDescarregamento;
+            // Criado durante processarFila, começa a ser descontado no minuto seguinte
+            contexto.agendarEvento(Math.max(tempoDescarregamento, 1), AgendaEventos.TipoEvento.FIM_DESCARREGAMENTO);
         }
 
         // Getters
@@ -278,6 +348,14 @@ public class EstacaoTransferencia {
             }
             return true;
         }
+
+        // Avança em bloco minutos que não concluem o descarregamento
+        public void avancar(int minutos) {
+            if (tempoRestante <= minutos) {
+                throw new IllegalStateException("O avanço em bloco não pode concluir o descarregamento");
+            }
+            tempoRestante -= minutos;
+        }
     }
 }
 
@@ -3,6 +3,9 @@ package estacoes;
 import caminhoes.CaminhaoPequeno;
 
 public class ResultadoProcessamentoFila {
+    // Resultado compartilhado para o caso comum de nenhum caminhão processado no minuto
+    public static final ResultadoProcessamentoFila NAO_PROCESSADO = new ResultadoProcessamentoFila(null, 0, false);
+
     private final CaminhaoPequeno caminhaoProcessado;
     private final int tempoDeEspera;
     private final boolean foiProcessado;
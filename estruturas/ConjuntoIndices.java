@@ -0,0 +1,93 @@
+package estruturas;
+
+import java.util.Arrays;
+
+// Conjunto de índices inteiros não-negativos guardado como bitset. adicionar, remover e contem custam O(1), e os
+// membros são percorridos em ordem crescente com proximo(), que pula 64 índices ausentes por vez
+public class ConjuntoIndices {
+    private long[] palavras;
+    private int tamanho;
+
+    public ConjuntoIndices() {
+        this(64);
+    }
+
+    public ConjuntoIndices(int capacidadeInicial) {
+        this.palavras = new long[Math.max(1, (capacidadeInicial + 63) >>> 6)];
+        this.tamanho = 0;
+    }
+
+    public void adicionar(int indice) {
+        validarIndice(indice);
+        int posicao = indice >>> 6;
+        if (posicao >= palavras.length) {
+            palavras = Arrays.copyOf(palavras, Math.max(posicao + 1, palavras.length * 2));
+        }
+        long bit = 1L << indice;
+        if ((palavras[posicao] & bit) == 0) {
+            palavras[posicao] |= bit;
+            tamanho++;
+        }
+    }
+
+    public void remover(int indice) {
+        validarIndice(indice);
+        int posicao = indice >>> 6;
+        long bit = 1L << indice;
+        if (posicao < palavras.length && (palavras[posicao] & bit) != 0) {
+            palavras[posicao] &= ~bit;
+            tamanho--;
+        }
+    }
+
+    public boolean contem(int indice) {
+        int posicao = indice >>> 6;
+        return indice >= 0 && posicao < palavras.length && (palavras[posicao] & (1L << indice)) != 0;
+    }
+
+    // Menor membro maior ou igual a desde, ou -1 se não há nenhum
+    public int proximo(int desde) {
+        return proximoEmQualquer(this, this, desde);
+    }
+
+    // Menor índice maior ou igual a desde que está em a ou em b, ou -1: percorre a união sem montá-la
+    public static int proximoEmQualquer(ConjuntoIndices a, ConjuntoIndices b, int desde) {
+        int inicio = Math.max(desde, 0);
+        int posicao = inicio >>> 6;
+        int fim = Math.max(a.palavras.length, b.palavras.length);
+        if (posicao >= fim) {
+            return -1;
+        }
+        long palavra = (a.palavra(posicao) | b.palavra(posicao)) & (-1L << inicio);
+        while (palavra == 0) {
+            if (++posicao == fim) {
+                return -1;
+            }
+            palavra = a.palavra(posicao) | b.palavra(posicao);
+        }
+        return (posicao << 6) + Long.numberOfTrailingZeros(palavra);
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public boolean estaVazio() {
+        return tamanho == 0;
+    }
+
+    public void limpar() {
+        Arrays.fill(palavras, 0);
+        tamanho = 0;
+    }
+
+    private long palavra(int posicao) {
+        return posicao < palavras.length ? palavras[posicao] : 0;
+    }
+
+    private static void validarIndice(int indice) {
+        if (indice < 0) {
+            throw new IllegalArgumentException("Índice negativo: " + indice);
+        }
+    }
+}
@@ -1,55 +1,62 @@
 package estruturas;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 
-public class Fila<T> {
-    private No<T> head;
-    private No<T> tail;
+// Fila circular sobre array: enfileirar, remover e obter por posição são O(1).
+// O array dobra de tamanho quando enche
+public class Fila<T> implements Iterable<T> {
+    private Object[] dados;
+    private int inicio;
     private int tamanho;
+    private int modificacoes; // Conta alterações para o iterador detectar mudanças durante o percurso
+    private Iterador iteradorReutilizavel; // Evita alocar um iterador novo a cada percurso
 
     public Fila() {
-        this.head = null;
-        this.tail = null;
+        this(16);
+    }
+
+    public Fila(int capacidadeInicial) {
+        this.dados = new Object[Math.max(1, capacidadeInicial)];
+        this.inicio = 0;
         this.tamanho = 0;
+        this.modificacoes = 0;
+        this.iteradorReutilizavel = new Iterador();
     }
 
     public void enfileirar(T dado) {
-        No<T> novoNo = new No<>(dado);
-        if (estaVazia()) {
-            head = novoNo;
-            tail = novoNo;
-            tail.prox = head;
-        } else {
-            tail.prox = novoNo;
-            tail = novoNo;
-            tail.prox = head;
+        if (tamanho == dados.length) {
+            crescer();
         }
+        dados[posicao(tamanho)] = dado;
         tamanho++;
+        modificacoes++;
     }
 
+    @SuppressWarnings("unchecked")
     public T remover() {
         if (estaVazia()) {
             throw new RuntimeException("Fila vazia!");
         }
-        T dadoRemovido = head.dado;
-        head = head.prox;
+        T dadoRemovido = (T) dados[inicio];
+        dados[inicio] = null;
+        inicio = (inicio + 1) % dados.length;
         tamanho--;
-        if (head == null) {
-            tail = null;
-        } else {
-            tail.prox = head;
-        }
+        modificacoes++;
         return dadoRemovido;
     }
 
+    @SuppressWarnings("unchecked")
     public T primeiroDaFila() {
         if (estaVazia()) {
             throw new NoSuchElementException("A fila está vazia!");
         }
-        return head.dado;
+        return (T) dados[inicio];
     }
 
-    // Obtém o elemento no índice especificado
+    // Obtém o elemento no índice especificado (0 é o primeiro da fila)
+    @SuppressWarnings("unchecked")
     public T obter(int indice) {
         if (estaVazia()) {
             throw new NoSuchElementException("A fila está vazia!");
@@ -57,11 +64,7 @@ public class Fila<T> {
         if (indice < 0 || indice >= tamanho) {
             throw new IndexOutOfBoundsException("Índice inválido: " + indice);
         }
-        No<T> atual = head;
-        for (int i = 0; i < indice; i++) {
-            atual = atual.prox;
-        }
-        return atual.dado;
+        return (T) dados[posicao(indice)];
     }
 
     public boolean estaVazia() {
@@ -70,6 +73,61 @@ public class Fila<T> {
     public int getTamanho() {
         return tamanho;
     }
-}
 
+    // Percorre do primeiro ao último da fila. O mesmo iterador é reaproveitado entre percursos;
+    // só um percurso aninhado (ou interrompido antes do fim) aloca um novo
+    @Override
+    public Iterator<T> iterator() {
+        if (iteradorReutilizavel.emUso) {
+            iteradorReutilizavel = new Iterador();
+        }
+        iteradorReutilizavel.reiniciar();
+        return iteradorReutilizavel;
+    }
 
+    private int posicao(int indice) {
+        return (inicio + indice) % dados.length;
+    }
+
+    private void crescer() {
+        Object[] novosDados = new Object[dados.length * 2];
+        for (int i = 0; i < tamanho; i++) {
+            novosDados[i] = dados[posicao(i)];
+        }
+        dados = novosDados;
+        inicio = 0;
+    }
+
+    private class Iterador implements Iterator<T> {
+        private int indice;
+        private int modificacoesEsperadas;
+        private boolean emUso;
+
+        private void reiniciar() {
+            indice = 0;
+            modificacoesEsperadas = modificacoes;
+            emUso = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (indice < tamanho) {
+                return true;
+            }
+            emUso = false;
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (modificacoes != modificacoesEsperadas) {
+                throw new ConcurrentModificationException("A fila foi alterada durante o percurso!");
+            }
+            if (indice >= tamanho) {
+                throw new NoSuchElementException("Não há mais elementos na fila!");
+            }
+            return (T) dados[posicao(indice++)];
+        }
+    }
+}
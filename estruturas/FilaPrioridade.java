@@ -0,0 +1,149 @@
+package estruturas;
+
+import java.util.NoSuchElementException;
+
+// Fila de prioridade baseada em heap binário: sai primeiro o elemento de menor prioridade.
+// Elementos com a mesma prioridade saem na ordem em que foram inseridos
+public class FilaPrioridade<T> {
+    private Object[] dados;
+    private int[] prioridades;
+    private long[] ordens;
+    private long proximaOrdem;
+    private int tamanho;
+
+    public FilaPrioridade() {
+        this(16);
+    }
+
+    public FilaPrioridade(int capacidadeInicial) {
+        int capacidade = Math.max(1, capacidadeInicial);
+        this.dados = new Object[capacidade];
+        this.prioridades = new int[capacidade];
+        this.ordens = new long[capacidade];
+        this.proximaOrdem = 0;
+        this.tamanho = 0;
+    }
+
+    public void inserir(T dado, int prioridade) {
+        if (tamanho == dados.length) {
+            crescer();
+        }
+        int i = tamanho++;
+        dados[i] = dado;
+        prioridades[i] = prioridade;
+        ordens[i] = proximaOrdem++;
+        subir(i);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T remover() {
+        if (estaVazia()) {
+            throw new NoSuchElementException("A fila de prioridade está vazia!");
+        }
+        T removido = (T) dados[0];
+        tamanho--;
+        if (tamanho > 0) {
+            mover(tamanho, 0);
+            descer(0);
+        }
+        dados[tamanho] = null;
+        return removido;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T primeiro() {
+        if (estaVazia()) {
+            throw new NoSuchElementException("A fila de prioridade está vazia!");
+        }
+        return (T) dados[0];
+    }
+
+    public int prioridadeDoPrimeiro() {
+        if (estaVazia()) {
+            throw new NoSuchElementException("A fila de prioridade está vazia!");
+        }
+        return prioridades[0];
+    }
+
+    public void limpar() {
+        for (int i = 0; i < tamanho; i++) {
+            dados[i] = null;
+        }
+        tamanho = 0;
+    }
+
+    public boolean estaVazia() {
+        return tamanho == 0;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int pai = (i - 1) / 2;
+            if (!menor(i, pai)) {
+                break;
+            }
+            trocar(i, pai);
+            i = pai;
+        }
+    }
+
+    private void descer(int i) {
+        while (true) {
+            int esquerdo = 2 * i + 1;
+            if (esquerdo >= tamanho) {
+                break;
+            }
+            int filho = esquerdo;
+            int direito = esquerdo + 1;
+            if (direito < tamanho && menor(direito, esquerdo)) {
+                filho = direito;
+            }
+            if (!menor(filho, i)) {
+                break;
+            }
+            trocar(i, filho);
+            i = filho;
+        }
+    }
+
+    // Compara por prioridade e, em caso de empate, pela ordem de inserção
+    private boolean menor(int a, int b) {
+        if (prioridades[a] != prioridades[b]) {
+            return prioridades[a] < prioridades[b];
+        }
+        return ordens[a] < ordens[b];
+    }
+
+    private void trocar(int a, int b) {
+        Object dado = dados[a];
+        int prioridade = prioridades[a];
+        long ordem = ordens[a];
+        mover(b, a);
+        dados[b] = dado;
+        prioridades[b] = prioridade;
+        ordens[b] = ordem;
+    }
+
+    private void mover(int origem, int destino) {
+        dados[destino] = dados[origem];
+        prioridades[destino] = prioridades[origem];
+        ordens[destino] = ordens[origem];
+    }
+
+    private void crescer() {
+        int novaCapacidade = dados.length * 2;
+        Object[] novosDados = new Object[novaCapacidade];
+        int[] novasPrioridades = new int[novaCapacidade];
+        long[] novasOrdens = new long[novaCapacidade];
+        System.arraycopy(dados, 0, novosDados, 0, tamanho);
+        System.arraycopy(prioridades, 0, novasPrioridades, 0, tamanho);
+        System.arraycopy(ordens, 0, novasOrdens, 0, tamanho);
+        dados = novosDados;
+        prioridades = novasPrioridades;
+        ordens = novasOrdens;
+    }
+}
@@ -0,0 +1,152 @@
+package estruturas;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// Heap binário de máximo sobre ids inteiros (0..capacidade-1), cada um com uma chave double. A posição de cada id
+// no heap é guardada, então definir() e remover() de um id qualquer custam O(log n). Chaves iguais saem pelo menor
+// id. As posições seguem o layout usual (filhos de p em 2p+1 e 2p+2) e ficam expostas para buscas com poda
+public class HeapIndexado {
+    private final int[] ids;        // ids[posição]
+    private final double[] chaves;  // chaves[id]
+    private final int[] posicoes;   // posicoes[id], ou -1 se o id não está no heap
+    private int tamanho;
+
+    public HeapIndexado(int capacidade) {
+        this.ids = new int[Math.max(1, capacidade)];
+        this.chaves = new double[ids.length];
+        this.posicoes = new int[ids.length];
+        this.tamanho = 0;
+        Arrays.fill(posicoes, -1);
+    }
+
+    // Insere o id ou atualiza a chave dele
+    public void definir(int id, double chave) {
+        validarId(id);
+        int posicao = posicoes[id];
+        if (posicao < 0) {
+            chaves[id] = chave;
+            posicao = tamanho++;
+            ids[posicao] = id;
+            posicoes[id] = posicao;
+            subir(posicao);
+            return;
+        }
+        double anterior = chaves[id];
+        chaves[id] = chave;
+        if (chave > anterior) {
+            subir(posicao);
+        } else if (chave < anterior) {
+            descer(posicao);
+        }
+    }
+
+    public void remover(int id) {
+        validarId(id);
+        int posicao = posicoes[id];
+        if (posicao < 0) {
+            return;
+        }
+        int ultimo = --tamanho;
+        posicoes[id] = -1;
+        if (posicao != ultimo) {
+            // O último id ocupa a vaga e pode precisar subir ou descer
+            int movido = ids[ultimo];
+            ids[posicao] = movido;
+            posicoes[movido] = posicao;
+            subir(posicao);
+            descer(posicoes[movido]);
+        }
+    }
+
+    public boolean contem(int id) {
+        return id >= 0 && id < posicoes.length && posicoes[id] >= 0;
+    }
+
+    public double getChave(int id) {
+        if (!contem(id)) {
+            throw new NoSuchElementException("Id fora do heap: " + id);
+        }
+        return chaves[id];
+    }
+
+    public int topo() {
+        if (tamanho == 0) {
+            throw new NoSuchElementException("Heap vazio");
+        }
+        return ids[0];
+    }
+
+    public int idNaPosicao(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException("Posição inválida: " + posicao);
+        }
+        return ids[posicao];
+    }
+
+    public double chaveNaPosicao(int posicao) {
+        return chaves[idNaPosicao(posicao)];
+    }
+
+    public void limpar() {
+        for (int i = 0; i < tamanho; i++) {
+            posicoes[ids[i]] = -1;
+        }
+        tamanho = 0;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public boolean estaVazio() {
+        return tamanho == 0;
+    }
+
+    // a vem antes de b: chave maior, ou a mesma chave e id menor
+    private boolean antes(int a, int b) {
+        return chaves[a] > chaves[b] || (chaves[a] == chaves[b] && a < b);
+    }
+
+    private void subir(int posicao) {
+        int id = ids[posicao];
+        while (posicao > 0) {
+            int pai = (posicao - 1) / 2;
+            if (!antes(id, ids[pai])) {
+                break;
+            }
+            ids[posicao] = ids[pai];
+            posicoes[ids[posicao]] = posicao;
+            posicao = pai;
+        }
+        ids[posicao] = id;
+        posicoes[id] = posicao;
+    }
+
+    private void descer(int posicao) {
+        int id = ids[posicao];
+        while (true) {
+            int filho = 2 * posicao + 1;
+            if (filho >= tamanho) {
+                break;
+            }
+            if (filho + 1 < tamanho && antes(ids[filho + 1], ids[filho])) {
+                filho++;
+            }
+            if (!antes(ids[filho], id)) {
+                break;
+            }
+            ids[posicao] = ids[filho];
+            posicoes[ids[posicao]] = posicao;
+            posicao = filho;
+        }
+        ids[posicao] = id;
+        posicoes[id] = posicao;
+    }
+
+    private void validarId(int id) {
+        if (id < 0 || id >= posicoes.length) {
+            throw new IllegalArgumentException("Id inválido: " + id);
+        }
+    }
+}
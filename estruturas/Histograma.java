@@ -0,0 +1,98 @@
+package estruturas;
+
+import java.util.Arrays;
+
+// Histograma de valores inteiros não negativos com memória fixa, no esquema do HdrHistogram: valores até 127
+// têm contador exato e, a partir daí, cada potência de 2 é dividida em 64 faixas iguais, o que dá erro relativo
+// máximo de 1/64 (~1,6%) em qualquer valor até Integer.MAX_VALUE. registrar() é O(1) e não aloca nada;
+// os percentis devolvem o maior valor equivalente da faixa, como o HdrHistogram, e o máximo é sempre exato
+public class Histograma {
+    private static final int BITS_SUBFAIXA = 7;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;        // 128 contadores exatos
+    private static final int METADE_SUBFAIXAS = SUBFAIXAS / 2;      // 64 faixas por potência de 2 acima disso
+    private static final int TAMANHO = SUBFAIXAS + (Integer.SIZE - 1 - BITS_SUBFAIXA) * METADE_SUBFAIXAS;
+
+    private final long[] contagens;
+    private long total;
+    private long soma;
+    private int maximo;
+
+    public Histograma() {
+        this.contagens = new long[TAMANHO];
+        limpar();
+    }
+
+    public void registrar(int valor) {
+        registrar(valor, 1);
+    }
+
+    // Registra o mesmo valor várias vezes
+    public void registrar(int valor, long vezes) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor negativo no histograma: " + valor);
+        }
+        contagens[indice(valor)] += vezes;
+        total += vezes;
+        soma += valor * vezes;
+        if (valor > maximo) {
+            maximo = valor;
+        }
+    }
+
+    // Menor valor v tal que pelo menos 'percentil'% dos registros são <= v (0 se vazio)
+    public int percentil(double percentil) {
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentil)) / 100.0 * total));
+        long acumulado = 0;
+        for (int i = 0; i < TAMANHO; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(maiorValorEquivalente(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    public void limpar() {
+        Arrays.fill(contagens, 0);
+        total = 0;
+        soma = 0;
+        maximo = 0;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public double getMedia() {
+        return total > 0 ? (double) soma / total : 0.0;
+    }
+
+    public boolean estaVazio() {
+        return total == 0;
+    }
+
+    private static int indice(int valor) {
+        if (valor < SUBFAIXAS) {
+            return valor;
+        }
+        // Deslocamento que traz o valor para [64, 128): cada unidade do resultado é uma faixa de 2^deslocamento
+        int deslocamento = (Integer.SIZE - BITS_SUBFAIXA) - Integer.numberOfLeadingZeros(valor);
+        return SUBFAIXAS + (deslocamento - 1) * METADE_SUBFAIXAS + ((valor >>> deslocamento) - METADE_SUBFAIXAS);
+    }
+
+    private static int maiorValorEquivalente(int indice) {
+        if (indice < SUBFAIXAS) {
+            return indice;
+        }
+        int deslocamento = (indice - SUBFAIXAS) / METADE_SUBFAIXAS + 1;
+        long inicio = (long) ((indice - SUBFAIXAS) % METADE_SUBFAIXAS + METADE_SUBFAIXAS) << deslocamento;
+        return (int) Math.min(Integer.MAX_VALUE, inicio + (1L << deslocamento) - 1);
+    }
+}
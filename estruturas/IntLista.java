@@ -0,0 +1,60 @@
+package estruturas;
+
+// Lista de int sem boxing. limpar() só zera o tamanho: o array é reaproveitado, então uma lista
+// esvaziada e preenchida a cada minuto não aloca nada depois de atingir a capacidade necessária
+public class IntLista {
+    private int[] dados;
+    private int tamanho;
+
+    public IntLista() {
+        this(10);
+    }
+
+    public IntLista(int capacidadeInicial) {
+        this.dados = new int[Math.max(1, capacidadeInicial)];
+        this.tamanho = 0;
+    }
+
+    public void adicionar(int valor) {
+        if (tamanho == dados.length) {
+            int[] novosDados = new int[dados.length * 2];
+            System.arraycopy(dados, 0, novosDados, 0, tamanho);
+            dados = novosDados;
+        }
+        dados[tamanho++] = valor;
+    }
+
+    public int obter(int indice) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice inválido: " + indice);
+        }
+        return dados[indice];
+    }
+
+    public void definir(int indice, int valor) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice inválido: " + indice);
+        }
+        dados[indice] = valor;
+    }
+
+    public long soma() {
+        long soma = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += dados[i];
+        }
+        return soma;
+    }
+
+    public void limpar() {
+        tamanho = 0;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public boolean estaVazia() {
+        return tamanho == 0;
+    }
+}
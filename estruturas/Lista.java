@@ -1,62 +1,62 @@
 package estruturas;
 
-public class Lista<T> {
-    private No<T> head;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Lista dinâmica baseada em array: obter e adicionar no fim são O(1); remover desloca os elementos seguintes
+public class Lista<T> implements Iterable<T> {
+    private Object[] dados;
     private int tamanho;
+    private int modificacoes; // Conta alterações estruturais para o iterador detectar mudanças durante o percurso
 
     public Lista() {
-        this.head = null;
+        this(10);
+    }
+
+    public Lista(int capacidadeInicial) {
+        this.dados = new Object[Math.max(1, capacidadeInicial)];
         this.tamanho = 0;
+        this.modificacoes = 0;
     }
 
     public void adicionar(T dado) {
-        No<T> novoNo = new No<>(dado);
-        if (head == null) {
-            head = novoNo;
-        } else {
-            No<T> atual = head;
-            while (atual.prox != null) {
-                atual = atual.prox;
-            }
-            atual.prox = novoNo;
+        if (tamanho == dados.length) {
+            crescer();
         }
-        tamanho++;
+        dados[tamanho++] = dado;
+        modificacoes++;
     }
 
+    @SuppressWarnings("unchecked")
     public T obter(int indice) {
         if (indice < 0 || indice >= tamanho) {
             throw new IndexOutOfBoundsException("Índice inválido: " + indice);
         }
-        No<T> atual = head;
-        for (int i = 0; i < indice; i++) {
-            atual = atual.prox;
-        }
-        return atual.dado;
+        return (T) dados[indice];
     }
 
+    @SuppressWarnings("unchecked")
     public T remover(int indice) {
         if (indice < 0 || indice >= tamanho) {
             throw new IndexOutOfBoundsException("Índice inválido: " + indice);
         }
-        T removido;
-        if (indice == 0) {
-            removido = head.dado;
-            head = head.prox;
-        } else {
-            No<T> anterior = head;
-            for (int i = 0; i < indice - 1; i++) {
-                anterior = anterior.prox;
-            }
-            removido = anterior.prox.dado;
-            anterior.prox = anterior.prox.prox;
+        T removido = (T) dados[indice];
+        int mover = tamanho - indice - 1;
+        if (mover > 0) {
+            System.arraycopy(dados, indice + 1, dados, indice, mover);
         }
-        tamanho--;
+        dados[--tamanho] = null;
+        modificacoes++;
         return removido;
     }
 
     public void limpar() {
-        head = null;
+        for (int i = 0; i < tamanho; i++) {
+            dados[i] = null;
+        }
         tamanho = 0;
+        modificacoes++;
     }
 
     public int getTamanho() {
@@ -66,6 +66,38 @@ public class Lista<T> {
     public boolean estaVazia() {
         return tamanho == 0;
     }
-}
 
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterador();
+    }
 
+    private void crescer() {
+        Object[] novosDados = new Object[dados.length * 2];
+        System.arraycopy(dados, 0, novosDados, 0, tamanho);
+        dados = novosDados;
+    }
+
+    // Percorre a lista em ordem; falha se a lista for alterada durante o percurso
+    private class Iterador implements Iterator<T> {
+        private int indice = 0;
+        private final int modificacoesEsperadas = modificacoes;
+
+        @Override
+        public boolean hasNext() {
+            return indice < tamanho;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (modificacoes != modificacoesEsperadas) {
+                throw new ConcurrentModificationException("A lista foi alterada durante o percurso!");
+            }
+            if (indice >= tamanho) {
+                throw new NoSuchElementException("Não há mais elementos na lista!");
+            }
+            return (T) dados[indice++];
+        }
+    }
+}
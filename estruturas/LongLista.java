@@ -0,0 +1,60 @@
+package estruturas;
+
+// Lista de long sem boxing. limpar() só zera o tamanho: o array é reaproveitado, então uma lista
+// esvaziada e preenchida a cada minuto não aloca nada depois de atingir a capacidade necessária
+public class LongLista {
+    private long[] dados;
+    private int tamanho;
+
+    public LongLista() {
+        this(10);
+    }
+
+    public LongLista(int capacidadeInicial) {
+        this.dados = new long[Math.max(1, capacidadeInicial)];
+        this.tamanho = 0;
+    }
+
+    public void adicionar(long valor) {
+        if (tamanho == dados.length) {
+            long[] novosDados = new long[dados.length * 2];
+            System.arraycopy(dados, 0, novosDados, 0, tamanho);
+            dados = novosDados;
+        }
+        dados[tamanho++] = valor;
+    }
+
+    public long obter(int indice) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice inválido: " + indice);
+        }
+        return dados[indice];
+    }
+
+    public void definir(int indice, long valor) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice inválido: " + indice);
+        }
+        dados[indice] = valor;
+    }
+
+    public long soma() {
+        long soma = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += dados[i];
+        }
+        return soma;
+    }
+
+    public void limpar() {
+        tamanho = 0;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public boolean estaVazia() {
+        return tamanho == 0;
+    }
+}
@@ -0,0 +1,78 @@
+package estruturas;
+
+// Tabela hash de String para índice (int >= 0) com endereçamento aberto e sondagem linear.
+// Usada para achar zonas pelo nome em tempo constante ao carregar cidades com centenas de zonas
+public class MapaIndices {
+    private String[] chaves;
+    private int[] valores;
+    private int tamanho;
+
+    public MapaIndices() {
+        this(16);
+    }
+
+    public MapaIndices(int capacidadeEsperada) {
+        int capacidade = 16;
+        while (capacidade < capacidadeEsperada * 2) {
+            capacidade *= 2;
+        }
+        this.chaves = new String[capacidade];
+        this.valores = new int[capacidade];
+        this.tamanho = 0;
+    }
+
+    // Associa a chave ao índice; devolve o índice anterior ou -1 se a chave é nova
+    public int colocar(String chave, int valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("O índice deve ser não-negativo: " + valor);
+        }
+        if ((tamanho + 1) * 2 > chaves.length) {
+            crescer();
+        }
+        int posicao = posicao(chave);
+        if (chaves[posicao] != null) {
+            int anterior = valores[posicao];
+            valores[posicao] = valor;
+            return anterior;
+        }
+        chaves[posicao] = chave;
+        valores[posicao] = valor;
+        tamanho++;
+        return -1;
+    }
+
+    // Índice associado à chave, ou -1 se ela não existe
+    public int obter(String chave) {
+        int posicao = posicao(chave);
+        return chaves[posicao] != null ? valores[posicao] : -1;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    // Posição da chave, ou a posição livre onde ela entraria
+    private int posicao(String chave) {
+        int mascara = chaves.length - 1;
+        int h = chave.hashCode();
+        int posicao = (h ^ (h >>> 16)) & mascara;
+        while (chaves[posicao] != null && !chaves[posicao].equals(chave)) {
+            posicao = (posicao + 1) & mascara;
+        }
+        return posicao;
+    }
+
+    private void crescer() {
+        String[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        chaves = new String[chavesAntigas.length * 2];
+        valores = new int[chaves.length];
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != null) {
+                int posicao = posicao(chavesAntigas[i]);
+                chaves[posicao] = chavesAntigas[i];
+                valores[posicao] = valoresAntigos[i];
+            }
+        }
+    }
+}
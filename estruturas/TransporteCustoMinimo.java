@@ -0,0 +1,156 @@
+package estruturas;
+
+import java.util.Arrays;
+
+// Problema de transporte resolvido como fluxo de custo mínimo: origens com ofertas, destinos com capacidades e um
+// custo inteiro por unidade em cada par origem-destino permitido. Envia o maior fluxo possível e, entre os fluxos
+// máximos, o de menor custo total (caminhos mínimos sucessivos com potenciais, Dijkstra denso a cada aumento).
+// O tamanho do problema depende só do número de origens e destinos, não do total de unidades
+public class TransporteCustoMinimo {
+    public static final long SEM_ARESTA = Long.MAX_VALUE;
+    private static final long INFINITO = Long.MAX_VALUE / 4;
+
+    private TransporteCustoMinimo() {
+    }
+
+    // custos[origem * destinos + destino], ou SEM_ARESTA. Devolve fluxos no mesmo formato
+    public static int[] resolver(int[] ofertas, int[] capacidades, long[] custos) {
+        int origens = ofertas.length;
+        int destinos = capacidades.length;
+        if (custos.length != origens * destinos) {
+            throw new IllegalArgumentException(String.format("%d custos para %d origens e %d destinos",
+                    custos.length, origens, destinos));
+        }
+        int[] fluxos = new int[origens * destinos];
+        if (origens == 0 || destinos == 0) {
+            return fluxos;
+        }
+        int[] ofertaRestante = ofertas.clone();
+        int[] capacidadeRestante = capacidades.clone();
+
+        // Nós: fonte (0), origens (1..origens), destinos (origens+1..origens+destinos) e sumidouro (último)
+        int fonte = 0;
+        int sumidouro = origens + destinos + 1;
+        int totalNos = sumidouro + 1;
+        long[] potencial = new long[totalNos];
+        long[] distancia = new long[totalNos];
+        int[] anterior = new int[totalNos];
+        boolean[] visitado = new boolean[totalNos];
+
+        // Potenciais iniciais: distâncias exatas da fonte no grafo sem fluxo (fonte -> origem -> destino -> sumidouro)
+        long melhorDestino = INFINITO;
+        for (int d = 0; d < destinos; d++) {
+            long minimo = INFINITO;
+            for (int o = 0; o < origens; o++) {
+                long custo = custos[o * destinos + d];
+                if (custo != SEM_ARESTA) {
+                    validarCusto(custo);
+                    minimo = Math.min(minimo, custo);
+                }
+            }
+            potencial[origens + 1 + d] = minimo;
+            if (capacidadeRestante[d] > 0) {
+                melhorDestino = Math.min(melhorDestino, minimo);
+            }
+        }
+        potencial[sumidouro] = melhorDestino;
+
+        while (true) {
+            Arrays.fill(distancia, INFINITO);
+            Arrays.fill(visitado, false);
+            distancia[fonte] = 0;
+            anterior[fonte] = -1;
+            while (true) {
+                // Nó não visitado mais próximo; empates ficam com o menor índice
+                int u = -1;
+                for (int v = 0; v < totalNos; v++) {
+                    if (!visitado[v] && distancia[v] < INFINITO && (u < 0 || distancia[v] < distancia[u])) {
+                        u = v;
+                    }
+                }
+                if (u < 0 || u == sumidouro) {
+                    break;
+                }
+                visitado[u] = true;
+                if (u == fonte) {
+                    for (int o = 0; o < origens; o++) {
+                        if (ofertaRestante[o] > 0) {
+                            relaxar(u, 1 + o, 0, distancia, potencial, anterior, visitado);
+                        }
+                    }
+                } else if (u <= origens) {
+                    int o = u - 1;
+                    for (int d = 0; d < destinos; d++) {
+                        long custo = custos[o * destinos + d];
+                        if (custo != SEM_ARESTA) {
+                            relaxar(u, origens + 1 + d, custo, distancia, potencial, anterior, visitado);
+                        }
+                    }
+                } else {
+                    int d = u - origens - 1;
+                    // Arestas reversas: desfazer parte do fluxo que chega ao destino
+                    for (int o = 0; o < origens; o++) {
+                        if (fluxos[o * destinos + d] > 0) {
+                            relaxar(u, 1 + o, -custos[o * destinos + d], distancia, potencial, anterior, visitado);
+                        }
+                    }
+                    if (capacidadeRestante[d] > 0) {
+                        relaxar(u, sumidouro, 0, distancia, potencial, anterior, visitado);
+                    }
+                }
+            }
+            if (distancia[sumidouro] >= INFINITO) {
+                break;
+            }
+            // A busca para no sumidouro: limitar as distâncias à dele mantém os custos reduzidos não negativos
+            for (int v = 0; v < totalNos; v++) {
+                potencial[v] += Math.min(distancia[v], distancia[sumidouro]);
+            }
+
+            // Gargalo do caminho: oferta da primeira origem, capacidade do último destino e fluxos desfeitos no meio
+            int destinoFinal = anterior[sumidouro] - origens - 1;
+            int gargalo = capacidadeRestante[destinoFinal];
+            int v = anterior[sumidouro];
+            while (anterior[v] != fonte) {
+                int u = anterior[v];
+                if (u > origens) { // destino -> origem: aresta reversa
+                    gargalo = Math.min(gargalo, fluxos[(v - 1) * destinos + (u - origens - 1)]);
+                }
+                v = u;
+            }
+            gargalo = Math.min(gargalo, ofertaRestante[v - 1]);
+
+            capacidadeRestante[destinoFinal] -= gargalo;
+            v = anterior[sumidouro];
+            while (anterior[v] != fonte) {
+                int u = anterior[v];
+                if (u > origens) {
+                    fluxos[(v - 1) * destinos + (u - origens - 1)] -= gargalo;
+                } else {
+                    fluxos[(u - 1) * destinos + (v - origens - 1)] += gargalo;
+                }
+                v = u;
+            }
+            ofertaRestante[v - 1] -= gargalo;
+        }
+        return fluxos;
+    }
+
+    private static void relaxar(int u, int v, long custo, long[] distancia, long[] potencial, int[] anterior, boolean[] visitado) {
+        if (visitado[v]) {
+            return;
+        }
+        // Custo reduzido, não negativo com os potenciais atuais
+        long candidata = distancia[u] + custo + potencial[u] - potencial[v];
+        if (candidata < distancia[v]) {
+            distancia[v] = candidata;
+            anterior[v] = u;
+        }
+    }
+
+    private static void validarCusto(long custo) {
+        if (Math.abs(custo) > INFINITO / 1024) {
+            throw new IllegalArgumentException("Custo fora do intervalo suportado: " + custo);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package estruturas;
+
+import java.util.SplittableRandom;
+
+// Autoverificação de TransporteCustoMinimo: compara, em instâncias pequenas sorteadas com semente fixa, o fluxo
+// devolvido com o melhor obtido por força bruta (todas as matrizes de fluxo possíveis). Entre as instâncias há pares
+// sem aresta, destinos inalcançáveis (coluna inteira SEM_ARESTA), destinos sem capacidade e origens sem oferta
+public class VerificacaoTransporte {
+    private static final long SEMENTE = 21;
+    private static final int INSTANCIAS = 3000;
+    private static final int MAX_LADO = 3; // Origens e destinos por instância
+    private static final int MAX_UNIDADES = 3; // Oferta e capacidade máximas
+
+    private VerificacaoTransporte() {
+    }
+
+    // Devolve a descrição da primeira instância em que o resolvedor errou, ou null se todas conferem
+    public static String verificar() {
+        SplittableRandom aleatorio = new SplittableRandom(SEMENTE);
+        for (int instancia = 0; instancia < INSTANCIAS; instancia++) {
+            int origens = aleatorio.nextInt(1, MAX_LADO + 1);
+            int destinos = aleatorio.nextInt(1, MAX_LADO + 1);
+            int[] ofertas = new int[origens];
+            int[] capacidades = new int[destinos];
+            long[] custos = new long[origens * destinos];
+            for (int o = 0; o < origens; o++) {
+                ofertas[o] = aleatorio.nextInt(MAX_UNIDADES + 1);
+            }
+            int inalcancavel = aleatorio.nextInt(4) == 0 ? aleatorio.nextInt(destinos) : -1;
+            for (int d = 0; d < destinos; d++) {
+                capacidades[d] = aleatorio.nextInt(MAX_UNIDADES + 1);
+                for (int o = 0; o < origens; o++) {
+                    // Custos negativos como os da distribuição (pontuações com sinal trocado) e positivos
+                    custos[o * destinos + d] = d == inalcancavel || aleatorio.nextInt(5) == 0
+                            ? TransporteCustoMinimo.SEM_ARESTA : aleatorio.nextInt(-50, 51);
+                }
+            }
+            String erro = conferir(ofertas, capacidades, custos);
+            if (erro != null) {
+                return String.format("instância %d (ofertas=%s, capacidades=%s, custos=%s): %s", instancia,
+                        descrever(ofertas), descrever(capacidades), descrever(custos), erro);
+            }
+        }
+        return null;
+    }
+
+    private static String conferir(int[] ofertas, int[] capacidades, long[] custos) {
+        int destinos = capacidades.length;
+        int[] fluxos = TransporteCustoMinimo.resolver(ofertas, capacidades, custos);
+        int[] enviado = new int[ofertas.length];
+        int[] recebido = new int[destinos];
+        long total = 0;
+        long custo = 0;
+        for (int i = 0; i < fluxos.length; i++) {
+            if (fluxos[i] < 0 || fluxos[i] > 0 && custos[i] == TransporteCustoMinimo.SEM_ARESTA) {
+                return "fluxo inválido " + descrever(fluxos);
+            }
+            enviado[i / destinos] += fluxos[i];
+            recebido[i % destinos] += fluxos[i];
+            total += fluxos[i];
+            custo += fluxos[i] == 0 ? 0 : fluxos[i] * custos[i];
+        }
+        for (int o = 0; o < ofertas.length; o++) {
+            if (enviado[o] > ofertas[o]) {
+                return "origem " + o + " envia mais que a oferta: " + descrever(fluxos);
+            }
+        }
+        for (int d = 0; d < destinos; d++) {
+            if (recebido[d] > capacidades[d]) {
+                return "destino " + d + " recebe mais que a capacidade: " + descrever(fluxos);
+            }
+        }
+        long[] melhor = {-1, 0}; // Maior total e, entre os de maior total, menor custo
+        buscar(0, ofertas.clone(), capacidades.clone(), custos, 0, 0, melhor);
+        if (total != melhor[0] || custo != melhor[1]) {
+            return String.format("fluxo %s com total %d e custo %d; força bruta: total %d e custo %d",
+                    descrever(fluxos), total, custo, melhor[0], melhor[1]);
+        }
+        return null;
+    }
+
+    // Percorre as células da matriz de fluxos, tentando em cada uma toda quantidade que oferta e capacidade permitem
+    private static void buscar(int celula, int[] ofertaRestante, int[] capacidadeRestante, long[] custos,
+                               long total, long custo, long[] melhor) {
+        if (celula == custos.length) {
+            if (total > melhor[0] || total == melhor[0] && custo < melhor[1]) {
+                melhor[0] = total;
+                melhor[1] = custo;
+            }
+            return;
+        }
+        int destinos = capacidadeRestante.length;
+        int o = celula / destinos;
+        int d = celula % destinos;
+        int maximo = custos[celula] == TransporteCustoMinimo.SEM_ARESTA ? 0 : Math.min(ofertaRestante[o], capacidadeRestante[d]);
+        for (int quantidade = 0; quantidade <= maximo; quantidade++) {
+            ofertaRestante[o] -= quantidade;
+            capacidadeRestante[d] -= quantidade;
+            buscar(celula + 1, ofertaRestante, capacidadeRestante, custos, total + quantidade,
+                    custo + (quantidade == 0 ? 0 : quantidade * custos[celula]), melhor);
+            ofertaRestante[o] += quantidade;
+            capacidadeRestante[d] += quantidade;
+        }
+    }
+
+    private static String descrever(int[] valores) {
+        StringBuilder texto = new StringBuilder("[");
+        for (int i = 0; i < valores.length; i++) {
+            texto.append(i > 0 ? ", " : "").append(valores[i]);
+        }
+        return texto.append(']').toString();
+    }
+
+    private static String descrever(long[] valores) {
+        StringBuilder texto = new StringBuilder("[");
+        for (int i = 0; i < valores.length; i++) {
+            texto.append(i > 0 ? ", " : "").append(valores[i] == TransporteCustoMinimo.SEM_ARESTA ? "-" : String.valueOf(valores[i]));
+        }
+        return texto.append(']').toString();
+    }
+}
@@ -0,0 +1,47 @@
+package simulacao;
+
+import estruturas.FilaPrioridade;
+
+// Agenda dos minutos simulados em que algum caminhão, estação ou descarregamento muda de estado.
+// O motor de eventos usa a agenda para pular direto ao próximo minuto em que algo acontece
+public class AgendaEventos {
+    public enum TipoEvento {
+        CHEGADA_VIAGEM,       // Caminhão pequeno chega à zona ou estação de destino
+        FIM_COLETA,           // Caminhão pequeno termina a coleta em andamento
+        FIM_DESCARREGAMENTO,  // Descarregamento de caminhão pequeno em caminhão grande termina
+        CHEGADA_ATERRO,       // Caminhão grande chega ao aterro
+        FIM_DESCARGA_ATERRO,  // Caminhão grande termina de descarregar no aterro
+        RETORNO_ESTACAO       // Caminhão grande volta à estação
+    }
+
+    private final FilaPrioridade<TipoEvento> eventos;
+
+    public AgendaEventos() {
+        this.eventos = new FilaPrioridade<>();
+    }
+
+    // Marca um evento para o minuto simulado informado
+    public void agendar(int tempo, TipoEvento tipo) {
+        eventos.inserir(tipo, tempo);
+    }
+
+    // Minuto do próximo evento agendado, ou Integer.MAX_VALUE se a agenda estiver vazia
+    public int proximoTempo() {
+        return eventos.estaVazia() ? Integer.MAX_VALUE : eventos.prioridadeDoPrimeiro();
+    }
+
+    // Remove os eventos que já aconteceram (marcados até o minuto informado)
+    public void descartarAte(int tempo) {
+        while (!eventos.estaVazia() && eventos.prioridadeDoPrimeiro() <= tempo) {
+            eventos.remover();
+        }
+    }
+
+    public void limpar() {
+        eventos.limpar();
+    }
+
+    public int getTamanho() {
+        return eventos.getTamanho();
+    }
+}
@@ -0,0 +1,135 @@
+package simulacao;
+
+import estruturas.IntLista;
+import estruturas.Lista;
+
+// Efeitos colaterais de uma tarefa que roda fora da thread da simulação (uma estação processada em paralelo ou um
+// shard de zonas). Enquanto um buffer está ativo na thread, o log, o log binário, a agenda de eventos, as
+// estatísticas globais e as listas compartilhadas guardam a operação aqui em vez de executá-la. A thread da simulação
+// aplica depois os buffers em ordem fixa, e o resultado fica idêntico ao da execução sequencial.
+// Os efeitos frequentes (mudança de estado, coleta, evento do log binário...) são guardados como registros
+// tipados: o receptor, um código de operação, um objeto opcional e até cinco ints, em listas reaproveitadas, sem
+// alocar nada por efeito. Runnable fica para os efeitos raros, como as mensagens de log
+public class BufferEfeitos {
+    private static final ThreadLocal<BufferEfeitos> BUFFER_THREAD = new ThreadLocal<>();
+    private static final int OPERANDOS = 5;
+
+    // Quem sabe aplicar os próprios efeitos adiados. Cada receptor define os seus códigos de operação
+    public interface Receptor {
+        void aplicarEfeitoAdiado(int operacao, Object argumento, int a, int b, int c, int d, int e);
+    }
+
+    // Registro i: receptores[i] (null quando o efeito é o Runnable em argumentos[i]), operacoes[i] e os ints em
+    // operandos[i * OPERANDOS .. i * OPERANDOS + 4]
+    private final Lista<Receptor> receptores = new Lista<>();
+    private final Lista<Object> argumentos = new Lista<>();
+    private final IntLista operacoes = new IntLista();
+    private final IntLista operandos = new IntLista();
+    // Ordem de cada efeito na execução sequencial (ex.: o índice do caminhão que o gerou), usada por aplicarEmOrdem
+    private final IntLista ordens = new IntLista();
+    private int ordemAtual;
+
+    // Buffer ativo na thread atual, ou null quando os efeitos devem ser executados na hora
+    public static BufferEfeitos atual() {
+        return BUFFER_THREAD.get();
+    }
+
+    // Ativa o buffer na thread atual (null desativa) e devolve o que estava ativo antes
+    static BufferEfeitos ativar(BufferEfeitos buffer) {
+        BufferEfeitos anterior = BUFFER_THREAD.get();
+        if (buffer == null) {
+            BUFFER_THREAD.remove();
+        } else {
+            BUFFER_THREAD.set(buffer);
+        }
+        return anterior;
+    }
+
+    public void adiar(Runnable efeito) {
+        adicionar(null, 0, efeito, 0, 0, 0, 0, 0);
+    }
+
+    public void adiar(Receptor receptor, int operacao, Object argumento, int a, int b, int c, int d, int e) {
+        adicionar(receptor, operacao, argumento, a, b, c, d, e);
+    }
+
+    public void adiar(Receptor receptor, int operacao, Object argumento, int a) {
+        adicionar(receptor, operacao, argumento, a, 0, 0, 0, 0);
+    }
+
+    public void adiar(Receptor receptor, int operacao, int a, int b, int c) {
+        adicionar(receptor, operacao, null, a, b, c, 0, 0);
+    }
+
+    private void adicionar(Receptor receptor, int operacao, Object argumento, int a, int b, int c, int d, int e) {
+        receptores.adicionar(receptor);
+        argumentos.adicionar(argumento);
+        operacoes.adicionar(operacao);
+        operandos.adicionar(a);
+        operandos.adicionar(b);
+        operandos.adicionar(c);
+        operandos.adicionar(d);
+        operandos.adicionar(e);
+        ordens.adicionar(ordemAtual);
+    }
+
+    // Os próximos efeitos adiados pertencem a esta posição da ordem sequencial (valores crescentes)
+    void setOrdem(int ordem) {
+        this.ordemAtual = ordem;
+    }
+
+    // Executa os efeitos na ordem em que foram adiados e esvazia o buffer
+    void aplicar() {
+        for (int i = 0; i < receptores.getTamanho(); i++) {
+            executar(i);
+        }
+        limpar();
+    }
+
+    // Intercala vários buffers pela ordem sequencial de cada efeito e esvazia todos. Cada buffer já está em ordem
+    // crescente, então basta escolher a cada passo o buffer com a menor ordem pendente
+    static void aplicarEmOrdem(BufferEfeitos[] buffers) {
+        int[] cursores = new int[buffers.length];
+        while (true) {
+            int escolhido = -1;
+            for (int b = 0; b < buffers.length; b++) {
+                if (cursores[b] < buffers[b].receptores.getTamanho() && (escolhido < 0
+                        || buffers[b].ordens.obter(cursores[b]) < buffers[escolhido].ordens.obter(cursores[escolhido]))) {
+                    escolhido = b;
+                }
+            }
+            if (escolhido < 0) {
+                break;
+            }
+            // Todos os efeitos seguidos da mesma ordem saem juntos, na ordem em que foram adiados
+            BufferEfeitos buffer = buffers[escolhido];
+            int ordem = buffer.ordens.obter(cursores[escolhido]);
+            while (cursores[escolhido] < buffer.receptores.getTamanho() && buffer.ordens.obter(cursores[escolhido]) == ordem) {
+                buffer.executar(cursores[escolhido]++);
+            }
+        }
+        for (BufferEfeitos buffer : buffers) {
+            buffer.limpar();
+        }
+    }
+
+    private void executar(int i) {
+        Receptor receptor = receptores.obter(i);
+        if (receptor == null) {
+            ((Runnable) argumentos.obter(i)).run();
+            return;
+        }
+        int base = i * OPERANDOS;
+        receptor.aplicarEfeitoAdiado(operacoes.obter(i), argumentos.obter(i), operandos.obter(base),
+                operandos.obter(base + 1), operandos.obter(base + 2), operandos.obter(base + 3), operandos.obter(base + 4));
+    }
+
+    private void limpar() {
+        receptores.limpar();
+        argumentos.limpar();
+        operacoes.limpar();
+        operandos.limpar();
+        ordens.limpar();
+        ordemAtual = 0;
+    }
+}
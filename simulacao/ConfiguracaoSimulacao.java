@@ -0,0 +1,92 @@
+package simulacao;
+
+import caminhoes.DistribuicaoCaminhoes;
+import zonas.MapaCidade;
+
+// Parâmetros completos de uma simulação. A mesma configuração pode montar vários contextos independentes
+// (execução interativa, modo rápido ou replicações)
+public class ConfiguracaoSimulacao {
+    private final MapaCidade mapa;
+    private final int tolerancia;
+    private final int tempoMaxEspera;
+    private final int limiteViagens;
+    private final int[][] intervalosLixo;
+    // Zonas das estações (uma por estação, na ordem A, B, C...) e do aterro, como id da zona no mapa
+    // (na cidade padrão, 0: Norte, 1: Sul, 2: Leste, 3: Sudeste, 4: Centro)
+    private final int[] zonasEstacoes;
+    private final int zonaAterro;
+    private final int qtd2t;
+    private final int qtd4t;
+    private final int qtd8t;
+    private final int qtd10t;
+    private final DistribuicaoCaminhoes.ModoDistribuicao modoDistribuicao;
+
+    // Configuração na cidade padrão (5 zonas de Teresina)
+    public ConfiguracaoSimulacao(int tolerancia, int tempoMaxEspera, int limiteViagens, int[][] intervalosLixo,
+                                 int zonaEstacaoA, int zonaEstacaoB, int zonaAterro,
+                                 int qtd2t, int qtd4t, int qtd8t, int qtd10t) {
+        this(MapaCidade.padrao(), tolerancia, tempoMaxEspera, limiteViagens, intervalosLixo, zonaEstacaoA, zonaEstacaoB,
+                zonaAterro, qtd2t, qtd4t, qtd8t, qtd10t);
+    }
+
+    // Duas estações (A e B)
+    public ConfiguracaoSimulacao(MapaCidade mapa, int tolerancia, int tempoMaxEspera, int limiteViagens, int[][] intervalosLixo,
+                                 int zonaEstacaoA, int zonaEstacaoB, int zonaAterro,
+                                 int qtd2t, int qtd4t, int qtd8t, int qtd10t) {
+        this(mapa, tolerancia, tempoMaxEspera, limiteViagens, intervalosLixo, new int[] {zonaEstacaoA, zonaEstacaoB}, zonaAterro,
+                qtd2t, qtd4t, qtd8t, qtd10t, DistribuicaoCaminhoes.ModoDistribuicao.GULOSO);
+    }
+
+    public ConfiguracaoSimulacao(MapaCidade mapa, int tolerancia, int tempoMaxEspera, int limiteViagens, int[][] intervalosLixo,
+                                 int[] zonasEstacoes, int zonaAterro,
+                                 int qtd2t, int qtd4t, int qtd8t, int qtd10t,
+                                 DistribuicaoCaminhoes.ModoDistribuicao modoDistribuicao) {
+        int zonas = mapa.getQuantidadeZonas();
+        if (intervalosLixo.length != zonas) {
+            throw new IllegalArgumentException(String.format("%d intervalos de lixo para %d zonas", intervalosLixo.length, zonas));
+        }
+        if (zonasEstacoes.length == 0) {
+            throw new IllegalArgumentException("A simulação precisa de pelo menos uma estação!");
+        }
+        for (int zona : zonasEstacoes) {
+            if (zona < 0 || zona >= zonas) {
+                throw new IllegalArgumentException("Zona de estação fora do mapa (0 a " + (zonas - 1) + "): " + zona);
+            }
+        }
+        if (zonaAterro < 0 || zonaAterro >= zonas) {
+            throw new IllegalArgumentException("Zona do aterro fora do mapa (0 a " + (zonas - 1) + "): " + zonaAterro);
+        }
+        this.mapa = mapa;
+        this.tolerancia = tolerancia;
+        this.tempoMaxEspera = tempoMaxEspera;
+        this.limiteViagens = limiteViagens;
+        this.intervalosLixo = intervalosLixo;
+        this.zonasEstacoes = zonasEstacoes.clone();
+        this.zonaAterro = zonaAterro;
+        this.qtd2t = qtd2t;
+        this.qtd4t = qtd4t;
+        this.qtd8t = qtd8t;
+        this.qtd10t = qtd10t;
+        this.modoDistribuicao = modoDistribuicao;
+    }
+
+    // Intervalos diários de geração de lixo (kg) da cidade padrão, usados quando o usuário não define os seus
+    public static int[][] intervalosPadrao() {
+        return MapaCidade.padrao().copiarIntervalosLixo();
+    }
+
+    // Getters
+    public MapaCidade getMapa() { return mapa; }
+    public int getTolerancia() { return tolerancia; }
+    public int getTempoMaxEspera() { return tempoMaxEspera; }
+    public int getLimiteViagens() { return limiteViagens; }
+    public int[][] getIntervalosLixo() { return intervalosLixo; }
+    public int[] getZonasEstacoes() { return zonasEstacoes.clone(); }
+    public int getQuantidadeEstacoes() { return zonasEstacoes.length; }
+    public int getZonaAterro() { return zonaAterro; }
+    public int getQtd2t() { return qtd2t; }
+    public int getQtd4t() { return qtd4t; }
+    public int getQtd8t() { return qtd8t; }
+    public int getQtd10t() { return qtd10t; }
+    public DistribuicaoCaminhoes.ModoDistribuicao getModoDistribuicao() { return modoDistribuicao; }
+}
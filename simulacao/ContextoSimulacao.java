@@ -0,0 +1,209 @@
+package simulacao;
+
+import caminhoes.CaminhaoGrande;
+import caminhoes.CaminhaoPequeno;
+import caminhoes.DistribuicaoCaminhoes;
+import caminhoes.FrotaCaminhoesPequenos;
+import estacoes.EstacaoTransferencia;
+import estruturas.Lista;
+import zonas.ZonaUrbana;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+// Estado completo de uma simulação: frota, zonas, estações, estatísticas, agenda de eventos e relógio.
+// Cada Simulador tem o seu próprio contexto, que é repassado explicitamente aos caminhões, às estações e à
+// distribuição, então várias simulações independentes podem rodar ao mesmo tempo no mesmo processo
+public class ContextoSimulacao implements BufferEfeitos.Receptor {
+    // Operações adiadas no BufferEfeitos
+    private static final int OPERACAO_AGENDAR = 0;
+    private static final int OPERACAO_REGISTRAR_EVENTO = 1;
+    private static final int OPERACAO_ADICIONAR_GRANDE_OCUPADO = 2;
+
+    private final FrotaCaminhoesPequenos caminhoesPequenos;
+    private final Lista<ZonaUrbana> zonas;
+    private final Lista<EstacaoTransferencia> estacoes;
+    // Lista de caminhões grandes em trânsito (viagem, descarregamento ou retorno)
+    private final Lista<CaminhaoGrande> caminhoesGrandesOcupados;
+    private final Lista<CaminhaoGrande> todosCaminhoesGrandes;
+    private final Estatisticas estatisticas;
+    private final AgendaEventos agenda;
+    private final DistribuicaoCaminhoes distribuicao;
+    // Semente mestre da execução: a mesma semente reproduz a mesma simulação. Zonas, caminhões e a geração
+    // de placas recebem cada um o seu fluxo aleatório, derivado da raiz na ordem em que são criados
+    private final long semente;
+    private final SplittableRandom raizAleatoria;
+    private final SplittableRandom aleatorioPlacas;
+    private boolean logAtivo;
+    private RegistroEventosBinario registroEventos; // Log binário de eventos, null quando desligado
+    private ExportadorMetricas exportadorMetricas; // Série de métricas em CSV, null quando desligada
+    private int proximoIdCaminhao;
+    private ZonaUrbana zonaAterro;
+    private int[][] intervalosLixo;
+    private int caminhoesPorZona;
+    private int tempoSimulado;
+    private int toleranciaCaminhoesGrandes;
+
+    public ContextoSimulacao() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    public ContextoSimulacao(long semente) {
+        this.semente = semente;
+        this.raizAleatoria = new SplittableRandom(semente);
+        this.aleatorioPlacas = raizAleatoria.split();
+        this.logAtivo = true;
+        this.caminhoesPequenos = new FrotaCaminhoesPequenos();
+        this.zonas = new Lista<>();
+        this.estacoes = new Lista<>();
+        this.caminhoesGrandesOcupados = new Lista<>();
+        this.todosCaminhoesGrandes = new Lista<>();
+        this.agenda = new AgendaEventos();
+        this.registroEventos = null;
+        this.exportadorMetricas = null;
+        this.proximoIdCaminhao = 0;
+        this.caminhoesPorZona = 0;
+        this.tempoSimulado = 0;
+        this.toleranciaCaminhoesGrandes = 0;
+        this.estatisticas = new Estatisticas(this);
+        this.distribuicao = new DistribuicaoCaminhoes(this);
+    }
+
+    // Avança o relógio da simulação
+    public void avancarTempo(int minutos) {
+        tempoSimulado += minutos;
+    }
+
+    // Agenda um evento para daqui a N minutos; eventos no minuto atual já são tratados pelo minuto em andamento
+    public void agendarEvento(int minutosAFrente, AgendaEventos.TipoEvento tipo) {
+        if (minutosAFrente > 0) {
+            int tempo = tempoSimulado + minutosAFrente;
+            BufferEfeitos buffer = BufferEfeitos.atual();
+            if (buffer != null) {
+                buffer.adiar(this, OPERACAO_AGENDAR, tipo, tempo);
+                return;
+            }
+            agenda.agendar(tempo, tipo);
+        }
+    }
+
+    // Novo fluxo aleatório independente para uma zona, um caminhão ou um subsistema
+    public SplittableRandom novoFluxoAleatorio() {
+        return raizAleatoria.split();
+    }
+
+    // Id numérico de um caminhão novo, pequeno ou grande, usado no log binário de eventos
+    public int proximoIdCaminhao() {
+        return proximoIdCaminhao++;
+    }
+
+    // Grava um evento no log binário, se ele estiver ligado
+    public void registrarEvento(RegistroEventosBinario.Tipo tipo, int entidade, int local, int kg, int valor) {
+        if (registroEventos != null) {
+            BufferEfeitos buffer = BufferEfeitos.atual();
+            if (buffer != null) {
+                buffer.adiar(this, OPERACAO_REGISTRAR_EVENTO, tipo, tempoSimulado, entidade, local, kg, valor);
+                return;
+            }
+            registroEventos.registrar(tipo, tempoSimulado, entidade, local, kg, valor);
+        }
+    }
+
+    // Associa no log binário o id de uma zona, estação ou caminhão ao seu nome
+    public void cadastrarEntidade(RegistroEventosBinario.Tipo tipo, int id, String nome) {
+        if (registroEventos != null) {
+            registroEventos.cadastrar(tipo, tempoSimulado, id, nome);
+        }
+    }
+
+    // Liga o log binário de eventos. Zonas, estações e caminhões criados a partir daqui são cadastrados ao nascer;
+    // os que já existem são cadastrados agora
+    public void iniciarRegistroEventos(RegistroEventosBinario registro) {
+        this.registroEventos = registro;
+        for (ZonaUrbana zona : zonas) {
+            cadastrarEntidade(RegistroEventosBinario.Tipo.CADASTRO_ZONA, zona.getId(), zona.getNome());
+        }
+        for (EstacaoTransferencia estacao : estacoes) {
+            cadastrarEntidade(RegistroEventosBinario.Tipo.CADASTRO_ESTACAO, estacao.getId(), estacao.getNome());
+        }
+        for (CaminhaoPequeno caminhao : caminhoesPequenos) {
+            cadastrarEntidade(RegistroEventosBinario.Tipo.CADASTRO_CAMINHAO_PEQUENO, caminhao.getNumero(), caminhao.getPlaca());
+        }
+        for (CaminhaoGrande caminhao : todosCaminhoesGrandes) {
+            cadastrarEntidade(RegistroEventosBinario.Tipo.CADASTRO_CAMINHAO_GRANDE, caminhao.getNumero(), caminhao.getPlaca());
+        }
+    }
+
+    // Grava o que falta e fecha o log binário de eventos
+    public void encerrarRegistroEventos() throws IOException {
+        if (registroEventos != null) {
+            RegistroEventosBinario registro = registroEventos;
+            registroEventos = null;
+            registro.close();
+        }
+    }
+
+    // Passa a gravar a série de métricas a cada intervalo do exportador
+    public void iniciarExportacaoMetricas(ExportadorMetricas exportador) {
+        this.exportadorMetricas = exportador;
+    }
+
+    // Grava o que falta e fecha a série de métricas
+    public void encerrarExportacaoMetricas() throws IOException {
+        if (exportadorMetricas != null) {
+            ExportadorMetricas exportador = exportadorMetricas;
+            exportadorMetricas = null;
+            exportador.close();
+        }
+    }
+
+    // Adiciona um caminhão grande à lista de ocupados
+    public void adicionarCaminhaoGrandeOcupado(CaminhaoGrande caminhao) {
+        BufferEfeitos buffer = BufferEfeitos.atual();
+        if (buffer != null) {
+            buffer.adiar(this, OPERACAO_ADICIONAR_GRANDE_OCUPADO, caminhao, 0);
+            return;
+        }
+        caminhoesGrandesOcupados.adicionar(caminhao);
+    }
+
+    @Override
+    public void aplicarEfeitoAdiado(int operacao, Object argumento, int a, int b, int c, int d, int e) {
+        switch (operacao) {
+            case OPERACAO_AGENDAR -> agenda.agendar(a, (AgendaEventos.TipoEvento) argumento);
+            case OPERACAO_REGISTRAR_EVENTO -> registroEventos.registrar((RegistroEventosBinario.Tipo) argumento, a, b, c, d, e);
+            case OPERACAO_ADICIONAR_GRANDE_OCUPADO -> caminhoesGrandesOcupados.adicionar((CaminhaoGrande) argumento);
+            default -> throw new IllegalArgumentException("Operação adiada desconhecida: " + operacao);
+        }
+    }
+
+    // Getters e Setters
+    public FrotaCaminhoesPequenos getCaminhoesPequenos() { return caminhoesPequenos; }
+    public Lista<ZonaUrbana> getZonas() { return zonas; }
+    public Lista<EstacaoTransferencia> getEstacoes() { return estacoes; }
+    public Lista<CaminhaoGrande> getCaminhoesGrandesOcupados() { return caminhoesGrandesOcupados; }
+    public Lista<CaminhaoGrande> getCaminhoesGrandes() { return todosCaminhoesGrandes; }
+    public Estatisticas getEstatisticas() { return estatisticas; }
+    public AgendaEventos getAgenda() { return agenda; }
+    public DistribuicaoCaminhoes getDistribuicao() { return distribuicao; }
+    public long getSemente() { return semente; }
+    public SplittableRandom getAleatorioPlacas() { return aleatorioPlacas; }
+    public boolean isLogAtivo() { return logAtivo; }
+    public RegistroEventosBinario getRegistroEventos() { return registroEventos; }
+    public ExportadorMetricas getExportadorMetricas() { return exportadorMetricas; }
+    public void setLogAtivo(boolean logAtivo) {
+        this.logAtivo = logAtivo;
+        if (!logAtivo) {
+            LoggerSimulacao.registrarSilencio();
+        }
+    }
+    public ZonaUrbana getZonaAterro() { return zonaAterro; }
+    public void setZonaAterro(ZonaUrbana zona) { this.zonaAterro = zona; }
+    public int[][] getIntervalosLixo() { return intervalosLixo; }
+    public void setIntervalosLixo(int[][] intervalos) { this.intervalosLixo = intervalos; }
+    public int getCaminhoesPorZona() { return caminhoesPorZona; }
+    public void setCaminhoesPorZona(int caminhoesPorZona) { this.caminhoesPorZona = caminhoesPorZona; }
+    public int getTempoSimulado() { return tempoSimulado; }
+    public int getToleranciaCaminhoesGrandes() { return toleranciaCaminhoesGrandes; }
+    public void setToleranciaCaminhoesGrandes(int tolerancia) { this.toleranciaCaminhoesGrandes = tolerancia; }
+}
@@ -0,0 +1,169 @@
+package simulacao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// Ferramenta de linha de comando para logs binários de eventos: reproduz o log em texto, filtrando por caminhão,
+// zona, estação ou tipo de evento, ou imprime um resumo calculado direto dos registros.
+// Uso: java simulacao.DecodificadorEventos arquivo.bin [--caminhao PLACA] [--zona NOME] [--estacao NOME] [--tipo TIPO] [--resumo]
+public class DecodificadorEventos {
+    private String caminhao;
+    private String zona;
+    private String estacao;
+    private RegistroEventosBinario.Tipo tipo;
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Uso: java simulacao.DecodificadorEventos arquivo.bin [--caminhao PLACA] [--zona NOME] "
+                    + "[--estacao NOME] [--tipo TIPO] [--resumo]");
+            System.exit(1);
+        }
+        DecodificadorEventos decodificador = new DecodificadorEventos();
+        boolean resumo = false;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--caminhao" -> decodificador.caminhao = valor(args, ++i);
+                    case "--zona" -> decodificador.zona = valor(args, ++i);
+                    case "--estacao" -> decodificador.estacao = valor(args, ++i);
+                    case "--tipo" -> decodificador.tipo = RegistroEventosBinario.Tipo.valueOf(valor(args, ++i).toUpperCase());
+                    case "--resumo" -> resumo = true;
+                    default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            Path arquivo = Paths.get(args[0]);
+            Writer saida = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            if (resumo) {
+                decodificador.resumir(arquivo, saida);
+            } else {
+                decodificador.reproduzir(arquivo, saida);
+            }
+            saida.flush();
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Erro: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Escreve em texto os eventos que passam pelos filtros e devolve quantos foram escritos
+    public long reproduzir(Path arquivo, Writer saida) throws IOException {
+        long escritos = 0;
+        StringBuilder linha = new StringBuilder(128);
+        try (LeitorEventosBinarios leitor = new LeitorEventosBinarios(arquivo)) {
+            while (leitor.proximo()) {
+                if (!aceita(leitor)) {
+                    continue;
+                }
+                linha.setLength(0);
+                leitor.formatar(linha);
+                saida.append(linha);
+                escritos++;
+            }
+        }
+        return escritos;
+    }
+
+    // Resumo da execução a partir dos eventos que passam pelos filtros: contagem por tipo, lixo por zona,
+    // espera média por estação e lixo levado ao aterro
+    public void resumir(Path arquivo, Writer saida) throws IOException {
+        RegistroEventosBinario.Tipo[] tipos = RegistroEventosBinario.Tipo.values();
+        long[] eventosPorTipo = new long[tipos.length];
+        long[] geradoPorZona = new long[8];
+        long[] coletadoPorZona = new long[8];
+        long[] esperaPorEstacao = new long[4];
+        long[] saidasPorEstacao = new long[4];
+        long aterro = 0;
+        int ultimoMinuto = 0;
+        String[] nomesZonas;
+        String[] nomesEstacoes;
+        try (LeitorEventosBinarios leitor = new LeitorEventosBinarios(arquivo)) {
+            while (leitor.proximo()) {
+                if (!aceita(leitor)) {
+                    continue;
+                }
+                eventosPorTipo[leitor.getTipo().ordinal()]++;
+                ultimoMinuto = Math.max(ultimoMinuto, leitor.getMinuto());
+                int local = leitor.getLocal();
+                switch (leitor.getTipo()) {
+                    case GERACAO_LIXO -> geradoPorZona = somar(geradoPorZona, local, leitor.getKg());
+                    case INICIO_COLETA -> coletadoPorZona = somar(coletadoPorZona, local, leitor.getKg());
+                    case SAIDA_ESTACAO -> {
+                        esperaPorEstacao = somar(esperaPorEstacao, local, leitor.getValor());
+                        saidasPorEstacao = somar(saidasPorEstacao, local, 1);
+                    }
+                    case DESCARGA_ATERRO -> aterro += leitor.getKg();
+                    default -> { }
+                }
+            }
+            nomesZonas = new String[Math.max(geradoPorZona.length, coletadoPorZona.length)];
+            for (int i = 0; i < nomesZonas.length; i++) {
+                nomesZonas[i] = leitor.nomeZona(i);
+            }
+            nomesEstacoes = new String[saidasPorEstacao.length];
+            for (int i = 0; i < nomesEstacoes.length; i++) {
+                nomesEstacoes[i] = leitor.nomeEstacao(i);
+            }
+            saida.append(String.format("Semente: %d | último evento: %s%n", leitor.getSemente(), LoggerSimulacao.formatarTempo(ultimoMinuto)));
+        }
+        saida.append("Eventos por tipo:\n");
+        for (RegistroEventosBinario.Tipo t : tipos) {
+            if (eventosPorTipo[t.ordinal()] > 0) {
+                saida.append(String.format("  %-28s %12d%n", t.name(), eventosPorTipo[t.ordinal()]));
+            }
+        }
+        saida.append("Lixo por zona (gerado / coletado, kg):\n");
+        for (int i = 0; i < nomesZonas.length; i++) {
+            long gerado = i < geradoPorZona.length ? geradoPorZona[i] : 0;
+            long coletado = i < coletadoPorZona.length ? coletadoPorZona[i] : 0;
+            if (gerado > 0 || coletado > 0) {
+                saida.append(String.format("  %-12s %12d / %12d%n", nomesZonas[i], gerado, coletado));
+            }
+        }
+        saida.append("Espera média na fila por estação:\n");
+        for (int i = 0; i < nomesEstacoes.length; i++) {
+            if (saidasPorEstacao[i] > 0) {
+                saida.append(String.format("  %-12s %8.1f min (%d caminhões)%n", nomesEstacoes[i],
+                        (double) esperaPorEstacao[i] / saidasPorEstacao[i], saidasPorEstacao[i]));
+            }
+        }
+        saida.append(String.format("Lixo descarregado no aterro: %d kg%n", aterro));
+    }
+
+    private boolean aceita(LeitorEventosBinarios leitor) {
+        if (tipo != null && leitor.getTipo() != tipo) {
+            return false;
+        }
+        if (caminhao != null && (leitor.getEntidade() < 0 || !caminhao.equalsIgnoreCase(leitor.nomeCaminhao(leitor.getEntidade())))) {
+            return false;
+        }
+        RegistroEventosBinario.Local local = leitor.getTipo().getLocal();
+        if (zona != null && (local != RegistroEventosBinario.Local.ZONA || !zona.equalsIgnoreCase(leitor.nomeLocal()))) {
+            return false;
+        }
+        return estacao == null || (local == RegistroEventosBinario.Local.ESTACAO && estacao.equalsIgnoreCase(leitor.nomeLocal()));
+    }
+
+    private static long[] somar(long[] totais, int indice, long quantidade) {
+        if (indice < 0) {
+            return totais;
+        }
+        if (indice >= totais.length) {
+            totais = Arrays.copyOf(totais, Math.max(totais.length * 2, indice + 1));
+        }
+        totais[indice] += quantidade;
+        return totais;
+    }
+
+    private static String valor(String[] args, int indice) {
+        if (indice >= args.length) {
+            throw new IllegalArgumentException("Falta o valor da opção " + args[indice - 1]);
+        }
+        return args[indice];
+    }
+}
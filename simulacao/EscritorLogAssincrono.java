@@ -0,0 +1,227 @@
+package simulacao;
+
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Tira a escrita dos logs da thread da simulação. As threads produtoras publicam registros compactos
+// (tipo, mensagem ou modelo com argumentos e minuto simulado) em um buffer circular limitado e sem travas;
+// uma thread de fundo formata os registros em lote, escreve no console e no arquivo e faz flush do arquivo periodicamente.
+// O buffer segue o esquema de sequência por posição: cada posição guarda o número da volta em que pode
+// ser escrita ou lida, então produtores disputam só um contador atômico e o consumidor não trava ninguém
+class EscritorLogAssincrono {
+    static final byte REGISTRO_LOG = 0;
+    static final byte REGISTRO_RELATORIO = 1;
+
+    private static final long INTERVALO_FLUSH_NANOS = 200_000_000L; // Flush do arquivo a cada 200ms
+    private static final long ESPERA_OCIOSA_NANOS = 1_000_000L; // Pausa do escritor com o buffer vazio
+    private static final int TAXA_AMOSTRAGEM = 10; // Política AMOSTRAR: aceita 1 a cada 10 com o buffer quase cheio
+
+    private final int capacidade;
+    private final int mascara;
+    private final AtomicLongArray sequencias;
+    private final byte[] tiposRegistro;
+    private final String[] tiposEvento;
+    private final String[] mensagens;
+    private final Object[][] argumentos; // Argumentos de mensagens com modelo, formatadas só na escrita
+    private final int[] tempos;
+    private final AtomicLong proximaEscrita; // Próxima posição a ser reservada pelos produtores
+    private final AtomicLong proximaLeitura; // Próxima posição a ser lida pelo escritor
+    private final AtomicLong escritos; // Registros já entregues ao console e ao arquivo
+    private final AtomicLong descartados;
+    private final AtomicLong contadorAmostragem;
+    private long descartadosAvisados;
+    private final StringBuilder loteConsole;
+    private final StringBuilder loteArquivo;
+
+    EscritorLogAssincrono(int capacidadeMinima) {
+        int capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima - 1)) << 1;
+        this.capacidade = capacidade;
+        this.mascara = capacidade - 1;
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);
+        }
+        this.tiposRegistro = new byte[capacidade];
+        this.tiposEvento = new String[capacidade];
+        this.mensagens = new String[capacidade];
+        this.argumentos = new Object[capacidade][];
+        this.tempos = new int[capacidade];
+        this.proximaEscrita = new AtomicLong();
+        this.proximaLeitura = new AtomicLong();
+        this.escritos = new AtomicLong();
+        this.descartados = new AtomicLong();
+        this.contadorAmostragem = new AtomicLong();
+        this.descartadosAvisados = 0;
+        this.loteConsole = new StringBuilder(8192);
+        this.loteArquivo = new StringBuilder(8192);
+
+        Thread escritor = new Thread(this::executar, "escritor-log");
+        escritor.setDaemon(true);
+        escritor.start();
+        // Garante que o que já foi publicado chegue ao console e ao arquivo quando o programa sair
+        Runtime.getRuntime().addShutdownHook(new Thread(this::aguardarEscrita, "descarga-log"));
+    }
+
+    // Publica um registro respeitando a política de buffer cheio. Erros nunca são descartados
+    void publicar(byte tipoRegistro, String tipoEvento, String mensagem, Object[] args, int tempo,
+                  LoggerSimulacao.PoliticaBufferCheio politica) {
+        boolean erro = "ERRO".equals(tipoEvento);
+        if (politica == LoggerSimulacao.PoliticaBufferCheio.AMOSTRAR && !erro
+                && ocupacao() >= capacidade - capacidade / 4
+                && contadorAmostragem.getAndIncrement() % TAXA_AMOSTRAGEM != 0) {
+            descartados.incrementAndGet();
+            return;
+        }
+        while (!tentarPublicar(tipoRegistro, tipoEvento, mensagem, args, tempo)) {
+            if (politica != LoggerSimulacao.PoliticaBufferCheio.BLOQUEAR && !erro) {
+                descartados.incrementAndGet();
+                return;
+            }
+            LockSupport.parkNanos(10_000L);
+        }
+    }
+
+    // Bloqueia até que tudo o que foi publicado antes da chamada esteja escrito e com flush feito
+    void aguardarEscrita() {
+        long alvo = proximaEscrita.get();
+        while (escritos.get() < alvo) {
+            LockSupport.parkNanos(100_000L);
+        }
+        synchronized (this) {
+            PrintWriter arquivo = LoggerSimulacao.getEscritorArquivoLog();
+            if (arquivo != null) {
+                arquivo.flush();
+            }
+        }
+    }
+
+    long getDescartados() {
+        return descartados.get();
+    }
+
+    private long ocupacao() {
+        return proximaEscrita.get() - proximaLeitura.get();
+    }
+
+    private boolean tentarPublicar(byte tipoRegistro, String tipoEvento, String mensagem, Object[] args, int tempo) {
+        long posicao = proximaEscrita.get();
+        while (true) {
+            int indice = (int) (posicao & mascara);
+            long diferenca = sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (proximaEscrita.compareAndSet(posicao, posicao + 1)) {
+                    break;
+                }
+                posicao = proximaEscrita.get();
+            } else if (diferenca < 0) {
+                return false; // Buffer cheio: a posição ainda não foi lida na volta anterior
+            } else {
+                posicao = proximaEscrita.get(); // Outro produtor reservou esta posição
+            }
+        }
+        int indice = (int) (posicao & mascara);
+        tiposRegistro[indice] = tipoRegistro;
+        tiposEvento[indice] = tipoEvento;
+        mensagens[indice] = mensagem;
+        argumentos[indice] = args;
+        tempos[indice] = tempo;
+        sequencias.set(indice, posicao + 1); // Libera a posição para o escritor
+        return true;
+    }
+
+    private void executar() {
+        long ultimoFlush = System.nanoTime();
+        boolean arquivoPendente = false;
+        while (true) {
+            int lidos = drenarLote();
+            if (lidos > 0) {
+                escreverLote();
+                escritos.addAndGet(lidos);
+                arquivoPendente = true;
+            }
+            long agora = System.nanoTime();
+            if (arquivoPendente && (lidos == 0 || agora - ultimoFlush >= INTERVALO_FLUSH_NANOS)) {
+                synchronized (this) {
+                    PrintWriter arquivo = LoggerSimulacao.getEscritorArquivoLog();
+                    if (arquivo != null) {
+                        arquivo.flush();
+                    }
+                }
+                ultimoFlush = agora;
+                arquivoPendente = false;
+            }
+            if (lidos == 0) {
+                LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+            }
+        }
+    }
+
+    // Lê do buffer até esvaziar ou até o tamanho de um buffer inteiro, formatando os registros nos lotes
+    private int drenarLote() {
+        long posicao = proximaLeitura.get();
+        int lidos = 0;
+        while (lidos < capacidade) {
+            int indice = (int) (posicao & mascara);
+            if (sequencias.get(indice) != posicao + 1) {
+                break; // Posição ainda não publicada
+            }
+            formatarSemFalhar(tiposRegistro[indice], tiposEvento[indice], mensagens[indice], argumentos[indice], tempos[indice]);
+            tiposEvento[indice] = null;
+            mensagens[indice] = null;
+            argumentos[indice] = null;
+            sequencias.set(indice, posicao + capacidade); // Libera a posição para a próxima volta
+            posicao++;
+            lidos++;
+            proximaLeitura.set(posicao);
+        }
+        long totalDescartados = descartados.get();
+        if (totalDescartados > descartadosAvisados) {
+            String aviso = String.format("%d mensagem(ns) de log descartada(s) com o buffer cheio", totalDescartados - descartadosAvisados);
+            LoggerSimulacao.formatarRegistro(REGISTRO_LOG, "ERRO", aviso, null, -1, loteConsole, loteArquivo);
+            descartadosAvisados = totalDescartados;
+            if (lidos == 0) {
+                escreverLote();
+            }
+        }
+        return lidos;
+    }
+
+    // Um modelo que não bate com os argumentos (ou um toString que falha) não pode derrubar a thread do escritor:
+    // sem ela, aguardarEscrita esperaria para sempre. O registro sai com o modelo cru e uma marca de ERRO
+    private void formatarSemFalhar(byte tipoRegistro, String tipoEvento, String mensagem, Object[] args, int tempo) {
+        int tamanhoConsole = loteConsole.length();
+        int tamanhoArquivo = loteArquivo.length();
+        try {
+            LoggerSimulacao.formatarRegistro(tipoRegistro, tipoEvento, mensagem, args, tempo, loteConsole, loteArquivo);
+        } catch (RuntimeException e) {
+            loteConsole.setLength(tamanhoConsole);
+            loteArquivo.setLength(tamanhoArquivo);
+            String falha = String.format("Falha ao formatar log %s (%s): %s", tipoEvento, e, mensagem);
+            LoggerSimulacao.formatarRegistro(REGISTRO_LOG, "ERRO", falha, null, tempo, loteConsole, loteArquivo);
+        }
+    }
+
+    private void escreverLote() {
+        if (loteConsole.length() > 0) {
+            System.out.print(loteConsole);
+            System.out.flush();
+            loteConsole.setLength(0);
+        }
+        if (loteArquivo.length() > 0) {
+            synchronized (this) {
+                PrintWriter arquivo = LoggerSimulacao.getEscritorArquivoLog();
+                if (arquivo != null) {
+                    arquivo.print(loteArquivo);
+                }
+            }
+            loteArquivo.setLength(0);
+        }
+    }
+
+    // Usado por LoggerSimulacao para trocar ou fechar o arquivo sem disputar com uma escrita em andamento
+    Object getTravaArquivo() {
+        return this;
+    }
+}
@@ -1,26 +1,52 @@
 package simulacao;
 
+import estacoes.EstacaoTransferencia;
+import estruturas.Histograma;
 import estruturas.Lista;
 import zonas.ZonaEstatistica;
+import zonas.ZonaUrbana;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Arrays;
 
-public class Estatisticas {
+public class Estatisticas implements BufferEfeitos.Receptor {
+    // Operações adiadas no BufferEfeitos
+    private static final int OPERACAO_REGISTRAR_COLETA = 0;
+    private static final int OPERACAO_OCIOSIDADE_GRANDE = 1;
+    private static final int OPERACAO_VIAGEM_PEQUENO = 2;
+
+    private final ContextoSimulacao contexto;
     private int totalLixoColetado;
     private int totalLixoGerado;
     private int totalCaminhoesGrandesUsados;
     private int tempoTotalEsperaPequenos;
     private int descarregamentos;
     private int maxCaminhoesGrandesEmUso;
-    private final Lista<ZonaEstatistica> lixoPorZona;
+    private final Lista<ZonaEstatistica> lixoPorZona; // Em ordem de criação, para o relatório
+    private ZonaEstatistica[] estatisticaPorId; // Mesmas estatísticas, indexadas pelo id da zona
     private int tempoSimulado;
     private int totalLixoAterro;
     private int caminhoesGrandesEmUsoAtual;
+    // Distribuições de tempos (min), para o relatório mostrar a cauda e não só a média
+    private final Histograma esperaFila; // Espera dos caminhões pequenos na fila, todas as estações
+    private Histograma[] esperaPorEstacao; // Mesma espera, indexada pelo id da estação
+    private String[] nomesEstacoes;
+    private final Histograma ociosidadeCaminhoesGrandes; // Tempo parado na estação sem receber carga, por partida
+    private final Histograma viagensPequenos; // Duração prevista de cada viagem de caminhão pequeno
+    private final Histograma viagensAterro; // Da saída da estação até o retorno, passando pelo aterro
 
-    public Estatisticas() {
+    public Estatisticas(ContextoSimulacao contexto) {
+        this.contexto = contexto;
         this.lixoPorZona = new Lista<>();
+        this.estatisticaPorId = new ZonaEstatistica[8];
+        this.esperaFila = new Histograma();
+        this.esperaPorEstacao = new Histograma[2];
+        this.nomesEstacoes = new String[2];
+        this.ociosidadeCaminhoesGrandes = new Histograma();
+        this.viagensPequenos = new Histograma();
+        this.viagensAterro = new Histograma();
         resetar();
     }
 
@@ -34,35 +60,104 @@ public class Estatisticas {
         maxCaminhoesGrandesEmUso = 0;
         tempoSimulado = 0;
         lixoPorZona.limpar();
+        Arrays.fill(estatisticaPorId, null);
+        esperaFila.limpar();
+        for (Histograma histograma : esperaPorEstacao) {
+            if (histograma != null) {
+                histograma.limpar();
+            }
+        }
+        ociosidadeCaminhoesGrandes.limpar();
+        viagensPequenos.limpar();
+        viagensAterro.limpar();
     }
 
-    public void registrarColeta(int kg, String zona) {
-        totalLixoColetado += kg;
-        ZonaEstatistica estatistica = buscarZonaEstatistica(zona);
-        if (estatistica == null) {
-            estatistica = new ZonaEstatistica(zona);
-            lixoPorZona.adicionar(estatistica);
+    // Coletas, viagens de caminhões pequenos e partidas de caminhões grandes também acontecem nas tarefas paralelas
+    // (estações e shards de zonas): lá o registro vai para o BufferEfeitos da tarefa e é aplicado depois, em ordem
+    public void registrarColeta(int kg, ZonaUrbana zona) {
+        BufferEfeitos buffer = BufferEfeitos.atual();
+        if (buffer != null) {
+            buffer.adiar(this, OPERACAO_REGISTRAR_COLETA, zona, kg);
+            return;
         }
-        estatistica.adicionarLixo(kg);
+        totalLixoColetado += kg;
+        obterOuCriarEstatistica(zona).adicionarLixo(kg);
     }
 
-    public void registrarGeracaoLixo(String zona, int kg) {
+    public void registrarGeracaoLixo(ZonaUrbana zona, int kg) {
         totalLixoGerado += kg;
+        obterOuCriarEstatistica(zona).adicionarLixoGerado(kg);
+    }
+
+    private ZonaEstatistica obterOuCriarEstatistica(ZonaUrbana zona) {
         ZonaEstatistica estatistica = buscarZonaEstatistica(zona);
         if (estatistica == null) {
-            estatistica = new ZonaEstatistica(zona);
+            estatistica = new ZonaEstatistica(zona.getId(), zona.getNome());
+            if (zona.getId() >= estatisticaPorId.length) {
+                estatisticaPorId = Arrays.copyOf(estatisticaPorId, Math.max(zona.getId() + 1, estatisticaPorId.length * 2));
+            }
+            estatisticaPorId[zona.getId()] = estatistica;
             lixoPorZona.adicionar(estatistica);
         }
-        estatistica.adicionarLixoGerado(kg);
+        return estatistica;
     }
 
     public void registrarNovoCaminhaoGrande() {
         totalCaminhoesGrandesUsados++;
     }
 
-    public void registrarEspera(int minutos) {
+    public void registrarEspera(EstacaoTransferencia estacao, int minutos) {
         tempoTotalEsperaPequenos += minutos;
         descarregamentos++;
+        esperaFila.registrar(minutos);
+        obterOuCriarHistogramaEstacao(estacao).registrar(minutos);
+    }
+
+    // O array só cresce quando aparece uma estação nova; depois disso registrar não aloca nada
+    private Histograma obterOuCriarHistogramaEstacao(EstacaoTransferencia estacao) {
+        int id = estacao.getId();
+        if (id >= esperaPorEstacao.length) {
+            int tamanho = Math.max(id + 1, esperaPorEstacao.length * 2);
+            esperaPorEstacao = Arrays.copyOf(esperaPorEstacao, tamanho);
+            nomesEstacoes = Arrays.copyOf(nomesEstacoes, tamanho);
+        }
+        if (esperaPorEstacao[id] == null) {
+            esperaPorEstacao[id] = new Histograma();
+            nomesEstacoes[id] = estacao.getNome();
+        }
+        return esperaPorEstacao[id];
+    }
+
+    public void registrarOciosidadeCaminhaoGrande(int minutos) {
+        BufferEfeitos buffer = BufferEfeitos.atual();
+        if (buffer != null) {
+            buffer.adiar(this, OPERACAO_OCIOSIDADE_GRANDE, null, minutos);
+            return;
+        }
+        ociosidadeCaminhoesGrandes.registrar(minutos);
+    }
+
+    public void registrarViagemPequeno(int minutos) {
+        BufferEfeitos buffer = BufferEfeitos.atual();
+        if (buffer != null) {
+            buffer.adiar(this, OPERACAO_VIAGEM_PEQUENO, null, minutos);
+            return;
+        }
+        viagensPequenos.registrar(Math.max(0, minutos));
+    }
+
+    @Override
+    public void aplicarEfeitoAdiado(int operacao, Object argumento, int a, int b, int c, int d, int e) {
+        switch (operacao) {
+            case OPERACAO_REGISTRAR_COLETA -> registrarColeta(a, (ZonaUrbana) argumento);
+            case OPERACAO_OCIOSIDADE_GRANDE -> registrarOciosidadeCaminhaoGrande(a);
+            case OPERACAO_VIAGEM_PEQUENO -> registrarViagemPequeno(a);
+            default -> throw new IllegalArgumentException("Operação adiada desconhecida: " + operacao);
+        }
+    }
+
+    public void registrarViagemAterro(int minutos) {
+        viagensAterro.registrar(minutos);
     }
 
     public void atualizarMaxCaminhoesGrandesEmUso(int emUso) {
@@ -71,11 +166,11 @@ public class Estatisticas {
 
     public void registrarLixoAterro(int kg) {
         if (kg <= 0) {
-            LoggerSimulacao.log("ERRO", "Tentativa de registrar quantidade inválida de lixo no aterro: " + kg + "kg");
+            LoggerSimulacao.log("ERRO", "Tentativa de registrar quantidade inválida de lixo no aterro: %dkg", kg);
             return;
         }
         totalLixoAterro += kg;
-        LoggerSimulacao.log("INFO", String.format("Registrado %dkg de lixo enviado ao aterro. Total acumulado: %dkg", kg, totalLixoAterro));
+        LoggerSimulacao.log("INFO", "Registrado %dkg de lixo enviado ao aterro. Total acumulado: %dkg", kg, totalLixoAterro);
     }
 
     public void registrarCaminhaoGrandeEmUso() {
@@ -108,8 +203,7 @@ public class Estatisticas {
         LoggerSimulacao.logRelatorio("VERDE_CLARO", "+----------+--------+----------+------------+");
         LoggerSimulacao.logRelatorio("VERDE_CLARO", "| Zona     | Gerado | Coletado | Progresso  |");
         LoggerSimulacao.logRelatorio("VERDE_CLARO", "+----------+--------+----------+------------+");
-        for (int i = 0; i < lixoPorZona.getTamanho(); i++) {
-            ZonaEstatistica zona = lixoPorZona.obter(i);
+        for (ZonaEstatistica zona : lixoPorZona) {
             int toneladasGeradas = zona.getLixoGerado() / 1000;
             int toneladasColetadas = zona.getLixoColetado() / 1000;
             double progresso = zona.getLixoGerado() > 0 ? (double) zona.getLixoColetado() / zona.getLixoGerado() * 100 : 0.0;
@@ -128,19 +222,23 @@ public class Estatisticas {
         double mediaEspera = descarregamentos > 0 ? (double) tempoTotalEsperaPequenos / descarregamentos : 0.0;
         LoggerSimulacao.logRelatorio("AZUL_CLARO", String.format("Tempo médio de espera na fila: %.1f min", mediaEspera));
         LoggerSimulacao.logRelatorio("BRANCO", "");
+        // Percentis dos tempos
+        LoggerSimulacao.logRelatorio("AZUL_CLARO", "[DISTRIBUIÇÃO DOS TEMPOS (min)]");
+        for (String linha : gerarTabelaPercentis()) {
+            LoggerSimulacao.logRelatorio("AZUL_CLARO", linha);
+        }
+        LoggerSimulacao.logRelatorio("BRANCO", "");
         // Caminhões Pequenos
         LoggerSimulacao.logRelatorio("AMARELO", "[STATUS DOS CAMINHÕES PEQUENOS]");
         LoggerSimulacao.logRelatorio("AMARELO", String.format("%-8s  |  %-6s  |  %-10s  |  %-15s  |  %-8s",
                 "Placa", "Zona", "Carga", "Status", "Viagens"));
-        var caminhoesPequenos = Simulador.getCaminhoesPequenos();
-        for (int i = 0; i < caminhoesPequenos.getTamanho(); i++) {
-            var c = caminhoesPequenos.obter(i);
-            String status = c.determinarEstado(c.getEstado());
+        var caminhoesPequenos = contexto.getCaminhoesPequenos();
+        for (var c : caminhoesPequenos) {
+            String status = c.getEstado().getDescricao();
             String corStatus = switch (c.getEstado()) {
-                case 1 -> "VERDE";
-                case 2, 3, 4, 5 -> "AZUL";
-                case 6 -> "AZUL_CLARO";
-                default -> "VERMELHO";
+                case DISPONIVEL -> "VERDE";
+                case COLETANDO, EM_TRANSITO, FILA_ESTACAO, DESCARREGANDO -> "AZUL";
+                case ENCERRADO -> "AZUL_CLARO";
             };
             String linha = String.format("%-8s |  %-6s |  %2d ton /%-3d ton |  %-15s |  %-8d",
                     c.getPlaca(), c.getZonaAtual().getNome(),
@@ -154,9 +252,8 @@ public class Estatisticas {
         LoggerSimulacao.logRelatorio("MAGENTA", "[STATUS DOS CAMINHÕES GRANDES]");
         LoggerSimulacao.logRelatorio("MAGENTA", String.format("%-8s  |  %-15s  |  %-10s  |  %-15s",
                 "Placa", "Status", "Carga", "Estação Origem"));
-        var caminhoesGrandes = Simulador.getCaminhoesGrandes();
-        for (int i = 0; i < caminhoesGrandes.getTamanho(); i++) {
-            var c = caminhoesGrandes.obter(i);
+        var caminhoesGrandes = contexto.getCaminhoesGrandes();
+        for (var c : caminhoesGrandes) {
             String estado = switch (c.getEstado()) {
                 case 0 -> "ESPERANDO";
                 case 1 -> "INDO_ATERRO.";
@@ -204,8 +301,7 @@ public class Estatisticas {
             writer.println("+----------+--------+----------+------------+");
             writer.println("| Zona     | Gerado | Coletado | Progresso  |");
             writer.println("+----------+--------+----------+------------+");
-            for (int i = 0; i < lixoPorZona.getTamanho(); i++) {
-                ZonaEstatistica zona = lixoPorZona.obter(i);
+            for (ZonaEstatistica zona : lixoPorZona) {
                 int toneladasGeradas = zona.getLixoGerado() / 1000;
                 int toneladasColetadas = zona.getLixoColetado() / 1000;
                 double progresso = zona.getLixoGerado() > 0 ? (double) zona.getLixoColetado() / zona.getLixoGerado() * 100 : 0.0;
@@ -227,14 +323,20 @@ public class Estatisticas {
             writer.println(String.format("Tempo médio de espera na fila: %.1f min", mediaEspera));
             writer.println();
 
+            // Percentis dos tempos
+            writer.println("[DISTRIBUIÇÃO DOS TEMPOS (min)]");
+            for (String linha : gerarTabelaPercentis()) {
+                writer.println(linha);
+            }
+            writer.println();
+
             // Caminhões pequenos
             writer.println("[STATUS DOS CAMINHÕES PEQUENOS]");
             writer.println(String.format("%-8s  |  %-6s  |  %-10s  |  %-15s  |  %-8s",
                     "Placa", "Zona", "Carga", "Status", "Viagens"));
-            var caminhoesPequenos = Simulador.getCaminhoesPequenos();
-            for (int i = 0; i < caminhoesPequenos.getTamanho(); i++) {
-                var c = caminhoesPequenos.obter(i);
-                String status = c.determinarEstado(c.getEstado());
+            var caminhoesPequenos = contexto.getCaminhoesPequenos();
+            for (var c : caminhoesPequenos) {
+                String status = c.getEstado().getDescricao();
                 writer.println(String.format("%-8s |  %-6s |  %2d ton /%-3d ton |  %-15s |  %-8d",
                         c.getPlaca(), c.getZonaAtual().getNome(),
                         c.getCargaAtual() / 1000, c.getCapacidade() / 1000,
@@ -246,9 +348,8 @@ public class Estatisticas {
             writer.println("[STATUS DOS CAMINHÕES GRANDES]");
             writer.println(String.format("%-8s  |  %-15s  |  %-10s  |  %-15s",
                     "Placa", "Status", "Carga", "Estação Origem"));
-            var caminhoesGrandes = Simulador.getCaminhoesGrandes();
-            for (int i = 0; i < caminhoesGrandes.getTamanho(); i++) {
-                var c = caminhoesGrandes.obter(i);
+            var caminhoesGrandes = contexto.getCaminhoesGrandes();
+            for (var c : caminhoesGrandes) {
                 String status = switch (c.getEstado()) {
                     case 0 -> "ESPERANDO";
                     case 1 -> "EM_VIAGEM_PARA_ATERRO";
@@ -266,6 +367,33 @@ public class Estatisticas {
         }
     }
 
+    // Tabela com p50/p90/p99/máximo de cada distribuição de tempos que tem amostras
+    private Lista<String> gerarTabelaPercentis() {
+        Lista<String> linhas = new Lista<>();
+        linhas.adicionar("+------------------------------+----------+-------+-------+-------+-------+");
+        linhas.adicionar("| Medida                       | Amostras |   p50 |   p90 |   p99 |  Máx  |");
+        linhas.adicionar("+------------------------------+----------+-------+-------+-------+-------+");
+        adicionarLinhaPercentis(linhas, "Espera na fila (todas)", esperaFila);
+        for (int i = 0; i < esperaPorEstacao.length; i++) {
+            if (esperaPorEstacao[i] != null) {
+                adicionarLinhaPercentis(linhas, "Espera na fila - " + nomesEstacoes[i], esperaPorEstacao[i]);
+            }
+        }
+        adicionarLinhaPercentis(linhas, "Ociosidade caminhão grande", ociosidadeCaminhoesGrandes);
+        adicionarLinhaPercentis(linhas, "Viagem caminhão pequeno", viagensPequenos);
+        adicionarLinhaPercentis(linhas, "Viagem ao aterro (ida/volta)", viagensAterro);
+        linhas.adicionar("+------------------------------+----------+-------+-------+-------+-------+");
+        return linhas;
+    }
+
+    private static void adicionarLinhaPercentis(Lista<String> linhas, String nome, Histograma histograma) {
+        if (histograma.estaVazio()) {
+            return;
+        }
+        linhas.adicionar(String.format("| %-28s | %8d | %5d | %5d | %5d | %5d |", nome, histograma.getTotal(),
+                histograma.percentil(50), histograma.percentil(90), histograma.percentil(99), histograma.getMaximo()));
+    }
+
     private String gerarBarraProgresso(double progresso) {
         int blocos = (int) (progresso / 20); // Cada bloco representa ~20% de progresso
         StringBuilder barra = new StringBuilder();
@@ -275,18 +403,39 @@ public class Estatisticas {
         return barra.toString();
     }
 
-    public ZonaEstatistica buscarZonaEstatistica(String zona) {
-        for (int i = 0; i < lixoPorZona.getTamanho(); i++) {
-            ZonaEstatistica estatistica = lixoPorZona.obter(i);
-            if (estatistica.getNomeZona().equals(zona)) {
-                return estatistica;
-            }
-        }
-        return null;
+    // Estatística da zona pelo id, ou null se a zona ainda não registrou nada
+    public ZonaEstatistica buscarZonaEstatistica(ZonaUrbana zona) {
+        int id = zona.getId();
+        return id < estatisticaPorId.length ? estatisticaPorId[id] : null;
     }
     public void setTempoSimulado(int tempo) {
         this.tempoSimulado = tempo;
     }
+
+    // Getters usados pelas replicações e pela varredura de parâmetros
+    public int getTotalLixoColetado() { return totalLixoColetado; }
+    public int getTotalLixoGerado() { return totalLixoGerado; }
+    public int getTotalLixoAterro() { return totalLixoAterro; }
+    public int getTotalCaminhoesGrandesUsados() { return totalCaminhoesGrandesUsados; }
+    public int getMaxCaminhoesGrandesEmUso() { return maxCaminhoesGrandesEmUso; }
+    public int getTempoSimulado() { return tempoSimulado; }
+
+    // Tempo médio de espera dos caminhões pequenos nas estações (min)
+    public double getTempoMedioEspera() {
+        return descarregamentos > 0 ? (double) tempoTotalEsperaPequenos / descarregamentos : 0.0;
+    }
+
+    // Distribuições de tempos, para quem precisa de outros percentis além dos do relatório
+    public Histograma getEsperaFila() { return esperaFila; }
+    public Histograma getOciosidadeCaminhoesGrandes() { return ociosidadeCaminhoesGrandes; }
+    public Histograma getViagensPequenos() { return viagensPequenos; }
+    public Histograma getViagensAterro() { return viagensAterro; }
+
+    // Espera na fila de uma estação, ou null se ela ainda não atendeu nenhum caminhão
+    public Histograma getEsperaEstacao(EstacaoTransferencia estacao) {
+        int id = estacao.getId();
+        return id < esperaPorEstacao.length ? esperaPorEstacao[id] : null;
+    }
 }
 
 
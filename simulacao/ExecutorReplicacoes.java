@@ -0,0 +1,78 @@
+package simulacao;
+
+import estruturas.Lista;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Executa várias replicações independentes da mesma configuração em paralelo. Cada replicação tem o seu
+// próprio ContextoSimulacao com semente derivada da semente base, então o lote é reproduzível e as
+// replicações não compartilham estado
+public class ExecutorReplicacoes {
+    private final ConfiguracaoSimulacao configuracao;
+    private final int paralelismo;
+
+    public ExecutorReplicacoes(ConfiguracaoSimulacao configuracao) {
+        this(configuracao, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ExecutorReplicacoes(ConfiguracaoSimulacao configuracao, int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("O paralelismo deve ser pelo menos 1!");
+        }
+        this.configuracao = configuracao;
+        this.paralelismo = paralelismo;
+    }
+
+    public ResultadoReplicacoes executar(int replicacoes, int minutos, long sementeBase) {
+        if (replicacoes < 1) {
+            throw new IllegalArgumentException("O número de replicações deve ser pelo menos 1!");
+        }
+        // As sementes são sorteadas em sequência antes de disparar as tarefas: a semente de cada replicação
+        // não depende da ordem em que as threads terminam
+        SplittableRandom geradorSementes = new SplittableRandom(sementeBase);
+        long[] sementes = new long[replicacoes];
+        for (int i = 0; i < replicacoes; i++) {
+            sementes[i] = geradorSementes.nextLong();
+        }
+
+        long inicio = System.nanoTime();
+        Estatisticas[] resultados = new Estatisticas[replicacoes];
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            Lista<Future<Estatisticas>> futuros = new Lista<>();
+            for (int i = 0; i < replicacoes; i++) {
+                long semente = sementes[i];
+                futuros.adicionar(pool.submit(() -> executarReplicacao(configuracao, semente, minutos)));
+            }
+            for (int i = 0; i < replicacoes; i++) {
+                resultados[i] = futuros.obter(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Replicações interrompidas", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Falha em uma das replicações: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        return new ResultadoReplicacoes(minutos, sementeBase, segundos, resultados);
+    }
+
+    // Uma replicação completa, sem log de eventos: monta o contexto, configura e roda em modo rápido
+    static Estatisticas executarReplicacao(ConfiguracaoSimulacao configuracao, long semente, int minutos) {
+        ContextoSimulacao contexto = new ContextoSimulacao(semente);
+        contexto.setLogAtivo(false);
+        ContextoSimulacao contextoAnterior = LoggerSimulacao.vincularContexto(contexto);
+        try {
+            Simulador simulador = new Simulador(contexto);
+            simulador.configurar(configuracao);
+            return simulador.executarModoRapido(minutos);
+        } finally {
+            LoggerSimulacao.vincularContexto(contextoAnterior);
+        }
+    }
+}
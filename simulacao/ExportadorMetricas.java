@@ -0,0 +1,164 @@
+package simulacao;
+
+import caminhoes.CaminhaoGrande;
+import caminhoes.EstadoCaminhaoPequeno;
+import caminhoes.FrotaCaminhoesPequenos;
+import estacoes.EstacaoTransferencia;
+import estruturas.Lista;
+import zonas.ZonaUrbana;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Série temporal das métricas da simulação, gravada em CSV a cada N minutos simulados. Cada amostra vira uma
+// linha escrita por um buffer de tamanho fixo, então execuções longas não guardam o histórico em memória.
+// Colunas: minuto, lixo acumulado por zona, fila por estação, caminhões grandes em viagem ao aterro (ida,
+// descarga e volta) e a contagem de caminhões pequenos e grandes por estado
+public class ExportadorMetricas implements Closeable {
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final String[] ESTADOS_GRANDES = {"ESPERANDO", "EM_VIAGEM_PARA_ATERRO", "DESCARREGANDO",
+            "RETORNANDO"}; // Estados 0 a 3 de CaminhaoGrande
+
+    private final String arquivo;
+    private final int intervalo;
+    private final Writer saida;
+    private final StringBuilder linha;
+    private final int[] grandesPorEstado;
+    private boolean cabecalhoEscrito;
+    private long amostras;
+    private boolean falhou;
+
+    public ExportadorMetricas(String arquivo, int intervalo) throws IOException {
+        if (intervalo <= 0) {
+            throw new IllegalArgumentException("O intervalo de amostragem deve ser positivo: " + intervalo);
+        }
+        this.arquivo = arquivo;
+        this.intervalo = intervalo;
+        this.saida = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(arquivo), StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        this.linha = new StringBuilder(256);
+        this.grandesPorEstado = new int[ESTADOS_GRANDES.length];
+        this.cabecalhoEscrito = false;
+        this.amostras = 0;
+        this.falhou = false;
+    }
+
+    public int getIntervalo() {
+        return intervalo;
+    }
+
+    public String getArquivo() {
+        return arquivo;
+    }
+
+    public long getAmostras() {
+        return amostras;
+    }
+
+    // Diz se o minuto informado é um instante de amostragem
+    public boolean deveAmostrar(int tempoSimulado) {
+        return tempoSimulado % intervalo == 0;
+    }
+
+    // Grava uma linha com o estado atual da simulação
+    public void amostrar(ContextoSimulacao contexto) {
+        if (falhou) {
+            return;
+        }
+        Lista<ZonaUrbana> zonas = contexto.getZonas();
+        Lista<EstacaoTransferencia> estacoes = contexto.getEstacoes();
+        if (!cabecalhoEscrito) {
+            escreverCabecalho(zonas, estacoes);
+            cabecalhoEscrito = true;
+        }
+        linha.setLength(0);
+        linha.append(contexto.getTempoSimulado());
+        for (ZonaUrbana zona : zonas) {
+            linha.append(',').append(zona.getLixoAcumulado());
+        }
+        for (EstacaoTransferencia estacao : estacoes) {
+            linha.append(',').append(estacao.getFilaPequenos().getTamanho());
+        }
+        linha.append(',').append(contexto.getCaminhoesGrandesOcupados().getTamanho());
+
+        Arrays.fill(grandesPorEstado, 0);
+        for (CaminhaoGrande caminhao : contexto.getCaminhoesGrandes()) {
+            int estado = caminhao.getEstado();
+            if (estado >= 0 && estado < grandesPorEstado.length) {
+                grandesPorEstado[estado]++;
+            }
+        }
+        // A frota já mantém o conjunto de cada estado: a contagem sai direto dele
+        FrotaCaminhoesPequenos frota = contexto.getCaminhoesPequenos();
+        for (EstadoCaminhaoPequeno estado : EstadoCaminhaoPequeno.values()) {
+            linha.append(',').append(frota.contar(estado));
+        }
+        for (int quantidade : grandesPorEstado) {
+            linha.append(',').append(quantidade);
+        }
+        linha.append('\n');
+        escrever();
+        amostras++;
+    }
+
+    // Esvazia o buffer no arquivo, para que a série possa ser lida enquanto o programa continua aberto
+    public void descarregar() {
+        if (falhou) {
+            return;
+        }
+        try {
+            saida.flush();
+        } catch (IOException e) {
+            falhar(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        saida.close();
+    }
+
+    private void escreverCabecalho(Lista<ZonaUrbana> zonas, Lista<EstacaoTransferencia> estacoes) {
+        linha.setLength(0);
+        linha.append("minuto");
+        for (ZonaUrbana zona : zonas) {
+            linha.append(",lixo_").append(nomeColuna(zona.getNome()));
+        }
+        for (EstacaoTransferencia estacao : estacoes) {
+            linha.append(",fila_").append(nomeColuna(estacao.getNome()));
+        }
+        linha.append(",grandes_em_viagem");
+        for (EstadoCaminhaoPequeno estado : EstadoCaminhaoPequeno.values()) {
+            linha.append(",pequenos_").append(estado.name());
+        }
+        for (String estado : ESTADOS_GRANDES) {
+            linha.append(",grandes_").append(estado);
+        }
+        linha.append('\n');
+        escrever();
+    }
+
+    private void escrever() {
+        try {
+            saida.append(linha);
+        } catch (IOException e) {
+            falhar(e);
+        }
+    }
+
+    // Um erro de disco não deve derrubar a simulação: as métricas param de ser gravadas
+    private void falhar(IOException e) {
+        falhou = true;
+        LoggerSimulacao.log("ERRO", "Erro ao gravar as métricas em %s: %s", arquivo, e.getMessage());
+    }
+
+    // Nomes de zonas e estações viram identificadores simples (ex.: "Estação A" -> "Estação_A")
+    private static String nomeColuna(String nome) {
+        return nome.trim().replaceAll("[^\\p{L}\\p{N}]+", "_");
+    }
+}
@@ -1,16 +1,22 @@
 package simulacao;
 
-import zonas.ZonaUrbana;
+import caminhoes.DistribuicaoCaminhoes;
+import estacoes.EstacaoTransferencia;
+import zonas.MapaCidade;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class InterfaceSimulador {
     private final Simulador simulador;
     private final Scanner scanner;
+    private ConfiguracaoSimulacao configuracao;
 
     public InterfaceSimulador(Simulador simulador) {
         this.simulador = simulador;
         this.scanner = new Scanner(System.in);
+        LoggerSimulacao.vincularContexto(simulador.getContexto());
     }
 
     public void iniciar() {
@@ -32,7 +38,7 @@ public class InterfaceSimulador {
                 String input = scanner.nextLine().trim();
                 return Integer.parseInt(input);
             } catch (NumberFormatException e) {
-                LoggerSimulacao.log("ERRO", "Entrada inválida! Digite um número entre 1 e 7.");
+                LoggerSimulacao.log("ERRO", "Entrada inválida! Digite um número entre 1 e 10.");
                 if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog()) {
                     LoggerSimulacao.log("INFO", String.format("Entrada inválida recebida: %s", e.getMessage()));
                 }
@@ -65,6 +71,18 @@ public class InterfaceSimulador {
                 mostrarMenuCompleto();
             }
             case 7 -> sair();
+            case 8 -> {
+                executarModoRapido();
+                mostrarMenuCompleto();
+            }
+            case 9 -> {
+                executarReplicacoes();
+                mostrarMenuCompleto();
+            }
+            case 10 -> {
+                executarVarredura();
+                mostrarMenuCompleto();
+            }
             default -> {
                 LoggerSimulacao.log("ERRO", "Opção inválida!");
                 mostrarMenuCompleto();
@@ -81,6 +99,9 @@ public class InterfaceSimulador {
         LoggerSimulacao.log("CONFIG", "5. Imprimir relatório");
         LoggerSimulacao.log("CONFIG", "6. Salvar relatório em arquivo");
         LoggerSimulacao.log("CONFIG", "7. Sair");
+        LoggerSimulacao.log("CONFIG", "8. Executar em modo rápido (sem pausas)");
+        LoggerSimulacao.log("CONFIG", "9. Executar replicações (Monte Carlo)");
+        LoggerSimulacao.log("CONFIG", "10. Varredura de parâmetros da frota");
         LoggerSimulacao.log("CONFIG", "Escolha uma opção: ");
     }
 
@@ -95,8 +116,131 @@ public class InterfaceSimulador {
         }
     }
 
+    // Roda a simulação sem pausas até o horizonte informado e imprime o relatório final
+    private void executarModoRapido() {
+        int minutos = lerHorizonte();
+        Estatisticas resultado = simulador.executarModoRapido(minutos);
+        resultado.imprimirRelatorio();
+        RegistroEventosBinario registro = simulador.getContexto().getRegistroEventos();
+        if (registro != null) {
+            registro.descarregar();
+        }
+        ExportadorMetricas exportador = simulador.getContexto().getExportadorMetricas();
+        if (exportador != null) {
+            exportador.descarregar();
+        }
+    }
+
+    // Roda várias replicações independentes da configuração atual em paralelo e imprime o resumo estatístico
+    private void executarReplicacoes() {
+        int replicacoes = lerQuantidade("Quantas replicações? ");
+        if (replicacoes < 1) {
+            LoggerSimulacao.log("ERRO", "É preciso pelo menos uma replicação!");
+            return;
+        }
+        int minutos = lerHorizonte();
+        long semente = lerSemente();
+        LoggerSimulacao.log("INFO", String.format("Executando %d replicações em paralelo...", replicacoes));
+        ResultadoReplicacoes resultado = new ExecutorReplicacoes(configuracao).executar(replicacoes, minutos, semente);
+        resultado.imprimir();
+    }
+
+    // Simula em paralelo todas as combinações de uma grade de parâmetros e grava a tabela de resultados
+    private void executarVarredura() {
+        LoggerSimulacao.log("CONFIG", "--- Varredura de parâmetros ---");
+        LoggerSimulacao.log("CONFIG", "Para cada parâmetro digite um valor (5), uma lista (1,2,4) ou um intervalo com passo (0-10:2).");
+        LoggerSimulacao.log("CONFIG", "Não digite nada para manter o valor da configuração atual.");
+        int minutos = lerHorizonte();
+        VarreduraParametros varredura = new VarreduraParametros(configuracao, minutos, simulador.getContexto().getSemente());
+        for (VarreduraParametros.Parametro parametro : VarreduraParametros.Parametro.values()) {
+            int[] grade = lerGrade(parametro.getDescricao() + ": ");
+            if (grade != null) {
+                varredura.definirGrade(parametro, grade);
+            }
+        }
+        LoggerSimulacao.log("CONFIG", "Nome do arquivo da tabela (ex: varredura.csv): ");
+        String arquivo = scanner.nextLine().trim();
+        if (arquivo.isEmpty()) {
+            arquivo = "varredura.csv";
+        }
+        LoggerSimulacao.log("INFO", String.format("Executando varredura de %d combinações...", varredura.getTotalCombinacoes()));
+        try {
+            varredura.executar(arquivo);
+        } catch (IOException e) {
+            LoggerSimulacao.log("ERRO", String.format("Erro ao salvar a tabela da varredura: %s", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            LoggerSimulacao.log("ERRO", e.getMessage());
+        }
+    }
+
+    // Lê a grade de um parâmetro da varredura; retorna null para manter o valor atual
+    private int[] lerGrade(String mensagem) {
+        while (true) {
+            LoggerSimulacao.log("CONFIG", mensagem);
+            synchronized (System.in) {
+                String entrada = scanner.nextLine().trim();
+                if (entrada.isEmpty()) return null;
+                try {
+                    return VarreduraParametros.interpretarGrade(entrada);
+                } catch (IllegalArgumentException e) {
+                    LoggerSimulacao.log("ERRO", String.format("Grade inválida! %s", e.getMessage()));
+                }
+            }
+        }
+    }
+
+    // Lê a semente base das replicações; vazio usa a semente da simulação atual
+    private long lerSemente() {
+        while (true) {
+            LoggerSimulacao.log("CONFIG", String.format("Semente base (vazio para usar %d): ", simulador.getContexto().getSemente()));
+            synchronized (System.in) {
+                String entrada = scanner.nextLine().trim();
+                if (entrada.isEmpty()) return simulador.getContexto().getSemente();
+                try {
+                    return Long.parseLong(entrada);
+                } catch (NumberFormatException e) {
+                    LoggerSimulacao.log("ERRO", "Entrada inválida! Digite um número inteiro!");
+                }
+            }
+        }
+    }
+
+    // Lê o horizonte da simulação rápida: número seguido de "d" (dias) ou "m" (minutos)
+    private int lerHorizonte() {
+        while (true) {
+            LoggerSimulacao.log("CONFIG", "Horizonte da simulação rápida (ex: 30d para 30 dias, 600m para 600 minutos): ");
+            synchronized (System.in) {
+                String entrada = scanner.nextLine().trim().toLowerCase();
+                try {
+                    int valor;
+                    if (entrada.endsWith("d")) {
+                        valor = Integer.parseInt(entrada.substring(0, entrada.length() - 1).trim()) * 24 * 60;
+                    } else if (entrada.endsWith("m")) {
+                        valor = Integer.parseInt(entrada.substring(0, entrada.length() - 1).trim());
+                    } else {
+                        valor = Integer.parseInt(entrada);
+                    }
+                    if (valor > 0) return valor;
+                    LoggerSimulacao.log("ERRO", "Digite um horizonte positivo!");
+                } catch (NumberFormatException e) {
+                    LoggerSimulacao.log("ERRO", "Entrada inválida! Use por exemplo 30d ou 600m.");
+                }
+            }
+        }
+    }
+
     private void sair() {
         simulador.encerrar();
+        try {
+            simulador.getContexto().encerrarRegistroEventos();
+        } catch (IOException e) {
+            LoggerSimulacao.log("ERRO", String.format("Erro ao fechar o log binário de eventos: %s", e.getMessage()));
+        }
+        try {
+            simulador.getContexto().encerrarExportacaoMetricas();
+        } catch (IOException e) {
+            LoggerSimulacao.log("ERRO", String.format("Erro ao fechar o arquivo de métricas: %s", e.getMessage()));
+        }
         LoggerSimulacao.log("INFO", "Saindo...");
         scanner.close();
         System.exit(0);
@@ -113,10 +257,13 @@ public class InterfaceSimulador {
             logFileName = "eventos.txt"; // Nome de arquivo log padrão
         }
         LoggerSimulacao.inicializarLogArquivo(logFileName);
+        iniciarRegistroEventosBinario();
+        iniciarExportacaoMetricas();
 
         // Seleção de modo de log
         LoggerSimulacao.ModoLog modoLog = lerModoLog();
         LoggerSimulacao.setModoLog(modoLog);
+        LoggerSimulacao.setPoliticaBufferCheio(lerPoliticaBufferCheio());
 
         // Configuração de parâmetros dos caminhões
         LoggerSimulacao.log("CONFIG", "--- Definição de parâmetros da Simulação ---");
@@ -128,18 +275,24 @@ public class InterfaceSimulador {
         LoggerSimulacao.log("CONFIG", String.format("Tempo máximo de espera dos caminhões pequenos: %d minutos", tempoMaxEspera));
         LoggerSimulacao.log("CONFIG", String.format("Quantidade máxima de viagens diárias:          %d viagens", limiteViagens));
 
-        // Configuração de intervalos de lixo por zona
-        configIntervalosZonas();
+        // Cidade e intervalos de lixo por zona
+        MapaCidade mapa = lerMapaCidade();
+        int[][] intervalosLixo = configIntervalosZonas(mapa);
 
         //Configuração das localizações das estações e aterro
         LoggerSimulacao.log("CONFIG", "--- Definição de localizações da Simulação ---");
-        ZonaUrbana zonaEstacaoA = lerZona("Qual é a zona que a estação A estará? (1: Norte; 2: Sul; 3: Leste; 4: Sudeste; 5: Centro): ");
-        ZonaUrbana zonaEstacaoB = lerZona("Qual é a zona que a estação B estará? (1: Norte; 2: Sul; 3: Leste; 4: Sudeste; 5: Centro): ");
-        ZonaUrbana zonaAterro = lerZona("Qual é a zona que o aterro estará? (1: Norte; 2: Sul; 3: Leste; 4: Sudeste; 5: Centro): ");
+        String opcoesZonas = descreverZonas(mapa);
+        int[] zonasEstacoes = new int[lerQuantidadeEstacoes()];
+        for (int i = 0; i < zonasEstacoes.length; i++) {
+            zonasEstacoes[i] = lerZona(String.format("Qual é a zona que a estação %s estará? (%s): ",
+                    EstacaoTransferencia.letraPadrao(i), opcoesZonas), mapa);
+        }
+        int zonaAterro = lerZona(String.format("Qual é a zona que o aterro estará? (%s): ", opcoesZonas), mapa);
         LoggerSimulacao.log("CONFIG", "Localizações inicializadas: ");
-        LoggerSimulacao.log("CONFIG", String.format("Estação A: Zona %s", zonaEstacaoA.getNome()));
-        LoggerSimulacao.log("CONFIG", String.format("Estação B: Zona %s", zonaEstacaoB.getNome()));
-        LoggerSimulacao.log("CONFIG", String.format("Aterro:    Zona %s", zonaAterro.getNome()));
+        for (int i = 0; i < zonasEstacoes.length; i++) {
+            LoggerSimulacao.log("CONFIG", String.format("%s: Zona %s", EstacaoTransferencia.nomePadrao(i), mapa.getNome(zonasEstacoes[i])));
+        }
+        LoggerSimulacao.log("CONFIG", String.format("Aterro:    Zona %s", mapa.getNome(zonaAterro)));
 
         // Configuração das quantidades de caminhões
         LoggerSimulacao.log("CONFIG", "--- Definição das quantidades de caminhões pequenos da Simulação ---");
@@ -147,44 +300,89 @@ public class InterfaceSimulador {
         int qtd4t = lerQuantidade("Quantos caminhões de 4t? ");
         int qtd8t = lerQuantidade("Quantos caminhões de 8t? ");
         int qtd10t = lerQuantidade("Quantos caminhões de 10t? ");
+        DistribuicaoCaminhoes.ModoDistribuicao modoDistribuicao = lerModoDistribuicao();
+        simulador.setThreadsEstacoes(lerThreads("Quantas threads para processar as estações?"));
+        simulador.setShardsZonas(lerThreads("Em quantos shards dividir as zonas e os caminhões pequenos?"));
 
-        Simulador.inicializarCaminhoes(qtd2t, qtd4t, qtd8t, qtd10t, limiteViagens);
-        Simulador.inicializarEstacoes(tempoMaxEspera, zonaEstacaoA, zonaEstacaoB);
-        Simulador.inicializarAterro(zonaAterro);
-        Simulador.configurarSimuladorParams(tolerancia);
+        configuracao = new ConfiguracaoSimulacao(mapa, tolerancia, tempoMaxEspera, limiteViagens, intervalosLixo,
+                zonasEstacoes, zonaAterro, qtd2t, qtd4t, qtd8t, qtd10t, modoDistribuicao);
+        simulador.configurar(configuracao);
     }
 
-    private void configIntervalosZonas(){
-        int[][] intervalosLixo = new int[5][2];
-        String[] zonasNomes = {"Norte", "Sul", "Leste", "Sudeste", "Centro"};
+    // Log binário opcional, gravado junto com o log de texto (lido depois com simulacao.DecodificadorEventos)
+    private void iniciarRegistroEventosBinario() {
+        LoggerSimulacao.log("CONFIG", "Nome do arquivo do log binário de eventos (ex: eventos.bin). Não digite nada para não gravar: ");
+        String arquivo = scanner.nextLine().trim();
+        if (arquivo.isEmpty()) {
+            return;
+        }
+        try {
+            ContextoSimulacao contexto = simulador.getContexto();
+            contexto.iniciarRegistroEventos(new RegistroEventosBinario(Paths.get(arquivo), contexto.getSemente()));
+            LoggerSimulacao.log("CONFIG", String.format("Log binário de eventos será salvo em %s", arquivo));
+        } catch (IOException e) {
+            LoggerSimulacao.log("ERRO", String.format("Erro ao criar o log binário de eventos %s: %s", arquivo, e.getMessage()));
+        }
+    }
+
+    // Série de métricas opcional em CSV, uma linha a cada N minutos simulados
+    private void iniciarExportacaoMetricas() {
+        LoggerSimulacao.log("CONFIG", "Nome do arquivo CSV de métricas (ex: metricas.csv). Não digite nada para não gravar: ");
+        String arquivo = scanner.nextLine().trim();
+        if (arquivo.isEmpty()) {
+            return;
+        }
+        int intervalo = lerQuantidade("De quantos em quantos minutos simulados as métricas serão gravadas? ");
+        if (intervalo < 1) {
+            LoggerSimulacao.log("ERRO", "O intervalo deve ser de pelo menos 1 minuto. Métricas não serão gravadas.");
+            return;
+        }
+        try {
+            simulador.getContexto().iniciarExportacaoMetricas(new ExportadorMetricas(arquivo, intervalo));
+            LoggerSimulacao.log("CONFIG", String.format("Métricas serão salvas em %s a cada %d minutos", arquivo, intervalo));
+        } catch (IOException e) {
+            LoggerSimulacao.log("ERRO", String.format("Erro ao criar o arquivo de métricas %s: %s", arquivo, e.getMessage()));
+        }
+    }
+
+    // Cidade carregada de arquivo (zonas, intervalos de lixo e distâncias) ou as 5 zonas padrão
+    private MapaCidade lerMapaCidade() {
+        LoggerSimulacao.log("CONFIG", "Arquivo da cidade com zonas e distâncias (ex: cidades/teresina.txt). Não digite nada para usar as 5 zonas padrão: ");
+        String arquivo = scanner.nextLine().trim();
+        if (arquivo.isEmpty()) {
+            return MapaCidade.padrao();
+        }
+        try {
+            MapaCidade mapa = MapaCidade.carregar(Paths.get(arquivo));
+            LoggerSimulacao.log("CONFIG", String.format("Cidade carregada de %s: %d zonas", arquivo, mapa.getQuantidadeZonas()));
+            return mapa;
+        } catch (NoSuchFileException e) {
+            LoggerSimulacao.log("ERRO", String.format("Arquivo %s não encontrado. Usando as 5 zonas padrão.", arquivo));
+        } catch (IOException | IllegalArgumentException e) {
+            LoggerSimulacao.log("ERRO", String.format("Erro ao carregar a cidade %s: %s. Usando as 5 zonas padrão.", arquivo, e.getMessage()));
+        }
+        return MapaCidade.padrao();
+    }
+
+    private int[][] configIntervalosZonas(MapaCidade mapa){
+        int[][] intervalosLixo = mapa.copiarIntervalosLixo();
         int opcaoPadrao = lerOpcaoPadrao();
         if (opcaoPadrao == 1) {
-            intervalosLixo[0][0] = 2900 * 24; // Norte: 69600 kg
-            intervalosLixo[0][1] = 5000 * 24; // Norte: 120000 kg
-            intervalosLixo[1][0] = 3500 * 24; // Sul: 84000 kg
-            intervalosLixo[1][1] = 6500 * 24; // Sul: 156000 kg
-            intervalosLixo[2][0] = 3900 * 24; // Leste: 93600 kg
-            intervalosLixo[2][1] = 6800 * 24; // Leste: 163200 kg
-            intervalosLixo[3][0] = 2800 * 24; // Sudeste: 67200 kg
-            intervalosLixo[3][1] = 5500 * 24; // Sudeste: 132000 kg
-            intervalosLixo[4][0] = 3500 * 24; // Centro: 84000 kg
-            intervalosLixo[4][1] = 6000 * 24; // Centro: 144000 kg
             LoggerSimulacao.log("CONFIG", "Intervalos padrão aplicados:");
         } else {
-            for (int i = 0; i < 5; i++) {
+            for (int i = 0; i < mapa.getQuantidadeZonas(); i++) {
                 LoggerSimulacao.log("CONFIG", "--- Definição dos intervalos das zonas ---.");
-                LoggerSimulacao.log("CONFIG", String.format("Configurando geração de lixo para zona %s:", zonasNomes[i]));
+                LoggerSimulacao.log("CONFIG", String.format("Configurando geração de lixo para zona %s:", mapa.getNome(i)));
                 intervalosLixo[i][0] = lerQuantidade("  Intervalo mínimo de lixo diário (kg): ");
                 intervalosLixo[i][1] = lerQuantidade("  Intervalo máximo de lixo diário (kg): ");
                 if (intervalosLixo[i][1] < intervalosLixo[i][0]) {
                     LoggerSimulacao.log("ERRO", "Máximo deve ser maior ou igual ao mínimo! Usando valores padrão.");
-                    intervalosLixo[i][0] = (i == 0 ? 2900 : i == 1 ? 3500 : i == 2 ? 3900 : i == 3 ? 2800 : 3500) * 24;
-                    intervalosLixo[i][1] = (i == 0 ? 5000 : i == 1 ? 6500 : i == 2 ? 6800 : i == 3 ? 5500 : 6000) * 24;
+                    intervalosLixo[i][0] = mapa.getLixoMin(i);
+                    intervalosLixo[i][1] = mapa.getLixoMax(i);
                 }
             }
         }
-        Simulador.inicializarZonas(intervalosLixo);
-        Simulador.gerarLixoZonas();
+        return intervalosLixo;
     }
 
     private int lerQuantidade(String mensagem) {
@@ -202,18 +400,40 @@ public class InterfaceSimulador {
         }
     }
 
-    private ZonaUrbana lerZona(String mensagem) {
+    // Opções de zona para os prompts: a lista numerada em cidades pequenas, só o intervalo em cidades grandes
+    private static String descreverZonas(MapaCidade mapa) {
+        int zonas = mapa.getQuantidadeZonas();
+        if (zonas > 10) {
+            return String.format("1 a %d, ou o nome da zona", zonas);
+        }
+        StringBuilder opcoes = new StringBuilder();
+        for (int i = 0; i < zonas; i++) {
+            if (i > 0) {
+                opcoes.append("; ");
+            }
+            opcoes.append(i + 1).append(": ").append(mapa.getNome(i));
+        }
+        return opcoes.toString();
+    }
+
+    // Retorna o id da zona escolhida, pelo número (a partir de 1) ou pelo nome
+    private int lerZona(String mensagem, MapaCidade mapa) {
         while (true) {
             LoggerSimulacao.log("CONFIG", mensagem);
             synchronized (System.in) {
+                String entrada = scanner.nextLine().trim();
                 try {
-                    int zona = Integer.parseInt(scanner.nextLine().trim());
-                    if (zona >= 1 && zona <= 5) {
-                        return Simulador.getZonas().obter(zona - 1);
+                    int zona = Integer.parseInt(entrada);
+                    if (zona >= 1 && zona <= mapa.getQuantidadeZonas()) {
+                        return zona - 1;
                     }
                     LoggerSimulacao.log("ERRO", "Digite um número de zona válido!");
                 } catch (NumberFormatException e) {
-                    LoggerSimulacao.log("ERRO", "Entrada inválida! Digite um número!");
+                    int zona = mapa.indiceDaZona(entrada);
+                    if (zona >= 0) {
+                        return zona;
+                    }
+                    LoggerSimulacao.log("ERRO", "Entrada inválida! Digite o número ou o nome de uma zona!");
                 }
             }
         }
@@ -235,6 +455,61 @@ public class InterfaceSimulador {
         }
     }
 
+    private LoggerSimulacao.PoliticaBufferCheio lerPoliticaBufferCheio() {
+        while (true) {
+            LoggerSimulacao.log("CONFIG", "Quando o buffer de log encher (1: Esperar, 2: Descartar, 3: Amostrar): ");
+            synchronized (System.in) {
+                try {
+                    int politica = Integer.parseInt(scanner.nextLine().trim());
+                    if (politica == 1) return LoggerSimulacao.PoliticaBufferCheio.BLOQUEAR;
+                    if (politica == 2) return LoggerSimulacao.PoliticaBufferCheio.DESCARTAR;
+                    if (politica == 3) return LoggerSimulacao.PoliticaBufferCheio.AMOSTRAR;
+                    LoggerSimulacao.log("ERRO", "Digite 1, 2 ou 3!");
+                } catch (NumberFormatException e) {
+                    LoggerSimulacao.log("ERRO", "Entrada inválida! Digite um número!");
+                }
+            }
+        }
+    }
+
+    private DistribuicaoCaminhoes.ModoDistribuicao lerModoDistribuicao() {
+        while (true) {
+            LoggerSimulacao.log("CONFIG", "Distribuição dos caminhões disponíveis (1: Um por vez, 2: Em lote, otimizando todos juntos): ");
+            synchronized (System.in) {
+                try {
+                    int modo = Integer.parseInt(scanner.nextLine().trim());
+                    if (modo == 1) return DistribuicaoCaminhoes.ModoDistribuicao.GULOSO;
+                    if (modo == 2) return DistribuicaoCaminhoes.ModoDistribuicao.LOTE;
+                    LoggerSimulacao.log("ERRO", "Digite 1 ou 2!");
+                } catch (NumberFormatException e) {
+                    LoggerSimulacao.log("ERRO", "Entrada inválida! Digite um número!");
+                }
+            }
+        }
+    }
+
+    // Estações e shards de zonas em paralelo só mudam o tempo de execução: os resultados são os mesmos do modo sequencial
+    private int lerThreads(String pergunta) {
+        while (true) {
+            int threads = lerQuantidade(String.format("%s (1: sequencial, até %d): ",
+                    pergunta, Runtime.getRuntime().availableProcessors()));
+            if (threads >= 1) {
+                return threads;
+            }
+            LoggerSimulacao.log("ERRO", "Digite pelo menos 1!");
+        }
+    }
+
+    private int lerQuantidadeEstacoes() {
+        while (true) {
+            int quantidade = lerQuantidade("Quantas estações de transferência? (padrão: 2): ");
+            if (quantidade >= 1) {
+                return quantidade;
+            }
+            LoggerSimulacao.log("ERRO", "A simulação precisa de pelo menos uma estação!");
+        }
+    }
+
     private int lerOpcaoPadrao() {
         while (true) {
             LoggerSimulacao.log("CONFIG", "Usar intervalos de lixo padrão para todas as zonas? (1: Sim, 2: Não): ");
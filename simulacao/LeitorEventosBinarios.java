@@ -0,0 +1,216 @@
+package simulacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Lê um log gravado por RegistroEventosBinario como um cursor: proximo() avança para o próximo evento e os getters
+// devolvem os campos dele, sem alocar nada por evento. Os cadastros são consumidos pelo próprio leitor e alimentam
+// as tabelas de nomes de zonas, estações e caminhões
+public class LeitorEventosBinarios implements Closeable {
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final long semente;
+    private String[] nomesZonas;
+    private String[] nomesEstacoes;
+    private String[] nomesCaminhoes; // Pequenos e grandes compartilham a mesma numeração
+    private boolean[] caminhaoGrande;
+    private RegistroEventosBinario.Tipo tipo;
+    private int minuto;
+    private int entidade;
+    private int local;
+    private int kg;
+    private int valor;
+
+    public LeitorEventosBinarios(Path arquivo) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocate(TAMANHO_BUFFER - TAMANHO_BUFFER % RegistroEventosBinario.TAMANHO_REGISTRO);
+        this.buffer.flip();
+        this.nomesZonas = new String[8];
+        this.nomesEstacoes = new String[4];
+        this.nomesCaminhoes = new String[64];
+        this.caminhaoGrande = new boolean[64];
+        try {
+            if (!garantirRegistros(1)) {
+                throw new IOException("Arquivo vazio: " + arquivo);
+            }
+            byte[] assinatura = new byte[RegistroEventosBinario.ASSINATURA.length];
+            buffer.get(assinatura);
+            if (!Arrays.equals(assinatura, RegistroEventosBinario.ASSINATURA)) {
+                throw new IOException("Arquivo não é um log binário de eventos: " + arquivo);
+            }
+            int versao = buffer.getInt();
+            int tamanhoRegistro = buffer.getInt();
+            if (versao != RegistroEventosBinario.VERSAO || tamanhoRegistro != RegistroEventosBinario.TAMANHO_REGISTRO) {
+                throw new IOException(String.format("Versão %d com registros de %d bytes não suportada", versao, tamanhoRegistro));
+            }
+            this.semente = buffer.getLong();
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    // Avança para o próximo evento; false no fim do arquivo
+    public boolean proximo() throws IOException {
+        while (garantirRegistros(1)) {
+            RegistroEventosBinario.Tipo lido = RegistroEventosBinario.Tipo.deCodigo(buffer.get());
+            if (lido == null) {
+                throw new IOException("Tipo de registro desconhecido na posição " + (canal.position() - buffer.remaining() - 1));
+            }
+            if (lido.isCadastro()) {
+                lerCadastro(lido);
+                continue;
+            }
+            buffer.get();
+            buffer.getShort();
+            tipo = lido;
+            minuto = buffer.getInt();
+            entidade = buffer.getInt();
+            local = buffer.getInt();
+            kg = buffer.getInt();
+            valor = buffer.getInt();
+            return true;
+        }
+        return false;
+    }
+
+    public RegistroEventosBinario.Tipo getTipo() { return tipo; }
+    public int getMinuto() { return minuto; }
+    public int getEntidade() { return entidade; }
+    public int getLocal() { return local; }
+    public int getKg() { return kg; }
+    public int getValor() { return valor; }
+    public long getSemente() { return semente; }
+
+    public String nomeZona(int id) {
+        return nome(nomesZonas, id);
+    }
+
+    public String nomeEstacao(int id) {
+        return nome(nomesEstacoes, id);
+    }
+
+    public String nomeCaminhao(int id) {
+        return nome(nomesCaminhoes, id);
+    }
+
+    public boolean isCaminhaoGrande(int id) {
+        return id >= 0 && id < caminhaoGrande.length && caminhaoGrande[id];
+    }
+
+    // Nome do local do evento atual (zona ou estação), ou null se o evento não tem local
+    public String nomeLocal() {
+        return switch (tipo.getLocal()) {
+            case ZONA -> nomeZona(local);
+            case ESTACAO -> nomeEstacao(local);
+            case NENHUM -> null;
+        };
+    }
+
+    // Escreve o evento atual no formato de texto, uma linha terminada em '\n'
+    public void formatar(StringBuilder destino) {
+        destino.append('[');
+        LoggerSimulacao.formatarTempo(minuto, destino);
+        destino.append("] ").append(tipo.name());
+        if (entidade >= 0) {
+            destino.append(isCaminhaoGrande(entidade) ? " caminhão grande " : " caminhão ").append(nomeCaminhao(entidade));
+        }
+        switch (tipo.getLocal()) {
+            case ZONA -> destino.append(" zona ").append(nomeZona(local));
+            case ESTACAO -> destino.append(' ').append(nomeEstacao(local));
+            default -> { }
+        }
+        if (kg != 0) {
+            destino.append(' ').append(kg).append("kg");
+        }
+        switch (tipo) {
+            case INICIO_COLETA, FIM_COLETA -> destino.append(" (coleta: ").append(valor).append("min)");
+            case PARTIDA_ZONA, PARTIDA_ESTACAO, PARTIDA_ATERRO -> destino.append(" (viagem: ").append(valor).append("min)");
+            case CHEGADA_ESTACAO -> destino.append(" (fila: ").append(valor).append(')');
+            case DESCARGA_ESTACAO -> destino.append(" em caminhão grande ").append(nomeCaminhao(valor));
+            case SAIDA_ESTACAO -> destino.append(" (espera: ").append(valor).append("min)");
+            case ENCERRAMENTO -> destino.append(" (limite: ").append(valor).append(" viagens)");
+            default -> { }
+        }
+        destino.append('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private void lerCadastro(RegistroEventosBinario.Tipo cadastro) throws IOException {
+        int tamanho = buffer.get() & 0xFF;
+        buffer.getShort();
+        buffer.getInt(); // Minuto do cadastro
+        int id = buffer.getInt();
+        int continuacao = RegistroEventosBinario.registrosDeContinuacao(tamanho);
+        byte[] bytes = new byte[RegistroEventosBinario.BYTES_NOME_NO_CADASTRO + continuacao * RegistroEventosBinario.TAMANHO_REGISTRO];
+        buffer.get(bytes, 0, RegistroEventosBinario.BYTES_NOME_NO_CADASTRO);
+        for (int i = 0; i < continuacao; i++) {
+            if (!garantirRegistros(1)) {
+                throw new IOException("Arquivo truncado no meio de um cadastro");
+            }
+            buffer.get(bytes, RegistroEventosBinario.BYTES_NOME_NO_CADASTRO + i * RegistroEventosBinario.TAMANHO_REGISTRO,
+                    RegistroEventosBinario.TAMANHO_REGISTRO);
+        }
+        String nome = new String(bytes, 0, tamanho, StandardCharsets.UTF_8);
+        switch (cadastro) {
+            case CADASTRO_ZONA -> nomesZonas = guardar(nomesZonas, id, nome);
+            case CADASTRO_ESTACAO -> nomesEstacoes = guardar(nomesEstacoes, id, nome);
+            default -> {
+                nomesCaminhoes = guardar(nomesCaminhoes, id, nome);
+                if (id >= caminhaoGrande.length) {
+                    caminhaoGrande = Arrays.copyOf(caminhaoGrande, Math.max(caminhaoGrande.length * 2, id + 1));
+                }
+                caminhaoGrande[id] = cadastro == RegistroEventosBinario.Tipo.CADASTRO_CAMINHAO_GRANDE;
+            }
+        }
+    }
+
+    private static String[] guardar(String[] nomes, int id, String nome) {
+        if (id >= nomes.length) {
+            nomes = Arrays.copyOf(nomes, Math.max(nomes.length * 2, id + 1));
+        }
+        nomes[id] = nome;
+        return nomes;
+    }
+
+    private static String nome(String[] nomes, int id) {
+        if (id >= 0 && id < nomes.length && nomes[id] != null) {
+            return nomes[id];
+        }
+        return "#" + id;
+    }
+
+    // Garante que o buffer tenha a quantidade de registros inteiros pedida; false se o arquivo acabou antes
+    private boolean garantirRegistros(int registros) throws IOException {
+        int necessario = registros * RegistroEventosBinario.TAMANHO_REGISTRO;
+        if (buffer.remaining() >= necessario) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < necessario) {
+            if (canal.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        if (buffer.remaining() == 0) {
+            return false;
+        }
+        if (buffer.remaining() < necessario) {
+            throw new IOException("Arquivo truncado: registro incompleto no fim");
+        }
+        return true;
+    }
+}
@@ -7,14 +7,27 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Objects;
+import java.util.function.Supplier;
 
-// Classe para gerenciar logs do sistema com formatação colorida e saída para arquivo
+// Classe para gerenciar logs do sistema com formatação colorida e saída para arquivo.
+// A escrita é assíncrona: log e logRelatorio só publicam o registro para o EscritorLogAssincrono.
+// Mensagens com parâmetros devem usar as variantes com modelo (formatado só na thread do escritor)
+// ou com Supplier, e mensagens de depuração as variantes debug, que descartam a chamada antes de montar a mensagem
 public class LoggerSimulacao {
     public enum ModoLog { NORMAL, DEBUG }
-    private static ModoLog modoAtual = ModoLog.NORMAL;
+    // O que fazer quando o buffer de log enche: esperar espaço, descartar a mensagem ou aceitar só uma amostra
+    public enum PoliticaBufferCheio { BLOQUEAR, DESCARTAR, AMOSTRAR }
+    private static volatile ModoLog modoAtual = ModoLog.NORMAL;
+    private static volatile PoliticaBufferCheio politicaBufferCheio = PoliticaBufferCheio.BLOQUEAR;
+    private static final int CAPACIDADE_BUFFER = 8192;
 
-    private static PrintWriter escritorArquivoLog;
+    private static volatile PrintWriter escritorArquivoLog;
     private static String nomeArquivoLog;
+    // Simulação que a thread atual está executando, usada para carimbar os logs com o tempo simulado
+    private static final ThreadLocal<ContextoSimulacao> CONTEXTO_THREAD = new ThreadLocal<>();
+    // Fica true quando algum contexto desliga o log. Até lá nenhum log pode estar silenciado e a checagem dispensa
+    // a consulta ao ThreadLocal: é uma única leitura
+    private static volatile boolean silencioPossivel = false;
 
     // Cores ANSI para formatação no terminal
     public static final String RESET = "\u001B[0m";
@@ -61,10 +74,17 @@ public class LoggerSimulacao {
         CORES_RELATORIO.put("CIANO_CLARO", CIANO_CLARO);
     }
 
+    // Criado depois dos mapas de cores, que a thread do escritor usa para formatar
+    private static final EscritorLogAssincrono ESCRITOR = new EscritorLogAssincrono(CAPACIDADE_BUFFER);
+
     public static void inicializarLogArquivo(String fileName) {
         nomeArquivoLog = fileName;
         try {
-            escritorArquivoLog = new PrintWriter(new File(fileName), "UTF-8");
+            PrintWriter novoEscritor = new PrintWriter(new File(fileName), "UTF-8");
+            ESCRITOR.aguardarEscrita();
+            synchronized (ESCRITOR.getTravaArquivo()) {
+                escritorArquivoLog = novoEscritor;
+            }
             log("CONFIG", String.format("Log de eventos será salvo em %s", fileName));
         } catch (IOException e) {
             log("ERRO", String.format("Erro ao inicializar arquivo de log %s: %s", fileName, e.getMessage()));
@@ -74,8 +94,11 @@ public class LoggerSimulacao {
     // Close the log file
     public static void fecharLogArquivo() {
         if (escritorArquivoLog != null) {
-            escritorArquivoLog.close();
-            escritorArquivoLog = null;
+            ESCRITOR.aguardarEscrita();
+            synchronized (ESCRITOR.getTravaArquivo()) {
+                escritorArquivoLog.close();
+                escritorArquivoLog = null;
+            }
             log("CONFIG", String.format("Arquivo de log %s fechado.", nomeArquivoLog));
         }
     }
@@ -89,65 +112,187 @@ public class LoggerSimulacao {
         return modoAtual;
     }
 
+    public static void setPoliticaBufferCheio(PoliticaBufferCheio politica) {
+        politicaBufferCheio = politica;
+        log("CONFIG", String.format("Política do buffer de log cheio alterada para %s.", politica));
+    }
+
+    public static PoliticaBufferCheio getPoliticaBufferCheio() {
+        return politicaBufferCheio;
+    }
+
+    // Espera a escrita de todos os logs já publicados (ex.: antes de ler uma resposta do usuário ou de sair)
+    public static void descarregar() {
+        ESCRITOR.aguardarEscrita();
+    }
+
+    // Mensagens descartadas pelas políticas DESCARTAR e AMOSTRAR desde o início do programa
+    public static long getMensagensDescartadas() {
+        return ESCRITOR.getDescartados();
+    }
+
+    static PrintWriter getEscritorArquivoLog() {
+        return escritorArquivoLog;
+    }
+
+    // Associa a thread atual a uma simulação e devolve a associação anterior (null desfaz a associação)
+    public static ContextoSimulacao vincularContexto(ContextoSimulacao contexto) {
+        ContextoSimulacao anterior = CONTEXTO_THREAD.get();
+        if (contexto == null) {
+            CONTEXTO_THREAD.remove();
+        } else {
+            CONTEXTO_THREAD.set(contexto);
+        }
+        return anterior;
+    }
+
+    // Chamado quando um contexto desliga o log: a partir daí logSilenciado passa a consultar o contexto da thread
+    static void registrarSilencio() {
+        silencioPossivel = true;
+    }
+
+    // Simulações com log desligado (ex.: replicações em lote) só registram erros
+    private static boolean logSilenciado(String tipoEvento) {
+        if (!silencioPossivel) {
+            return false;
+        }
+        ContextoSimulacao contexto = CONTEXTO_THREAD.get();
+        return contexto != null && !contexto.isLogAtivo() && !"ERRO".equals(tipoEvento);
+    }
+
+    private static int tempoSimuladoAtual() {
+        ContextoSimulacao contexto = CONTEXTO_THREAD.get();
+        return contexto != null ? contexto.getTempoSimulado() : 0;
+    }
+
+    // Diz se uma mensagem desse tipo seria registrada. Serve para pular, no chamador, trabalho que só existe para o log
+    public static boolean estaAtivo(String tipoEvento) {
+        return !logSilenciado(tipoEvento);
+    }
+
+    // Mensagens de depuração só são registradas no modo DEBUG
+    public static boolean estaAtivoDebug() {
+        return modoAtual == ModoLog.DEBUG && !logSilenciado("DEBUG");
+    }
+
     // Registro especial para o relatório horário
     public static void logRelatorio(String tipoEvento, String mensagem) {
-        synchronized (System.out) {
-            String cor = CORES_RELATORIO.get(tipoEvento);
-            if (cor == null) {
-                cor = RESET;
-            }
-            String mensagemFormatada = String.format("%s %s%s", cor, mensagem, RESET);
-            System.out.println(mensagemFormatada);
-        }
-        if (escritorArquivoLog != null) {
-            synchronized (escritorArquivoLog) {
-                // Tira todas as cores pro arquivo
-                String mensagemSemCores = mensagem.replaceAll("\u001B\\[[0-9;]*m", "");
-                escritorArquivoLog.println(mensagemSemCores);
-                escritorArquivoLog.flush();
-            }
+        if (logSilenciado(tipoEvento)) {
+            return;
         }
+        publicar(EscritorLogAssincrono.REGISTRO_RELATORIO, tipoEvento, mensagem, null);
     }
 
     // Registra uma mensagem de log com tipo de evento e timestamp
     public static void log(String tipoEvento, String mensagem) {
-        synchronized (System.out) {
-            String cor = CORES_EVENTO.get(tipoEvento);
+        if (logSilenciado(tipoEvento)) {
+            return;
+        }
+        publicar(EscritorLogAssincrono.REGISTRO_LOG, tipoEvento, mensagem, null);
+    }
+
+    // Registra uma mensagem no formato de String.format. A formatação acontece na thread do escritor,
+    // então os argumentos devem ser valores que não mudam depois da chamada (números, textos)
+    public static void log(String tipoEvento, String modelo, Object... argumentos) {
+        if (logSilenciado(tipoEvento)) {
+            return;
+        }
+        publicar(EscritorLogAssincrono.REGISTRO_LOG, tipoEvento, modelo, argumentos);
+    }
+
+    // Registra uma mensagem montada só se o tipo de evento estiver ativo
+    public static void log(String tipoEvento, Supplier<String> mensagem) {
+        if (logSilenciado(tipoEvento)) {
+            return;
+        }
+        publicar(EscritorLogAssincrono.REGISTRO_LOG, tipoEvento, mensagem.get(), null);
+    }
+
+    // Variantes de log registradas apenas no modo DEBUG
+    public static void debug(String tipoEvento, String modelo, Object... argumentos) {
+        if (estaAtivoDebug()) {
+            publicar(EscritorLogAssincrono.REGISTRO_LOG, tipoEvento, modelo, argumentos);
+        }
+    }
+
+    public static void debug(String tipoEvento, Supplier<String> mensagem) {
+        if (estaAtivoDebug()) {
+            publicar(EscritorLogAssincrono.REGISTRO_LOG, tipoEvento, mensagem.get(), null);
+        }
+    }
+
+    // Entrega o registro ao escritor. Dentro de uma tarefa paralela com BufferEfeitos ativo, a entrega fica para
+    // quando o buffer for aplicado, com o tempo e a política do momento da chamada
+    private static void publicar(byte tipoRegistro, String tipoEvento, String mensagem, Object[] argumentos) {
+        int tempo = tempoSimuladoAtual();
+        PoliticaBufferCheio politica = politicaBufferCheio;
+        BufferEfeitos buffer = BufferEfeitos.atual();
+        if (buffer != null) {
+            buffer.adiar(() -> ESCRITOR.publicar(tipoRegistro, tipoEvento, mensagem, argumentos, tempo, politica));
+            return;
+        }
+        ESCRITOR.publicar(tipoRegistro, tipoEvento, mensagem, argumentos, tempo, politica);
+    }
+
+    // Formata um registro na thread do escritor: linha colorida para o console e linha sem cores para o arquivo.
+    // Com argumentos, a mensagem é um modelo de String.format. Tempo negativo indica uma mensagem do próprio
+    // logger, sem carimbo de tempo simulado
+    static void formatarRegistro(byte tipoRegistro, String tipoEvento, String mensagem, Object[] argumentos, int tempo,
+                                 StringBuilder console, StringBuilder arquivo) {
+        if (argumentos != null) {
+            mensagem = String.format(mensagem, argumentos);
+        }
+        if (tipoRegistro == EscritorLogAssincrono.REGISTRO_RELATORIO) {
+            String cor = CORES_RELATORIO.get(tipoEvento);
             if (cor == null) {
                 cor = RESET;
             }
-            String timestamp = formatarTempo(Simulador.getTempoSimulado());
-            String mensagemFormatada = String.format("%s[%s] %s%s", cor, timestamp, mensagem, RESET);
-            String mensagemArquivo = String.format("[%s] %s", timestamp, mensagem);
-            if (Objects.equals(tipoEvento, "CONFIG") || Objects.equals(tipoEvento, "ESTATISTICA")){
-                mensagemFormatada = String.format("%s %s%s", cor, mensagem, RESET);
-                mensagemArquivo = mensagem;
-            }
-            if (modoAtual == ModoLog.NORMAL) {
-                if (mensagem.contains("não disponível") && !tipoEvento.equals("ERRO")) {
-                    return;
-                }
-                System.out.println(mensagemFormatada);
-            } else {
-                System.out.println(mensagemFormatada);
-            }
-            if (escritorArquivoLog != null) {
-                synchronized (escritorArquivoLog) {
-                    escritorArquivoLog.println(String.format("[%s] %s", tipoEvento, mensagemArquivo));
-                    escritorArquivoLog.flush();
-                }
-            }
+            console.append(cor).append(' ').append(mensagem).append(RESET).append('\n');
+            // Tira todas as cores pro arquivo
+            arquivo.append(mensagem.replaceAll("\u001B\\[[0-9;]*m", "")).append('\n');
+            return;
+        }
+        String cor = CORES_EVENTO.get(tipoEvento);
+        if (cor == null) {
+            cor = RESET;
+        }
+        arquivo.append('[').append(tipoEvento).append("] ");
+        if (tempo < 0 || Objects.equals(tipoEvento, "CONFIG") || Objects.equals(tipoEvento, "ESTATISTICA")) {
+            console.append(cor).append(' ').append(mensagem).append(RESET).append('\n');
+            arquivo.append(mensagem).append('\n');
+        } else {
+            console.append(cor).append('[');
+            formatarTempo(tempo, console);
+            console.append("] ").append(mensagem).append(RESET).append('\n');
+            arquivo.append('[');
+            formatarTempo(tempo, arquivo);
+            arquivo.append("] ").append(mensagem).append('\n');
         }
     }
 
     static String formatarTempo(int minutos) {
+        StringBuilder destino = new StringBuilder(24);
+        formatarTempo(minutos, destino);
+        return destino.toString();
+    }
+
+    // Mesmo formato de formatarTempo(int), escrito direto no destino
+    static void formatarTempo(int minutos, StringBuilder destino) {
         int dias = minutos / (24 * 60);
         int horas = (minutos % (24 * 60)) / 60;
         int mins = minutos % 60;
-        if(DistribuicaoCaminhoes.isHorarioDePico(minutos)){
-            return String.format("Dia %d, %02d:%02d [PICO]", dias + 1, horas, mins);
+        destino.append("Dia ").append(dias + 1).append(", ");
+        if (horas < 10) {
+            destino.append('0');
+        }
+        destino.append(horas).append(':');
+        if (mins < 10) {
+            destino.append('0');
+        }
+        destino.append(mins);
+        if (DistribuicaoCaminhoes.isHorarioDePico(minutos)) {
+            destino.append(" [PICO]");
         }
-        return String.format("Dia %d, %02d:%02d", dias + 1, horas, mins);
     }
 }
 
@@ -0,0 +1,49 @@
+package simulacao;
+
+// Agregado de uma métrica ao longo de várias replicações: média, desvio padrão amostral e
+// intervalo de confiança de 95% da média (t de Student)
+public class MetricaReplicada {
+    // Valores críticos t (bicaudal, 95%) para 1 a 30 graus de liberdade
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private final String nome;
+    private final int amostras;
+    private final double media;
+    private final double desvioPadrao;
+    private final double meiaLargura;
+
+    public MetricaReplicada(String nome, double[] valores) {
+        this.nome = nome;
+        this.amostras = valores.length;
+        double soma = 0;
+        for (double valor : valores) {
+            soma += valor;
+        }
+        this.media = amostras > 0 ? soma / amostras : 0.0;
+        double somaQuadrados = 0;
+        for (double valor : valores) {
+            somaQuadrados += (valor - media) * (valor - media);
+        }
+        this.desvioPadrao = amostras > 1 ? Math.sqrt(somaQuadrados / (amostras - 1)) : 0.0;
+        this.meiaLargura = amostras > 1 ? valorCriticoT(amostras - 1) * desvioPadrao / Math.sqrt(amostras) : 0.0;
+    }
+
+    private static double valorCriticoT(int grausLiberdade) {
+        if (grausLiberdade <= T_95.length) return T_95[grausLiberdade - 1];
+        if (grausLiberdade <= 60) return 2.00;
+        if (grausLiberdade <= 120) return 1.98;
+        return 1.96;
+    }
+
+    // Getters
+    public String getNome() { return nome; }
+    public int getAmostras() { return amostras; }
+    public double getMedia() { return media; }
+    public double getDesvioPadrao() { return desvioPadrao; }
+    public double getLimiteInferior() { return media - meiaLargura; }
+    public double getLimiteSuperior() { return media + meiaLargura; }
+}
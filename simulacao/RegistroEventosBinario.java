@@ -0,0 +1,177 @@
+package simulacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Log binário de eventos da simulação: um cabeçalho seguido de registros de tamanho fixo, muito menor e mais
+// rápido de ler que o log de texto. Os registros são acumulados em um buffer direto e gravados por um FileChannel
+// quando o buffer enche. Leitura e reprodução ficam com LeitorEventosBinarios e DecodificadorEventos.
+//
+// Cabeçalho (24 bytes): "SCLEVT01", versão (int), tamanho do registro (int), semente da simulação (long).
+// Evento (24 bytes): tipo (byte), 3 bytes reservados, minuto (int), entidade (int), local (int), kg (int), valor (int).
+// Cadastro (24 bytes + continuação): tipo (byte), tamanho do nome em bytes (byte), 2 bytes reservados, minuto (int),
+// id (int) e os 12 primeiros bytes do nome em UTF-8; o restante do nome ocupa os registros seguintes, completando 24 bytes
+public class RegistroEventosBinario implements Closeable {
+    public static final byte[] ASSINATURA = "SCLEVT01".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSAO = 1;
+    public static final int TAMANHO_REGISTRO = 24;
+    public static final int BYTES_NOME_NO_CADASTRO = 12;
+    public static final int TAMANHO_MAXIMO_NOME = 255;
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // Onde acontece um evento: o campo local guarda o id de uma zona, de uma estação ou não é usado
+    public enum Local { NENHUM, ZONA, ESTACAO }
+
+    // O código de cada tipo é gravado no arquivo: tipos novos entram no fim, com código novo
+    public enum Tipo {
+        CADASTRO_ZONA(0, true, Local.NENHUM),
+        CADASTRO_ESTACAO(1, true, Local.NENHUM),
+        CADASTRO_CAMINHAO_PEQUENO(2, true, Local.NENHUM),
+        CADASTRO_CAMINHAO_GRANDE(3, true, Local.NENHUM),
+        GERACAO_LIXO(10, false, Local.ZONA),          // kg: lixo gerado
+        INICIO_COLETA(11, false, Local.ZONA),         // entidade: caminhão pequeno, kg: a coletar, valor: minutos previstos
+        FIM_COLETA(12, false, Local.ZONA),            // entidade: caminhão pequeno, kg: carga final, valor: minutos de coleta
+        PARTIDA_ZONA(13, false, Local.ZONA),          // entidade: caminhão pequeno, local: destino, valor: minutos de viagem
+        CHEGADA_ZONA(14, false, Local.ZONA),          // entidade: caminhão pequeno
+        PARTIDA_ESTACAO(15, false, Local.ESTACAO),    // entidade: caminhão pequeno, local: destino, kg: carga, valor: minutos de viagem
+        CHEGADA_ESTACAO(16, false, Local.ESTACAO),    // entidade: caminhão pequeno, kg: carga, valor: tamanho da fila
+        DESCARGA_ESTACAO(17, false, Local.ESTACAO),   // entidade: caminhão pequeno, kg: descarregado, valor: caminhão grande
+        SAIDA_ESTACAO(18, false, Local.ESTACAO),      // entidade: caminhão pequeno, valor: minutos de espera na fila
+        ENCERRAMENTO(19, false, Local.NENHUM),        // entidade: caminhão pequeno, valor: limite de viagens diárias
+        CAMINHAO_GRANDE_ADICIONADO(20, false, Local.ESTACAO), // entidade: caminhão grande
+        PARTIDA_ATERRO(21, false, Local.ESTACAO),     // entidade: caminhão grande, local: origem, kg: carga, valor: minutos de viagem
+        DESCARGA_ATERRO(22, false, Local.NENHUM),     // entidade: caminhão grande, kg: descarregado
+        RETORNO_ESTACAO(23, false, Local.ESTACAO);    // entidade: caminhão grande
+
+        private static final Tipo[] POR_CODIGO = new Tipo[128];
+        static {
+            for (Tipo tipo : values()) {
+                POR_CODIGO[tipo.codigo] = tipo;
+            }
+        }
+
+        private final byte codigo;
+        private final boolean cadastro;
+        private final Local local;
+
+        Tipo(int codigo, boolean cadastro, Local local) {
+            this.codigo = (byte) codigo;
+            this.cadastro = cadastro;
+            this.local = local;
+        }
+
+        public byte getCodigo() {
+            return codigo;
+        }
+
+        public boolean isCadastro() {
+            return cadastro;
+        }
+
+        public Local getLocal() {
+            return local;
+        }
+
+        // Tipo do código gravado no arquivo, ou null se o código for desconhecido
+        public static Tipo deCodigo(int codigo) {
+            return codigo >= 0 && codigo < POR_CODIGO.length ? POR_CODIGO[codigo] : null;
+        }
+    }
+
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private long registrosGravados;
+    private boolean falhou;
+
+    public RegistroEventosBinario(Path arquivo, long semente) throws IOException {
+        this.arquivo = arquivo;
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER - TAMANHO_BUFFER % TAMANHO_REGISTRO);
+        this.registrosGravados = 0;
+        this.falhou = false;
+        buffer.put(ASSINATURA).putInt(VERSAO).putInt(TAMANHO_REGISTRO).putLong(semente);
+    }
+
+    // Grava um evento de tamanho fixo; -1 indica entidade ou local ausente
+    public void registrar(Tipo tipo, int minuto, int entidade, int local, int kg, int valor) {
+        if (falhou) {
+            return;
+        }
+        garantirEspaco(1);
+        buffer.put(tipo.codigo).put((byte) 0).putShort((short) 0)
+                .putInt(minuto).putInt(entidade).putInt(local).putInt(kg).putInt(valor);
+        registrosGravados++;
+    }
+
+    // Associa um id a um nome (zona, estação ou placa). Nomes maiores que 12 bytes continuam nos registros seguintes
+    public void cadastrar(Tipo tipo, int minuto, int id, String nome) {
+        if (!tipo.cadastro) {
+            throw new IllegalArgumentException("Tipo de registro não é de cadastro: " + tipo);
+        }
+        if (falhou) {
+            return;
+        }
+        byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+        int tamanho = Math.min(bytes.length, TAMANHO_MAXIMO_NOME);
+        int continuacao = registrosDeContinuacao(tamanho);
+        garantirEspaco(1 + continuacao);
+        buffer.put(tipo.codigo).put((byte) tamanho).putShort((short) 0).putInt(minuto).putInt(id);
+        int bytesTotais = BYTES_NOME_NO_CADASTRO + continuacao * TAMANHO_REGISTRO;
+        buffer.put(bytes, 0, tamanho);
+        for (int i = tamanho; i < bytesTotais; i++) {
+            buffer.put((byte) 0);
+        }
+        registrosGravados += 1 + continuacao;
+    }
+
+    // Registros extras ocupados pelo nome de um cadastro além dos 12 bytes do próprio registro
+    public static int registrosDeContinuacao(int tamanhoNome) {
+        int excedente = tamanhoNome - BYTES_NOME_NO_CADASTRO;
+        return excedente <= 0 ? 0 : (excedente + TAMANHO_REGISTRO - 1) / TAMANHO_REGISTRO;
+    }
+
+    public long getRegistrosGravados() {
+        return registrosGravados;
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    // Grava no arquivo o que ainda está no buffer
+    public void descarregar() {
+        if (falhou) {
+            return;
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+        } catch (IOException e) {
+            // Um erro de disco não deve derrubar a simulação: o log binário para de ser gravado
+            falhou = true;
+            LoggerSimulacao.log("ERRO", "Erro ao gravar o log binário de eventos %s: %s", arquivo.toString(), e.getMessage());
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        descarregar();
+        canal.close();
+    }
+
+    private void garantirEspaco(int registros) {
+        if (buffer.remaining() < registros * TAMANHO_REGISTRO) {
+            descarregar();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package simulacao;
+
+// Resultado agregado de um lote de replicações da mesma configuração
+public class ResultadoReplicacoes {
+    private final int replicacoes;
+    private final int minutos;
+    private final long sementeBase;
+    private final double segundos;
+    private final MetricaReplicada lixoColetado;
+    private final MetricaReplicada lixoAterro;
+    private final MetricaReplicada tempoMedioEspera;
+    private final MetricaReplicada caminhoesGrandesUsados;
+
+    public ResultadoReplicacoes(int minutos, long sementeBase, double segundos, Estatisticas[] resultados) {
+        this.replicacoes = resultados.length;
+        this.minutos = minutos;
+        this.sementeBase = sementeBase;
+        this.segundos = segundos;
+        double[] coletado = new double[replicacoes];
+        double[] aterro = new double[replicacoes];
+        double[] espera = new double[replicacoes];
+        double[] grandes = new double[replicacoes];
+        for (int i = 0; i < replicacoes; i++) {
+            coletado[i] = resultados[i].getTotalLixoColetado();
+            aterro[i] = resultados[i].getTotalLixoAterro();
+            espera[i] = resultados[i].getTempoMedioEspera();
+            grandes[i] = resultados[i].getTotalCaminhoesGrandesUsados();
+        }
+        this.lixoColetado = new MetricaReplicada("Lixo coletado (kg)", coletado);
+        this.lixoAterro = new MetricaReplicada("Lixo no aterro (kg)", aterro);
+        this.tempoMedioEspera = new MetricaReplicada("Espera média (min)", espera);
+        this.caminhoesGrandesUsados = new MetricaReplicada("Caminhões grandes usados", grandes);
+    }
+
+    public void imprimir() {
+        LoggerSimulacao.logRelatorio("CIANO_CLARO", String.format("=====  REPLICAÇÕES - %d execuções de %d minutos ===== ",
+                replicacoes, minutos));
+        LoggerSimulacao.logRelatorio("BRANCO", String.format("Semente base: %d | Tempo de execução: %.3fs", sementeBase, segundos));
+        LoggerSimulacao.logRelatorio("BRANCO", "+--------------------------+--------------+--------------+-------------------------------+");
+        LoggerSimulacao.logRelatorio("BRANCO", "| Métrica                  |        Média | Desvio padr. | IC 95%                        |");
+        LoggerSimulacao.logRelatorio("BRANCO", "+--------------------------+--------------+--------------+-------------------------------+");
+        imprimirLinha(lixoColetado);
+        imprimirLinha(lixoAterro);
+        imprimirLinha(tempoMedioEspera);
+        imprimirLinha(caminhoesGrandesUsados);
+        LoggerSimulacao.logRelatorio("BRANCO", "+--------------------------+--------------+--------------+-------------------------------+");
+    }
+
+    private void imprimirLinha(MetricaReplicada metrica) {
+        LoggerSimulacao.logRelatorio("BRANCO", String.format("| %-24s | %12.2f | %12.2f | [%12.2f ; %12.2f] |",
+                metrica.getNome(), metrica.getMedia(), metrica.getDesvioPadrao(),
+                metrica.getLimiteInferior(), metrica.getLimiteSuperior()));
+    }
+
+    // Getters
+    public int getReplicacoes() { return replicacoes; }
+    public MetricaReplicada getLixoColetado() { return lixoColetado; }
+    public MetricaReplicada getLixoAterro() { return lixoAterro; }
+    public MetricaReplicada getTempoMedioEspera() { return tempoMedioEspera; }
+    public MetricaReplicada getCaminhoesGrandesUsados() { return caminhoesGrandesUsados; }
+}
@@ -3,41 +3,94 @@ package simulacao;
 import caminhoes.CaminhaoPequeno;
 import caminhoes.CaminhaoGrande;
 import caminhoes.DistribuicaoCaminhoes;
+import caminhoes.EstadoCaminhaoPequeno;
+import caminhoes.FrotaCaminhoesPequenos;
 import estacoes.EstacaoTransferencia;
 import estacoes.ResultadoProcessamentoFila;
+import estruturas.ConjuntoIndices;
+import estruturas.IntLista;
 import estruturas.Lista;
+import zonas.MapaCidade;
 import zonas.ZonaUrbana;
 import zonas.ZonaEstatistica;
 
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
 // Gerencia a simulação de coleta e transporte de lixo
 public class Simulador {
-    private static int[][] intervalosLixo;
+    private final ContextoSimulacao contexto;
     private final DistribuicaoCaminhoes distribuicaoCaminhoes;
-    private static Lista<CaminhaoPequeno> caminhoesPequenos;
-    private static Lista<ZonaUrbana> zonas;
-    private static Lista<EstacaoTransferencia> estacoes;
+    private final FrotaCaminhoesPequenos caminhoesPequenos;
+    private final Lista<ZonaUrbana> zonas;
+    private final Lista<EstacaoTransferencia> estacoes;
+    // Estações mais próximas de cada zona: estacoesPorProximidade[banda * zonas + zona], com os tempos ao lado
+    private int[][] estacoesPorProximidade;
+    private double[][] temposEstacoesPorProximidade;
     // Lista de caminhões grandes em trânsito (viagem, descarregamento ou retorno)
-    private static Lista<CaminhaoGrande> caminhoesGrandesOcupados = new Lista<>();
-    private static Lista<CaminhaoGrande> todosCaminhoesGrandes = new Lista<>();
-    private static ZonaUrbana zonaAterro;
-    private static final Estatisticas estatisticas = new Estatisticas();
-    private static int caminhoesPorZona;
-    private static int tempoSimulado;
-    private static int toleranciaCaminhoesGrandes;
+    private final Lista<CaminhaoGrande> caminhoesGrandesOcupados;
+    private final Lista<CaminhaoGrande> todosCaminhoesGrandes;
+    private final Estatisticas estatisticas;
+    private final AgendaEventos agenda;
+    // Processamento das estações em paralelo (null: sequencial). Cada estação roda com o seu BufferEfeitos ativo
+    // e os buffers são aplicados em ordem de id, então o resultado é o mesmo da execução sequencial
+    private ForkJoinPool poolEstacoes;
+    private BufferEfeitos[] efeitosEstacoes;
+    // Saída da primeira parte do processamento de cada estação, indexada pelo id
+    private CaminhaoGrande[] grandesLiberados;
+    private ResultadoProcessamentoFila[] resultadosFila;
+    // Motor em shards para os caminhões pequenos (null: sequencial): índices dos caminhões de cada shard no minuto
+    // e a caixa de saída de cada um, com os efeitos sobre o que é compartilhado ou pertence a outro shard
+    private ForkJoinPool poolShards;
+    private IntLista[] caminhoesPorShard;
+    private BufferEfeitos[] caixasSaidaShards;
+    // Zonas com caminhão cheio parado na consulta atual do motor de eventos: zonasComCheioParado[zona] == marcaZonas
+    private int[] zonasComCheioParado;
+    private int marcaZonas;
     private static final int TEMPO_MINUTOS_POR_DIA = 24 * 60;
     private boolean rodando;
     private boolean pausado;
+    private boolean relatorioHorario;
+    private double ticksPorSegundo;
 
     public Simulador() {
-        caminhoesPequenos = new Lista<>();
-        zonas = new Lista<>();
-        estacoes = new Lista<>();
-        this.distribuicaoCaminhoes = new DistribuicaoCaminhoes();
-        caminhoesPorZona = 0;
-        tempoSimulado = 0;
-        toleranciaCaminhoesGrandes = 0;
+        this(new ContextoSimulacao());
+    }
+
+    public Simulador(ContextoSimulacao contexto) {
+        this.contexto = contexto;
+        this.caminhoesPequenos = contexto.getCaminhoesPequenos();
+        this.zonas = contexto.getZonas();
+        this.estacoes = contexto.getEstacoes();
+        this.caminhoesGrandesOcupados = contexto.getCaminhoesGrandesOcupados();
+        this.todosCaminhoesGrandes = contexto.getCaminhoesGrandes();
+        this.estatisticas = contexto.getEstatisticas();
+        this.agenda = contexto.getAgenda();
+        this.distribuicaoCaminhoes = contexto.getDistribuicao();
         this.rodando = false;
         this.pausado = false;
+        this.relatorioHorario = true;
+        this.ticksPorSegundo = 0;
+    }
+
+    // Monta a simulação (zonas, frota, estações e aterro) a partir de uma configuração completa
+    public void configurar(ConfiguracaoSimulacao configuracao) {
+        distribuicaoCaminhoes.setModoDistribuicao(configuracao.getModoDistribuicao());
+        inicializarZonas(configuracao.getMapa(), configuracao.getIntervalosLixo());
+        gerarLixoZonas();
+        inicializarCaminhoes(configuracao.getQtd2t(), configuracao.getQtd4t(), configuracao.getQtd8t(),
+                configuracao.getQtd10t(), configuracao.getLimiteViagens());
+        int[] zonasEstacoes = configuracao.getZonasEstacoes();
+        ZonaUrbana[] zonasDasEstacoes = new ZonaUrbana[zonasEstacoes.length];
+        for (int i = 0; i < zonasEstacoes.length; i++) {
+            zonasDasEstacoes[i] = zonas.obter(zonasEstacoes[i]);
+        }
+        inicializarEstacoes(configuracao.getTempoMaxEspera(), zonasDasEstacoes);
+        inicializarAterro(zonas.obter(configuracao.getZonaAterro()));
+        configurarSimuladorParams(configuracao.getTolerancia());
     }
 
     // Inicia a simulação em uma nova thread
@@ -81,6 +134,7 @@ public class Simulador {
 
     // Executa o loop principal da simulação
     private void executarSimulacao() {
+        LoggerSimulacao.vincularContexto(contexto);
         while (rodando) {
             if (!pausado) {
                 atualizarSimulacao();
@@ -93,9 +147,160 @@ public class Simulador {
         }
     }
 
+    // Executa a simulação sem pausas (modo rápido) por mais N minutos simulados e devolve as estatísticas finais
+    public Estatisticas executarModoRapido(int minutos) {
+        if (rodando) {
+            LoggerSimulacao.log("ERRO", "Simulação já está rodando!");
+            return estatisticas;
+        }
+        rodando = true;
+        relatorioHorario = false; // Relatório horário só atrasaria a execução; o relatório final é impresso no fim
+        ContextoSimulacao contextoAnterior = LoggerSimulacao.vincularContexto(contexto);
+        int tempoInicial = contexto.getTempoSimulado();
+        int tempoAlvo = tempoInicial + minutos;
+        int passos = 0;
+        long inicio = System.nanoTime();
+        while (contexto.getTempoSimulado() < tempoAlvo) {
+            avancarParaProximoEvento(tempoAlvo);
+            passos++;
+        }
+        long duracao = System.nanoTime() - inicio;
+        rodando = false;
+        relatorioHorario = true;
+        int ticks = contexto.getTempoSimulado() - tempoInicial;
+        double segundos = duracao / 1_000_000_000.0;
+        ticksPorSegundo = segundos > 0 ? ticks / segundos : 0;
+        estatisticas.setTempoSimulado(contexto.getTempoSimulado());
+        LoggerSimulacao.log("ESTATISTICA", "Modo rápido: %d minutos simulados (%d com eventos) em %.3fs (%.0f ticks/s)",
+                ticks, passos, segundos, ticksPorSegundo);
+        LoggerSimulacao.vincularContexto(contextoAnterior);
+        return estatisticas;
+    }
+
+    // Executa exatamente um minuto simulado, sem o motor de eventos (usado pelos benchmarks do tick completo)
+    public void avancarMinuto() {
+        atualizarSimulacao();
+    }
+
+    // Motor de eventos: pula direto ao próximo minuto em que algo muda, avançando em bloco os minutos ociosos,
+    // e então executa esse minuto normalmente com atualizarSimulacao
+    private void avancarParaProximoEvento(int tempoAlvo) {
+        int proximo = Math.min(calcularProximoEvento(), tempoAlvo);
+        int minutosOciosos = proximo - contexto.getTempoSimulado() - 1;
+        if (minutosOciosos > 0) {
+            avancarMinutosOciosos(minutosOciosos);
+        }
+        atualizarSimulacao();
+    }
+
+    // Próximo minuto em que atualizarSimulacao pode mudar o estado do sistema. A frota mantém os caminhões que
+    // agem no minuto seguinte em conjuntos próprios, então a decisão não percorre a frota ativa: só os caminhões
+    // parados numa zona (em geral poucos) e, se algum deles está cheio, os que coletam
+    private int calcularProximoEvento() {
+        int tempoSimulado = contexto.getTempoSimulado();
+        int proximo = tempoSimulado + 1;
+        // Situações resolvidas já no minuto seguinte impedem o salto: caminhão a encerrar ou chegando
+        if (!caminhoesPequenos.getIndicesNoLimiteViagens().estaVazio()
+                || !caminhoesPequenos.getIndicesComViagemConcluida().estaVazio()) {
+            return proximo;
+        }
+        ConjuntoIndices parados = caminhoesPequenos.getIndicesComColetaParada();
+        boolean temCheioParado = false;
+        for (int i = parados.proximo(0); i >= 0; i = parados.proximo(i + 1)) {
+            CaminhaoPequeno caminhao = caminhoesPequenos.obter(i);
+            ZonaUrbana zona = caminhao.getZonaAtual();
+            if (zona == null) {
+                continue;
+            }
+            if (!caminhao.estaCheio() || zona.getLixoAcumulado() == 0) {
+                return proximo; // Vai tentar uma nova coleta ou ficar disponível
+            }
+            // Cheio e parado na zona: fica disponível assim que o lixo da zona acabar
+            if (!temCheioParado) {
+                iniciarMarcacaoZonas();
+                temCheioParado = true;
+            }
+            zonasComCheioParado[zona.getId()] = marcaZonas;
+        }
+        // O lixo de uma zona com caminhão parado pode acabar a qualquer minuto enquanto outro caminhão coleta nela
+        if (temCheioParado) {
+            ConjuntoIndices coletando = caminhoesPequenos.getIndicesNoEstado(EstadoCaminhaoPequeno.COLETANDO);
+            for (int i = coletando.proximo(0); i >= 0; i = coletando.proximo(i + 1)) {
+                CaminhaoPequeno caminhao = caminhoesPequenos.obter(i);
+                if (caminhao.getTempoColetaRestante() > 0 && caminhao.getZonaAtual() != null
+                        && zonasComCheioParado[caminhao.getZonaAtual().getId()] == marcaZonas) {
+                    return proximo;
+                }
+            }
+        }
+        int proximaLiberacao = Integer.MAX_VALUE;
+        for (EstacaoTransferencia estacao : estacoes) {
+            if (!estacao.getFilaPequenos().estaVazia()) {
+                return proximo; // Fila é processada a cada minuto
+            }
+            proximaLiberacao = Math.min(proximaLiberacao, estacao.minutosAteProximaLiberacao());
+        }
+        // Sistema em repouso: o próximo evento é o mais cedo entre a agenda e os marcos periódicos
+        int evento = agenda.proximoTempo();
+        if (proximaLiberacao != Integer.MAX_VALUE) {
+            evento = Math.min(evento, tempoSimulado + proximaLiberacao);
+        }
+        evento = Math.min(evento, proximoMultiplo(TEMPO_MINUTOS_POR_DIA));
+        if (caminhoesPequenos.contar(EstadoCaminhaoPequeno.DISPONIVEL) > 0) {
+            evento = Math.min(evento, proximoMultiplo(10)); // Redistribuição
+        }
+        if (relatorioHorario) {
+            evento = Math.min(evento, proximoMultiplo(60));
+        }
+        ExportadorMetricas exportador = contexto.getExportadorMetricas();
+        if (exportador != null) {
+            evento = Math.min(evento, proximoMultiplo(exportador.getIntervalo()));
+        }
+        return Math.max(evento, proximo);
+    }
+
+    // Cada consulta que marca zonas usa um valor de marca novo, então o vetor só é limpo quando o contador dá a volta
+    private void iniciarMarcacaoZonas() {
+        if (zonasComCheioParado == null || zonasComCheioParado.length < zonas.getTamanho()) {
+            zonasComCheioParado = new int[zonas.getTamanho()];
+            marcaZonas = 0;
+        }
+        if (++marcaZonas == Integer.MAX_VALUE) {
+            Arrays.fill(zonasComCheioParado, 0);
+            marcaZonas = 1;
+        }
+    }
+
+    private int proximoMultiplo(int intervalo) {
+        return (contexto.getTempoSimulado() / intervalo + 1) * intervalo;
+    }
+
+    // Avança em bloco minutos sem eventos: só contadores de viagem, coleta, descarregamento e espera mudam
+    private void avancarMinutosOciosos(int minutos) {
+        ConjuntoIndices emTransito = caminhoesPequenos.getIndicesNoEstado(EstadoCaminhaoPequeno.EM_TRANSITO);
+        for (int i = emTransito.proximo(0); i >= 0; i = emTransito.proximo(i + 1)) {
+            caminhoesPequenos.obter(i).avancarViagem(minutos);
+        }
+        ConjuntoIndices coletando = caminhoesPequenos.getIndicesNoEstado(EstadoCaminhaoPequeno.COLETANDO);
+        for (int i = coletando.proximo(0); i >= 0; i = coletando.proximo(i + 1)) {
+            CaminhaoPequeno caminhao = caminhoesPequenos.obter(i);
+            if (caminhao.getZonaAtual() != null && caminhao.getTempoColetaRestante() > 0) {
+                caminhao.avancarColeta(minutos);
+            }
+        }
+        for (int i = 0; i < estacoes.getTamanho(); i++) {
+            estacoes.obter(i).avancarMinutosOciosos(minutos);
+        }
+        for (int i = 0; i < caminhoesGrandesOcupados.getTamanho(); i++) {
+            caminhoesGrandesOcupados.obter(i).avancarTempo(minutos);
+        }
+        contexto.avancarTempo(minutos);
+    }
+
     // Atualiza o estado da simulação, gerenciando coletas, transferências e avanço do dia
     private void atualizarSimulacao() {
-        tempoSimulado++;
+        contexto.avancarTempo(1);
+        int tempoSimulado = contexto.getTempoSimulado();
         // Reinicia no fim do dia
         if (tempoSimulado % TEMPO_MINUTOS_POR_DIA == 0 && tempoSimulado != 1) {
             concluirDia();
@@ -108,10 +313,16 @@ public class Simulador {
         processarEstacoes();
         processarCaminhoesGrandesOcupados();
         // Imprime relatório a cada hora
-        if (tempoSimulado % 60 == 0) {
+        if (relatorioHorario && tempoSimulado % 60 == 0) {
             estatisticas.setTempoSimulado(tempoSimulado);
             estatisticas.imprimirRelatorio();
         }
+        // Amostra das métricas no fim do minuto, depois de todo o processamento
+        ExportadorMetricas exportador = contexto.getExportadorMetricas();
+        if (exportador != null && exportador.deveAmostrar(tempoSimulado)) {
+            exportador.amostrar(contexto);
+        }
+        agenda.descartarAte(tempoSimulado);
     }
 
     // Chama os métodos necessários para começar um novo dia da simulação (geração de lixo e reinicio dos caminhões pequenos)
@@ -127,14 +338,10 @@ public class Simulador {
                 return true;
             }
         }
-        for (int i = 0; i < caminhoesPequenos.getTamanho(); i++) {
-            CaminhaoPequeno caminhao = caminhoesPequenos.obter(i);
-            if (caminhao.getCargaAtual() > 0 || caminhao.getEstado() == 3) {
-                return true;
-            }
+        if (caminhoesPequenos.getCaminhoesComCarga() > 0 || caminhoesPequenos.contar(EstadoCaminhaoPequeno.EM_TRANSITO) > 0) {
+            return true;
         }
-        for (int i = 0; i < estacoes.getTamanho(); i++) {
-            EstacaoTransferencia estacao = estacoes.obter(i);
+        for (EstacaoTransferencia estacao : estacoes) {
             if (!estacao.getFilaPequenos().estaVazia()) {
                 return true;
             }
@@ -144,24 +351,23 @@ public class Simulador {
 
     // Reativa caminhões pequenos que atingiram o limite de viagens
     private void reiniciarCaminhoesPequenos() {
-        for (int i = 0; i < caminhoesPequenos.getTamanho(); i++) {
-            CaminhaoPequeno caminhao = caminhoesPequenos.obter(i);
-            caminhao.viagensFeitas = 0;
-            if (caminhao.getEstado() == 6) { // ENCERRADO
-                caminhao.setEstado(1); // DISPONÍVEL
-                LoggerSimulacao.log("INFO", String.format("Caminhão %s teve suas viagens diárias resetadas e está reativado para novo dia.", caminhao.getPlaca()));
+        for (CaminhaoPequeno caminhao : caminhoesPequenos) {
+            caminhao.reiniciarViagens();
+            if (caminhao.getEstado() == EstadoCaminhaoPequeno.ENCERRADO) {
+                caminhao.setEstado(EstadoCaminhaoPequeno.DISPONIVEL);
+                LoggerSimulacao.log("INFO", "Caminhão %s teve suas viagens diárias resetadas e está reativado para novo dia.", caminhao.getPlaca());
             }
             else {
-                LoggerSimulacao.log("INFO", String.format("Caminhão %s teve suas viagens diárias resetadas.", caminhao.getPlaca()));
+                LoggerSimulacao.log("INFO", "Caminhão %s teve suas viagens diárias resetadas.", caminhao.getPlaca());
             }
         }
     }
 
-    protected static void gerarLixoZonas() {
-        for (int i = 0; i < zonas.getTamanho(); i++) {
-            ZonaUrbana zona = zonas.obter(i);
+    protected void gerarLixoZonas() {
+        for (ZonaUrbana zona : zonas) {
             int gerado = zona.gerarLixo();
-            estatisticas.registrarGeracaoLixo(zona.getNome(), gerado);
+            estatisticas.registrarGeracaoLixo(zona, gerado);
+            contexto.registrarEvento(RegistroEventosBinario.Tipo.GERACAO_LIXO, -1, zona.getId(), gerado, 0);
         }
     }
 
@@ -169,55 +375,168 @@ public class Simulador {
         if (!zonas.estaVazia()) {
             int distribuidos = distribuicaoCaminhoes.distribuirCaminhoes(caminhoesPequenos, zonas);
             if (distribuidos > 0) {
-                LoggerSimulacao.log("INFO", distribuidos + " caminhão(ões) distribuído(s).");
+                LoggerSimulacao.log("INFO", "%d caminhão(ões) distribuído(s).", distribuidos);
             }
             // No modo DEBUG, loga mesmo se nenhum caminhão for distribuído
-            if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog() && distribuidos == 0) {
-                LoggerSimulacao.log("INFO", "Nenhum caminhão distribuído.");
+            if (distribuidos == 0) {
+                LoggerSimulacao.debug("INFO", "Nenhum caminhão distribuído.");
             }
         }
     }
 
     // Processa ações dos caminhões pequenos (coleta, trânsito)
     private void processarCaminhoesPequenos() {
+        if (poolShards != null) {
+            processarCaminhoesPequenosEmShards();
+            return;
+        }
         // Inicializa estatísticas temporárias para cada zona
-        for (int i = 0; i < zonas.getTamanho(); i++) {
-            ZonaEstatistica estatistica = estatisticas.buscarZonaEstatistica(zonas.obter(i).getNome());
-            if (estatistica != null) {
-                estatistica.resetarEstatisticasTemporarias();
-            }
+        for (ZonaUrbana zona : zonas) {
+            resetarEstatisticasTemporarias(zona);
         }
         processarColetas();
-        if (tempoSimulado % 60 == 0) {
+        if (contexto.getTempoSimulado() % 60 == 0) {
             logTentativasSemColeta();
         }
-        // Procura por caminhões em zonas com 0 lixo ou que terminaram a coleta
-        for (int i = 0; i < caminhoesPequenos.getTamanho(); i++) {
-            CaminhaoPequeno caminhao = caminhoesPequenos.obter(i);
-            caminhao.isLimiteAtingido(caminhao.getViagensFeitas());
-            if (caminhao.getEstado() == 6) { // ENCERRADO
-                continue; // Pula caminhões encerrados
-            }
-            if (caminhao.getEstado() == 2 && caminhao.getZonaAtual() != null) {
-                if (caminhao.getZonaAtual().getLixoAcumulado() == 0 && caminhao.getTempoColetaRestante() == 0) {
-                    // Sem lixo na zona e sem coleta em andamento
-                    caminhao.setEstado(1); // DISPONÍVEL
+        // Procura por caminhões em zonas com 0 lixo ou que terminaram a coleta. Só os que estão coletando ou
+        // chegaram ao limite de viagens têm o que fazer; no modo DEBUG todos passam, pelo log de limite atingido
+        if (LoggerSimulacao.estaAtivoDebug()) {
+            for (CaminhaoPequeno caminhao : caminhoesPequenos) {
+                verificarFimColeta(caminhao);
+            }
+        } else {
+            ConjuntoIndices coletando = caminhoesPequenos.getIndicesNoEstado(EstadoCaminhaoPequeno.COLETANDO);
+            ConjuntoIndices noLimite = caminhoesPequenos.getIndicesNoLimiteViagens();
+            for (int i = ConjuntoIndices.proximoEmQualquer(coletando, noLimite, 0); i >= 0;
+                 i = ConjuntoIndices.proximoEmQualquer(coletando, noLimite, i + 1)) {
+                verificarFimColeta(caminhoesPequenos.obter(i));
+            }
+        }
+        processarCaminhoesEmTransito();
+    }
+
+    private void resetarEstatisticasTemporarias(ZonaUrbana zona) {
+        ZonaEstatistica estatistica = estatisticas.buscarZonaEstatistica(zona);
+        if (estatistica != null) {
+            estatistica.resetarEstatisticasTemporarias();
+        }
+    }
+
+    // Caminhão em zona com 0 lixo ou que terminou a coleta: fica disponível ou tenta coletar de novo
+    private void verificarFimColeta(CaminhaoPequeno caminhao) {
+        caminhao.isLimiteAtingido(caminhao.getViagensFeitas());
+        if (caminhao.getEstado() == EstadoCaminhaoPequeno.ENCERRADO) {
+            return; // Pula caminhões encerrados
+        }
+        if (caminhao.getEstado() == EstadoCaminhaoPequeno.COLETANDO && caminhao.getZonaAtual() != null) {
+            if (caminhao.getZonaAtual().getLixoAcumulado() == 0 && caminhao.getTempoColetaRestante() == 0) {
+                // Sem lixo na zona e sem coleta em andamento
+                caminhao.setEstado(EstadoCaminhaoPequeno.DISPONIVEL);
+                caminhao.getZonaAtual().decrementarCaminhoesAtivos();
+                LoggerSimulacao.log("INFO", "Caminhão %s em %s (sem lixo ou coleta concluída) agora disponível para redistribuição.",
+                        caminhao.getPlaca(), caminhao.getZonaAtual().getNome());
+            } else if (caminhao.getTempoColetaRestante() == 0 && !caminhao.estaCheio()) {
+                // Coleta concluída, mas caminhão não está cheio
+                int lixoColetado = caminhao.coletar(caminhao.getZonaAtual().getLixoAcumulado());
+                if (lixoColetado == 0 && caminhao.getCargaAtual() == 0) {
+                    caminhao.setEstado(EstadoCaminhaoPequeno.DISPONIVEL);
                     caminhao.getZonaAtual().decrementarCaminhoesAtivos();
-                    LoggerSimulacao.log("INFO", String.format("Caminhão %s em %s (sem lixo ou coleta concluída) agora disponível para redistribuição.",
-                            caminhao.getPlaca(), caminhao.getZonaAtual().getNome()));
-                } else if (caminhao.getTempoColetaRestante() == 0 && !caminhao.estaCheio()) {
-                    // Coleta concluída, mas caminhão não está cheio
-                    int lixoColetado = caminhao.coletar(caminhao.getZonaAtual().getLixoAcumulado());
-                    if (lixoColetado == 0 && caminhao.getCargaAtual() == 0) {
-                        caminhao.setEstado(1); // DISPONÍVEL
-                        caminhao.getZonaAtual().decrementarCaminhoesAtivos();
-                        LoggerSimulacao.log("INFO", String.format("Caminhão %s em %s não coletou (sem lixo suficiente) e agora está disponível para redistribuição.",
-                                caminhao.getPlaca(), caminhao.getZonaAtual().getNome()));
-                    }
+                    LoggerSimulacao.log("INFO", "Caminhão %s em %s não coletou (sem lixo suficiente) e agora está disponível para redistribuição.",
+                            caminhao.getPlaca(), caminhao.getZonaAtual().getNome());
                 }
             }
         }
-        processarCaminhoesEmTransito();
+    }
+
+    // Motor em shards: as zonas são divididas entre as threads (zona id % shards) junto com os caminhões que estão
+    // nelas. Cada fase roda em todos os shards e termina numa barreira (a espera por todas as tarefas); só então os
+    // efeitos guardados nas caixas de saída dos shards são aplicados, na ordem dos caminhões. Cada zona só é
+    // alterada pelo shard dono dela, então coletarLixo e os contadores de caminhões dispensam trava: o que atinge
+    // outra zona ou uma estação (chegadas) também passa pela caixa de saída
+    private void processarCaminhoesPequenosEmShards() {
+        distribuirCaminhoesEntreShards();
+        // Tabela de tempos, banda do minuto e estações por proximidade montadas aqui: nos shards elas só são lidas
+        if (!zonas.estaVazia()) {
+            distribuicaoCaminhoes.prepararLeituraConcorrente(zonas.obter(0).getMapa());
+        }
+        if (!estacoes.estaVazia()) {
+            montarEstacoesPorProximidade();
+        }
+        executarFaseEmShards(shard -> {
+            for (int z = shard; z < zonas.getTamanho(); z += caminhoesPorShard.length) {
+                resetarEstatisticasTemporarias(zonas.obter(z));
+            }
+            IntLista indices = caminhoesPorShard[shard];
+            for (int k = 0; k < indices.getTamanho(); k++) {
+                caixasSaidaShards[shard].setOrdem(indices.obter(k));
+                processarColeta(caminhoesPequenos.obter(indices.obter(k)));
+            }
+        });
+        if (contexto.getTempoSimulado() % 60 == 0) {
+            logTentativasSemColeta();
+        }
+        executarFaseEmShards(shard -> {
+            IntLista indices = caminhoesPorShard[shard];
+            for (int k = 0; k < indices.getTamanho(); k++) {
+                caixasSaidaShards[shard].setOrdem(indices.obter(k));
+                verificarFimColeta(caminhoesPequenos.obter(indices.obter(k)));
+            }
+        });
+        executarFaseEmShards(shard -> {
+            IntLista indices = caminhoesPorShard[shard];
+            for (int k = 0; k < indices.getTamanho(); k++) {
+                caixasSaidaShards[shard].setOrdem(indices.obter(k));
+                processarChegada(caminhoesPequenos.obter(indices.obter(k)));
+            }
+        });
+    }
+
+    // Cada caminhão vai para o shard da zona em que está (caminhões sem zona ficam no shard 0). A zona atual só
+    // muda na chegada, a última fase do minuto, então a divisão vale para todas as fases. Só entram os caminhões
+    // que alguma fase pode alterar: coletando, em trânsito ou no limite de viagens (todos, no modo DEBUG). Quem
+    // fica em trânsito ou no limite durante o minuto estava coletando no começo dele
+    private void distribuirCaminhoesEntreShards() {
+        int shards = poolShards.getParallelism();
+        if (caminhoesPorShard == null || caminhoesPorShard.length != shards) {
+            caminhoesPorShard = new IntLista[shards];
+            caixasSaidaShards = new BufferEfeitos[shards];
+            for (int s = 0; s < shards; s++) {
+                caminhoesPorShard[s] = new IntLista();
+                caixasSaidaShards[s] = new BufferEfeitos();
+            }
+        }
+        for (IntLista indices : caminhoesPorShard) {
+            indices.limpar();
+        }
+        boolean todos = LoggerSimulacao.estaAtivoDebug();
+        for (int i = todos ? 0 : proximoAlteravel(0); i >= 0 && i < caminhoesPequenos.getTamanho();
+             i = todos ? i + 1 : proximoAlteravel(i + 1)) {
+            ZonaUrbana zona = caminhoesPequenos.obter(i).getZonaAtual();
+            caminhoesPorShard[zona == null ? 0 : zona.getId() % shards].adicionar(i);
+        }
+    }
+
+    // Menor índice a partir de desde de um caminhão coletando, em trânsito ou no limite de viagens, ou -1
+    private int proximoAlteravel(int desde) {
+        int proximo = ConjuntoIndices.proximoEmQualquer(caminhoesPequenos.getIndicesNoEstado(EstadoCaminhaoPequeno.COLETANDO),
+                caminhoesPequenos.getIndicesNoEstado(EstadoCaminhaoPequeno.EM_TRANSITO), desde);
+        int proximoNoLimite = caminhoesPequenos.getIndicesNoLimiteViagens().proximo(desde);
+        if (proximo < 0 || (proximoNoLimite >= 0 && proximoNoLimite < proximo)) {
+            return proximoNoLimite;
+        }
+        return proximo;
+    }
+
+    // Uma fase em todos os shards, cada um com a sua caixa de saída ativa; a volta de todas as tarefas é a barreira
+    private void executarFaseEmShards(IntConsumer fase) {
+        int shards = caminhoesPorShard.length;
+        Future<?>[] futuros = new Future<?>[shards];
+        for (int s = 0; s < shards; s++) {
+            int shard = s;
+            futuros[s] = poolShards.submit(() -> executarIsolado(caixasSaidaShards[shard], () -> fase.accept(shard)));
+        }
+        aguardar(futuros, "Falha em um shard de zonas: ");
+        BufferEfeitos.aplicarEmOrdem(caixasSaidaShards);
     }
 
     // Processa caminhões grandes em trânsito
@@ -228,28 +547,32 @@ public class Simulador {
             if (caminhao.atualizarEstado()) {
                 // Caminhão retornou à estação, remove da lista de ocupados
                 caminhoesGrandesOcupados.remover(i);
-                LoggerSimulacao.log("CHEGADA", String.format("Caminhão grande %s retornou à %s e está disponível novamente",
-                        caminhao.getPlaca(), caminhao.getEstacaoOrigem().getNome()));
+                contexto.registrarEvento(RegistroEventosBinario.Tipo.RETORNO_ESTACAO, caminhao.getNumero(), caminhao.getEstacaoOrigem().getId(), 0, 0);
+                LoggerSimulacao.log("CHEGADA", "Caminhão grande %s retornou à %s e está disponível novamente",
+                        caminhao.getPlaca(), caminhao.getEstacaoOrigem().getNome());
             }
         }
     }
 
-    // Inicializa as zonas com intervalos de lixo configuráveis
-    public static void inicializarZonas(int[][] intervalos) {
-        intervalosLixo = intervalos;
+    // Inicializa uma zona por zona do mapa, com intervalos de lixo configuráveis
+    public void inicializarZonas(MapaCidade mapa, int[][] intervalos) {
+        contexto.setIntervalosLixo(intervalos);
         zonas.limpar();
-        for (int i = 0; i < 5; i++) {
-            ZonaUrbana zona = new ZonaUrbana(i, intervalosLixo[i][0], intervalosLixo[i][1]);
+        for (int i = 0; i < mapa.getQuantidadeZonas(); i++) {
+            ZonaUrbana zona = new ZonaUrbana(mapa, i, intervalos[i][0], intervalos[i][1], contexto.novoFluxoAleatorio());
             zonas.adicionar(zona);
-            LoggerSimulacao.log("CONFIG", String.format("Zona %s inicializada com intervalo de lixo [%d, %d]kg.", zona.getNome(), intervalosLixo[i][0], intervalosLixo[i][1]));
+            contexto.cadastrarEntidade(RegistroEventosBinario.Tipo.CADASTRO_ZONA, zona.getId(), zona.getNome());
+            LoggerSimulacao.log("CONFIG", "Zona %s inicializada com intervalo de lixo [%d, %d]kg.", zona.getNome(), intervalos[i][0], intervalos[i][1]);
         }
     }
 
     // Inicializa caminhões pequenos com capacidades e zonas iniciais
-    protected static void inicializarCaminhoes(int qtd2t, int qtd4t, int qtd8t, int qtd10t, int limiteViagens) {
+    protected void inicializarCaminhoes(int qtd2t, int qtd4t, int qtd8t, int qtd10t, int limiteViagens) {
         int totalCaminhoes = qtd2t + qtd4t + qtd8t + qtd10t;
-        int TOTAL_ZONAS = 5;
-        caminhoesPorZona = totalCaminhoes / TOTAL_ZONAS;
+        int TOTAL_ZONAS = zonas.getTamanho();
+        int caminhoesPorZona = totalCaminhoes / TOTAL_ZONAS;
+        contexto.setCaminhoesPorZona(caminhoesPorZona);
+        distribuicaoCaminhoes.configurarLimiteCaminhoesPorZona(caminhoesPorZona);
         int extras = totalCaminhoes % TOTAL_ZONAS;
 
         int[] quantidades = {qtd2t, qtd4t, qtd8t, qtd10t};
@@ -263,16 +586,14 @@ public class Simulador {
                 // Escolher tipo de caminhão
                 for (int k = 0; k < quantidades.length; k++) {
                     if (quantidades[k] > 0) {
-                        CaminhaoPequeno caminhao = new CaminhaoPequeno(k + 1, limiteViagens, zonaInicial);
-                        caminhao.setEstado(2); // COLETANDO
+                        CaminhaoPequeno caminhao = new CaminhaoPequeno(contexto, k + 1, limiteViagens, zonaInicial);
+                        caminhao.setEstado(EstadoCaminhaoPequeno.COLETANDO);
                         caminhoesPequenos.adicionar(caminhao);
                         zonaInicial.incrementarCaminhoesAtivos(); // Incrementa caminhões ativos na zona
                         quantidades[k]--;
                         caminhaoIdx++;
-                        if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog()) {
-                            LoggerSimulacao.log("INFO", String.format("Caminhão %s inicializado em %s, estado COLETANDO.",
-                                    caminhao.getPlaca(), zonaInicial.getNome()));
-                        }
+                        LoggerSimulacao.debug("INFO", "Caminhão %s inicializado em %s, estado COLETANDO.",
+                                caminhao.getPlaca(), zonaInicial.getNome());
                         break;
                     }
                 }
@@ -280,57 +601,62 @@ public class Simulador {
         }
     }
 
-    protected static void inicializarEstacoes(int tempoMaxEspera, ZonaUrbana zonaEstacaoA, ZonaUrbana zonaEstacaoB) {
-        estacoes.adicionar(new EstacaoTransferencia("Estação A", tempoMaxEspera, zonaEstacaoA));
-        estacoes.adicionar(new EstacaoTransferencia("Estação B", tempoMaxEspera, zonaEstacaoB));
+    // Uma estação por zona informada, com id na ordem da lista (Estação A, B, C...)
+    protected void inicializarEstacoes(int tempoMaxEspera, ZonaUrbana[] zonasDasEstacoes) {
+        for (int i = 0; i < zonasDasEstacoes.length; i++) {
+            estacoes.adicionar(new EstacaoTransferencia(contexto, estacoes.getTamanho(), EstacaoTransferencia.nomePadrao(estacoes.getTamanho()),
+                    tempoMaxEspera, zonasDasEstacoes[i]));
+        }
+        estacoesPorProximidade = null;
     }
 
-    public static void inicializarAterro(ZonaUrbana zona) {
-        zonaAterro = zona;
+    public void inicializarAterro(ZonaUrbana zona) {
+        contexto.setZonaAterro(zona);
     }
 
     // Processa coletas de lixo pelos caminhões pequenos
+    // Só os caminhões coletando, em ordem de índice; quem sai do estado no caminho não atrapalha o percurso
     private void processarColetas() {
-        for (int i = 0; i < caminhoesPequenos.getTamanho(); i++) {
-            CaminhaoPequeno caminhao = caminhoesPequenos.obter(i);
-            if (caminhao.getEstado() != 2 || caminhao.getZonaAtual() == null) {
-                continue;
-            }
-            // Processa tempo de coleta em andamento
-            if (caminhao.getTempoColetaRestante() > 0) {
-                if (caminhao.processarColeta()) {
-                    // Coleta concluída, verifica se está cheio
-                    if (caminhao.estaCheio()) {
-                        enviarCaminhaoParaEstacao(caminhao);
-                    }
+        ConjuntoIndices coletando = caminhoesPequenos.getIndicesNoEstado(EstadoCaminhaoPequeno.COLETANDO);
+        for (int i = coletando.proximo(0); i >= 0; i = coletando.proximo(i + 1)) {
+            processarColeta(caminhoesPequenos.obter(i));
+        }
+    }
+
+    private void processarColeta(CaminhaoPequeno caminhao) {
+        if (caminhao.getEstado() != EstadoCaminhaoPequeno.COLETANDO || caminhao.getZonaAtual() == null) {
+            return;
+        }
+        // Processa tempo de coleta em andamento
+        if (caminhao.getTempoColetaRestante() > 0) {
+            if (caminhao.processarColeta()) {
+                // Coleta concluída, verifica se está cheio
+                if (caminhao.estaCheio()) {
+                    enviarCaminhaoParaEstacao(caminhao);
                 }
-                continue;
-            }
-            // Tenta nova coleta se não está cheio
-            if (!caminhao.estaCheio()) {
-                processarColetaCaminhao(caminhao);
             }
+            return;
+        }
+        // Tenta nova coleta se não está cheio
+        if (!caminhao.estaCheio()) {
+            processarColetaCaminhao(caminhao);
         }
     }
 
     // Processa a coleta de um caminhão em uma zona
     private void processarColetaCaminhao(CaminhaoPequeno caminhao) {
-        for (int j = 0; j < zonas.getTamanho(); j++) {
-            if (zonas.obter(j) == caminhao.getZonaAtual()) {
-                ZonaEstatistica stats = estatisticas.buscarZonaEstatistica(zonas.obter(j).getNome());
-                if (stats != null) {
-                    stats.incrementarCaminhoes(caminhao.getCapacidade());
-                    // Calcula lixo disponível proporcional à capacidade
-                    int lixoDisponivel = stats.getCaminhoes() > 0 && stats.getCapacidadeTotal() > 0 ?
-                            (int) ((double) caminhao.getCapacidade() / stats.getCapacidadeTotal() * zonas.obter(j).getLixoAcumulado()) : 0;
-                    int coletado = caminhao.coletar(lixoDisponivel);
-                    if (coletado <= 0) {
-                        stats.registrarTentativaSemColeta();
-                    }
-                    stats.adicionarColeta(coletado);
-                }
-                break;
+        ZonaUrbana zona = caminhao.getZonaAtual();
+        ZonaEstatistica stats = estatisticas.buscarZonaEstatistica(zona);
+        if (stats != null) {
+            stats.incrementarCaminhoes(caminhao.getCapacidade());
+            // Calcula lixo disponível proporcional à capacidade
+            int lixoDisponivel = stats.getCaminhoes() > 0 && stats.getCapacidadeTotal() > 0 ?
+                    (int) ((double) caminhao.getCapacidade() / stats.getCapacidadeTotal() * zona.getLixoAcumulado()) : 0;
+            int coletado = caminhao.coletar(lixoDisponivel);
+            if (coletado <= 0) {
+                stats.registrarTentativaSemColeta();
             }
+            stats.adicionarColeta(coletado);
         }
     }
 
@@ -338,66 +664,87 @@ public class Simulador {
         if (caminhao.estaCheio() && caminhao.getCargaAtual() > 0) {
             EstacaoTransferencia estacao = escolherEstacao(caminhao);
             if (estacao != null) {
-                int tempoViagem = DistribuicaoCaminhoes.calcularTempoViagem(caminhao.getZonaAtual(), estacao.getZonaDaEstacao());
+                int tempoViagem = distribuicaoCaminhoes.calcularTempoViagem(caminhao.getZonaAtual(), estacao.getZonaDaEstacao(), caminhao.getAleatorio());
                 caminhao.definirTempoViagem(tempoViagem);
-                caminhao.setEstado(3); // EM_TRÂNSITO
+                caminhao.setEstado(EstadoCaminhaoPequeno.EM_TRANSITO);
                 caminhao.getZonaAtual().decrementarCaminhoesAtivos();
                 caminhao.setZonaDestino(null);
                 caminhao.setEstacaoDestino(estacao);
-                caminhao.viagensFeitas++;
-                LoggerSimulacao.log("VIAGEM", String.format("Caminhão %s cheio, indo para %s (viagem: %dmin, carga: %dkg)",
-                        caminhao.getPlaca(), estacao.getNome(), tempoViagem, caminhao.getCargaAtual()));
+                caminhao.registrarViagem();
+                estatisticas.registrarViagemPequeno(tempoViagem);
+                contexto.registrarEvento(RegistroEventosBinario.Tipo.PARTIDA_ESTACAO, caminhao.getNumero(), estacao.getId(), caminhao.getCargaAtual(), tempoViagem);
+                LoggerSimulacao.log("VIAGEM", "Caminhão %s cheio, indo para %s (viagem: %dmin, carga: %dkg)",
+                        caminhao.getPlaca(), estacao.getNome(), tempoViagem, caminhao.getCargaAtual());
             }
         } else {
             // Se o caminhão tem 0 carga, torne-o disponível
-            caminhao.setEstado(1); // DISPONÍVEL
-            LoggerSimulacao.log("INFO", String.format("Caminhão %s não enviado à estação (carga: %dkg), agora disponível",
-                    caminhao.getPlaca(), caminhao.getCargaAtual()));
+            caminhao.setEstado(EstadoCaminhaoPequeno.DISPONIVEL);
+            LoggerSimulacao.log("INFO", "Caminhão %s não enviado à estação (carga: %dkg), agora disponível",
+                    caminhao.getPlaca(), caminhao.getCargaAtual());
         }
     }
 
     // Processa caminhões em trânsito para zonas ou estações
     private void processarCaminhoesEmTransito() {
-        for (int i = 0; i < caminhoesPequenos.getTamanho(); i++) {
-            CaminhaoPequeno caminhao = caminhoesPequenos.obter(i);
-            if (caminhao.getEstado() == 3 && caminhao.processarViagem()) {
-                // Verificando tempo de chegada
-                int tempoEstimado = caminhao.getTempoViagemRestante();
-                if (LoggerSimulacao.ModoLog.DEBUG == LoggerSimulacao.getModoLog() && tempoEstimado != 0) {
-                    LoggerSimulacao.log("INFO", String.format("Caminhão %s chegou com discrepância de tempo: estimado=%dmin, restante=%dmin",
-                            caminhao.getPlaca(), tempoEstimado, caminhao.getTempoViagemRestante()));
-                }
-                if (caminhao.getZonaDestino() != null) {
-                    // Indo à zona
-                    caminhao.getZonaAtual().decrementarCaminhoesAtivos(); // Diminui caminhões ativos na zona origem
-                    caminhao.setZonaAtual(caminhao.getZonaDestino());
-                    caminhao.setZonaDestino(null);
-                    caminhao.setEstado(2); // COLETANDO
-                    caminhao.getZonaAtual().incrementarCaminhoesAtivos();
-                    LoggerSimulacao.log("CHEGADA", String.format("Caminhão %s chegou à zona %s, iniciando coleta...",
-                            caminhao.getPlaca(), caminhao.getZonaAtual().getNome()));
-                } else if (caminhao.getEstacaoDestino() != null) {
-                    // Indo à estação
-                    caminhao.setEstado(4); // FILA_ESTAÇÃO
-                    caminhao.getEstacaoDestino().receberCaminhaoPequeno(caminhao, tempoSimulado);
-                }
+        ConjuntoIndices emTransito = caminhoesPequenos.getIndicesNoEstado(EstadoCaminhaoPequeno.EM_TRANSITO);
+        for (int i = emTransito.proximo(0); i >= 0; i = emTransito.proximo(i + 1)) {
+            processarChegada(caminhoesPequenos.obter(i));
+        }
+    }
+
+    private void processarChegada(CaminhaoPequeno caminhao) {
+        if (caminhao.getEstado() == EstadoCaminhaoPequeno.EM_TRANSITO && caminhao.processarViagem()) {
+            // Verificando tempo de chegada
+            int tempoEstimado = caminhao.getTempoViagemRestante();
+            if (tempoEstimado != 0 && LoggerSimulacao.estaAtivoDebug()) {
+                LoggerSimulacao.log("INFO", "Caminhão %s chegou com discrepância de tempo: estimado=%dmin, restante=%dmin",
+                        caminhao.getPlaca(), tempoEstimado, caminhao.getTempoViagemRestante());
+            }
+            if (caminhao.getZonaDestino() != null) {
+                // Indo à zona
+                ZonaUrbana destino = caminhao.getZonaDestino();
+                // Sai dos ativos da origem e entra nos do destino, que pode ser de outro shard
+                ZonaUrbana.mudarCaminhaoDeZona(caminhao.getZonaAtual(), destino);
+                caminhao.setZonaAtual(destino);
+                caminhao.setZonaDestino(null);
+                caminhao.setEstado(EstadoCaminhaoPequeno.COLETANDO);
+                contexto.registrarEvento(RegistroEventosBinario.Tipo.CHEGADA_ZONA, caminhao.getNumero(), caminhao.getZonaAtual().getId(), 0, 0);
+                LoggerSimulacao.log("CHEGADA", "Caminhão %s chegou à zona %s, iniciando coleta...",
+                        caminhao.getPlaca(), caminhao.getZonaAtual().getNome());
+            } else if (caminhao.getEstacaoDestino() != null) {
+                // Indo à estação
+                caminhao.setEstado(EstadoCaminhaoPequeno.FILA_ESTACAO);
+                EstacaoTransferencia estacao = caminhao.getEstacaoDestino();
+                int tempoChegada = contexto.getTempoSimulado();
+                entregar(() -> estacao.receberCaminhaoPequeno(caminhao, tempoChegada));
             }
         }
     }
 
+    // Efeito sobre uma zona ou estação que pode não ser do shard atual: no motor em shards vai para a caixa de saída
+    // e é entregue depois da barreira da fase; fora dele é executado na hora
+    private static void entregar(Runnable efeito) {
+        BufferEfeitos caixaSaida = BufferEfeitos.atual();
+        if (caixaSaida != null) {
+            caixaSaida.adiar(efeito);
+        } else {
+            efeito.run();
+        }
+    }
+
     private void logTentativasSemColeta() {
-        for (int i = 0; i < zonas.getTamanho(); i++) {
-            ZonaEstatistica stats = estatisticas.buscarZonaEstatistica(zonas.obter(i).getNome());
-            if (stats != null && stats.getSemColeta() > 0 && zonas.obter(i).getLixoAcumulado() == 0) {
-                LoggerSimulacao.log("INFO", String.format("%d caminhão(ões) não conseguiu(ram) coletar em %s (sem lixo disponível)",
-                        stats.getSemColeta(), zonas.obter(i).getNome()));
+        for (ZonaUrbana zona : zonas) {
+            ZonaEstatistica stats = estatisticas.buscarZonaEstatistica(zona);
+            if (stats != null && stats.getSemColeta() > 0 && zona.getLixoAcumulado() == 0) {
+                LoggerSimulacao.log("INFO", "%d caminhão(ões) não conseguiu(ram) coletar em %s (sem lixo disponível)",
+                        stats.getSemColeta(), zona.getNome());
                 stats.resetarEstatisticasTemporarias();
             }
         }
     }
 
     // Inicializa caminhões grandes, atribuindo diretamente às estações
-    protected static void inicializarCaminhoesGrandes(int quantidade) {
+    protected void inicializarCaminhoesGrandes(int quantidade) {
         for (int i = 0; i < estacoes.getTamanho(); i++) {
             EstacaoTransferencia estacao = estacoes.obter(i);
             if (i < quantidade) {
@@ -409,47 +756,114 @@ public class Simulador {
     private EstacaoTransferencia escolherEstacao(CaminhaoPequeno caminhao) {
         EstacaoTransferencia melhor = null;
         double melhorPontuacao = Double.MAX_VALUE; // Menor custo = melhor
-
-        for (int i = 0; i < estacoes.getTamanho(); i++) {
-            EstacaoTransferencia est = estacoes.obter(i);
-            int tamanhoFila = est.getFilaPequenos().getTamanho();
-            int distancia = ZonaUrbana.getDistancia(est.getZonaDaEstacao().getNome(), caminhao.getZonaAtual().getNome());
-            // Fórmula: penaliza fila longa e distância
-            double pontuacao = tamanhoFila * 10 + DistribuicaoCaminhoes.calcularTempoViagemBase(caminhao.getZonaAtual(), est.getZonaDaEstacao()) * 5;
-
-            if (pontuacao < melhorPontuacao) {
-                melhorPontuacao = pontuacao;
-                melhor = est;
+        ZonaUrbana origem = caminhao.getZonaAtual();
+
+        if (origem == null || LoggerSimulacao.estaAtivoDebug()) {
+            // Avalia todas as estações (no modo DEBUG, para manter o log de cada cálculo de tempo)
+            for (EstacaoTransferencia est : estacoes) {
+                // Fórmula: penaliza fila longa e distância
+                double pontuacao = est.getFilaPequenos().getTamanho() * 10 + distribuicaoCaminhoes.calcularTempoViagemBase(origem, est.getZonaDaEstacao()) * 5;
+                if (pontuacao < melhorPontuacao) {
+                    melhorPontuacao = pontuacao;
+                    melhor = est;
+                }
+            }
+        } else {
+            // Estações da zona em ordem de tempo de viagem: a fila nunca é negativa, então quando o tempo sozinho já
+            // passa da melhor pontuação nenhuma estação seguinte pode vencer. Empates ficam com a de menor id
+            montarEstacoesPorProximidade();
+            int indice = distribuicaoCaminhoes.getBandaAtual() * zonas.getTamanho() + origem.getId();
+            int[] candidatas = estacoesPorProximidade[indice];
+            double[] tempos = temposEstacoesPorProximidade[indice];
+            for (int k = 0; k < candidatas.length; k++) {
+                double custoViagem = tempos[k] * 5;
+                if (custoViagem > melhorPontuacao) {
+                    break;
+                }
+                EstacaoTransferencia est = estacoes.obter(candidatas[k]);
+                double pontuacao = est.getFilaPequenos().getTamanho() * 10 + custoViagem;
+                if (pontuacao < melhorPontuacao || (pontuacao == melhorPontuacao && est.getId() < melhor.getId())) {
+                    melhorPontuacao = pontuacao;
+                    melhor = est;
+                }
             }
         }
         if (melhor == null) {
-            LoggerSimulacao.log("ERRO", "Nenhuma estação adequada para o caminhão " + caminhao.getPlaca());
+            LoggerSimulacao.log("ERRO", "Nenhuma estação adequada para o caminhão %s", caminhao.getPlaca());
         } else {
-            LoggerSimulacao.log("INFO", String.format("Caminhão %s escolheu %s (fila: %d, pontuação: %.1f)",
-                    caminhao.getPlaca(), melhor.getNome(), melhor.getFilaPequenos().getTamanho(), melhorPontuacao));
+            LoggerSimulacao.log("INFO", "Caminhão %s escolheu %s (fila: %d, pontuação: %.1f)",
+                    caminhao.getPlaca(), melhor.getNome(), melhor.getFilaPequenos().getTamanho(), melhorPontuacao);
         }
         return melhor;
     }
 
-    // Processa filas e caminhões grandes nas estações
+    // Para cada faixa de horário e zona, as estações ordenadas pelo tempo base de viagem (empate: menor id).
+    // Montada uma vez por conjunto de estações; o tamanho da fila de cada estação é lido na hora da escolha
+    private void montarEstacoesPorProximidade() {
+        if (estacoesPorProximidade != null) {
+            return;
+        }
+        int totalZonas = zonas.getTamanho();
+        int totalEstacoes = estacoes.getTamanho();
+        int bandas = DistribuicaoCaminhoes.getTotalBandas();
+        int[][] candidatas = new int[bandas * totalZonas][];
+        double[][] tempos = new double[bandas * totalZonas][];
+        for (int banda = 0; banda < bandas; banda++) {
+            for (ZonaUrbana zona : zonas) {
+                int indice = banda * totalZonas + zona.getId();
+                int[] ordem = new int[totalEstacoes];
+                double[] tempo = new double[totalEstacoes];
+                // Ordenação por inserção: são dezenas de estações, feita só na montagem
+                for (int e = 0; e < totalEstacoes; e++) {
+                    double t = distribuicaoCaminhoes.calcularTempoViagemBase(banda, zona, estacoes.obter(e).getZonaDaEstacao());
+                    int j = e;
+                    while (j > 0 && tempo[j - 1] > t) {
+                        ordem[j] = ordem[j - 1];
+                        tempo[j] = tempo[j - 1];
+                        j--;
+                    }
+                    ordem[j] = e;
+                    tempo[j] = t;
+                }
+                candidatas[indice] = ordem;
+                tempos[indice] = tempo;
+            }
+        }
+        temposEstacoesPorProximidade = tempos;
+        estacoesPorProximidade = candidatas;
+    }
+
+    // Processa filas e caminhões grandes nas estações. A primeira parte (espera, liberação e fila) só mexe na própria
+    // estação e pode rodar em paralelo; a segunda cria caminhões grandes e atualiza as estatísticas, sempre em ordem
     private void processarEstacoes() {
+        int totalEstacoes = estacoes.getTamanho();
+        if (resultadosFila == null || resultadosFila.length != totalEstacoes) {
+            grandesLiberados = new CaminhaoGrande[totalEstacoes];
+            resultadosFila = new ResultadoProcessamentoFila[totalEstacoes];
+            efeitosEstacoes = null;
+        }
+        boolean paralelo = poolEstacoes != null && totalEstacoes > 1;
+        if (paralelo) {
+            processarFilasEmParalelo();
+        }
         int caminhoesGrandesEmUso = 0;
-        for (int i = 0; i < estacoes.getTamanho(); i++) {
+        for (int i = 0; i < totalEstacoes; i++) {
             EstacaoTransferencia estacao = estacoes.obter(i);
-            estacao.atualizarTempoEsperaCaminhaoGrande();
-            // Libera caminhão grande se necessário
-            CaminhaoGrande grandeLiberado = estacao.liberarCaminhaoGrandeSeNecessario();
-            if (grandeLiberado != null) {
-                adicionarCaminhaoGrandeOcupado(grandeLiberado); // Move para lista de ocupados
+            if (paralelo) {
+                efeitosEstacoes[i].aplicar();
+            } else {
+                processarFilaEstacao(i);
+            }
+            if (grandesLiberados[i] != null) {
                 estatisticas.liberarCaminhaoGrande(); // Decrementa contador
             }
-            // Processa fila de caminhões pequenos
-            ResultadoProcessamentoFila resultado = estacao.processarFila(tempoSimulado);
+            ResultadoProcessamentoFila resultado = resultadosFila[i];
             if (resultado.foiProcessado()) {
-                estatisticas.registrarEspera(resultado.getTempoDeEspera());
+                estatisticas.registrarEspera(estacao, resultado.getTempoDeEspera());
                 CaminhaoPequeno pequeno = resultado.getCaminhaoProcessado();
-                pequeno.setEstado(1); // DISPONÍVEL
-                LoggerSimulacao.log("DESCARGA", String.format("Caminhão %s processado em %s, pode ser distribuído", pequeno.getPlaca(), estacao.getNome()));
+                pequeno.setEstado(EstadoCaminhaoPequeno.DISPONIVEL);
+                contexto.registrarEvento(RegistroEventosBinario.Tipo.SAIDA_ESTACAO, pequeno.getNumero(), estacao.getId(), 0, resultado.getTempoDeEspera());
+                LoggerSimulacao.log("DESCARGA", "Caminhão %s processado em %s, pode ser distribuído", pequeno.getPlaca(), estacao.getNome());
             }
             // Adiciona caminhão grande se necessário (fila ou espera excedida)
             if (estacao.tempoEsperaExcedido() || estacao.getFilaPequenos().getTamanho() > 0) {
@@ -467,69 +881,129 @@ public class Simulador {
         estatisticas.atualizarMaxCaminhoesGrandesEmUso(caminhoesGrandesEmUso);
     }
 
+    // Primeira parte do processamento da estação i: espera dos caminhões grandes, liberação para o aterro e fila
+    private void processarFilaEstacao(int i) {
+        EstacaoTransferencia estacao = estacoes.obter(i);
+        estacao.atualizarTempoEsperaCaminhaoGrande();
+        // Libera caminhão grande se necessário
+        CaminhaoGrande grandeLiberado = estacao.liberarCaminhaoGrandeSeNecessario();
+        if (grandeLiberado != null) {
+            contexto.adicionarCaminhaoGrandeOcupado(grandeLiberado); // Move para lista de ocupados
+        }
+        grandesLiberados[i] = grandeLiberado;
+        // Processa fila de caminhões pequenos
+        resultadosFila[i] = estacao.processarFila(contexto.getTempoSimulado());
+    }
+
+    // Primeira parte de todas as estações no pool, cada uma com os efeitos compartilhados guardados no seu buffer
+    private void processarFilasEmParalelo() {
+        int totalEstacoes = estacoes.getTamanho();
+        if (efeitosEstacoes == null) {
+            efeitosEstacoes = new BufferEfeitos[totalEstacoes];
+            for (int i = 0; i < totalEstacoes; i++) {
+                efeitosEstacoes[i] = new BufferEfeitos();
+            }
+        }
+        // Tabela de tempos e banda do minuto montadas aqui: nas tarefas a distribuição só é lida
+        distribuicaoCaminhoes.prepararLeituraConcorrente(estacoes.obter(0).getZonaDaEstacao().getMapa());
+        Future<?>[] futuros = new Future<?>[totalEstacoes];
+        for (int i = 0; i < totalEstacoes; i++) {
+            int indice = i;
+            futuros[i] = poolEstacoes.submit(() -> executarIsolado(efeitosEstacoes[indice], () -> processarFilaEstacao(indice)));
+        }
+        aguardar(futuros, "Falha ao processar uma estação: ");
+    }
+
+    // Executada em uma thread de pool, ligada a esta simulação e com o buffer da tarefa ativo
+    private void executarIsolado(BufferEfeitos buffer, Runnable tarefa) {
+        ContextoSimulacao contextoAnterior = LoggerSimulacao.vincularContexto(contexto);
+        BufferEfeitos bufferAnterior = BufferEfeitos.ativar(buffer);
+        try {
+            tarefa.run();
+        } finally {
+            BufferEfeitos.ativar(bufferAnterior);
+            LoggerSimulacao.vincularContexto(contextoAnterior);
+        }
+    }
+
+    private static void aguardar(Future<?>[] futuros, String mensagemFalha) {
+        try {
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Processamento paralelo interrompido", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(mensagemFalha + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
     // Adiciona um novo caminhão grande e o atribui diretamente a uma estação
-    private static void adicionarCaminhaoGrande(EstacaoTransferencia estacao) {
-        CaminhaoGrande novo = new CaminhaoGrande(toleranciaCaminhoesGrandes);
+    private void adicionarCaminhaoGrande(EstacaoTransferencia estacao) {
+        CaminhaoGrande novo = new CaminhaoGrande(contexto, contexto.getToleranciaCaminhoesGrandes());
         todosCaminhoesGrandes.adicionar(novo); // Adiciona à lista de todos os caminhões grandes
         estatisticas.registrarNovoCaminhaoGrande();
         estacao.atribuirCaminhaoGrande(novo);
+        contexto.registrarEvento(RegistroEventosBinario.Tipo.CAMINHAO_GRANDE_ADICIONADO, novo.getNumero(), estacao.getId(), 0, 0);
         if (todosCaminhoesGrandes.getTamanho() <= 2) {
             LoggerSimulacao.logRelatorio("CONFIG", String.format("%s: Caminhão grande %s foi adicionado", estacao.getNome(), novo.getPlaca()));
         } else {
-            LoggerSimulacao.log("ADIÇÃO",  String.format("%s: Caminhão grande %s foi adicionado (espera excedidia)", estacao.getNome(), novo.getPlaca()));
+            LoggerSimulacao.log("ADIÇÃO", "%s: Caminhão grande %s foi adicionado (espera excedidia)", estacao.getNome(), novo.getPlaca());
         }
     }
 
-    // Adiciona um caminhão grande à lista de ocupados
-    public static void adicionarCaminhaoGrandeOcupado(CaminhaoGrande caminhao) {
-        caminhoesGrandesOcupados.adicionar(caminhao);
-    }
-
-    protected static void configurarSimuladorParams(int tolerancia) {
-        setListaCaminhoesPequenos(caminhoesPequenos);
-        setListaZonas(zonas);
-        setListaEstacoes(estacoes);
-        setToleranciaCaminhoesGrandes(tolerancia);
+    protected void configurarSimuladorParams(int tolerancia) {
+        contexto.setToleranciaCaminhoesGrandes(tolerancia);
         inicializarCaminhoesGrandes(estacoes.getTamanho());
     }
 
-    // Getters e Setters
-    public static int getTempoSimulado() {
-        return tempoSimulado;
-    }
-    public static int getCaminhoesPorZona() {
-        return caminhoesPorZona;
-    }
-    protected static Lista<ZonaUrbana> getZonas() {
-        return zonas;
+    // Número de threads para processar as estações (1: sequencial). O resultado não depende desse número
+    public void setThreadsEstacoes(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("O número de threads deve ser pelo menos 1!");
+        }
+        if (poolEstacoes != null) {
+            poolEstacoes.shutdown();
+        }
+        poolEstacoes = threads > 1 ? new ForkJoinPool(threads) : null;
     }
-    public static ZonaUrbana getZonaAterro(){
-        return zonaAterro;
+
+    public int getThreadsEstacoes() {
+        return poolEstacoes != null ? poolEstacoes.getParallelism() : 1;
     }
-    protected static Lista<CaminhaoPequeno> getCaminhoesPequenos() {
-        return caminhoesPequenos;
+
+    // Número de shards (e threads) do motor dos caminhões pequenos (1: sequencial). O resultado não depende dele
+    // (conferido por VerificacaoMotores)
+    public void setShardsZonas(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("O número de shards deve ser pelo menos 1!");
+        }
+        if (poolShards != null) {
+            poolShards.shutdown();
+        }
+        poolShards = shards > 1 ? new ForkJoinPool(shards) : null;
+        caminhoesPorShard = null;
     }
-    protected static Lista<CaminhaoGrande> getCaminhoesGrandes() {
-        return todosCaminhoesGrandes;
+
+    public int getShardsZonas() {
+        return poolShards != null ? poolShards.getParallelism() : 1;
     }
-    public static void setListaZonas(Lista<ZonaUrbana> zonas) {
-        Simulador.zonas = zonas;
+
+    // Getters
+    public ContextoSimulacao getContexto() {
+        return contexto;
     }
-    public static void setListaCaminhoesPequenos(Lista<CaminhaoPequeno> caminhoes) {
-        caminhoesPequenos = caminhoes;
+    public int getTempoSimulado() {
+        return contexto.getTempoSimulado();
     }
-    public static void setListaEstacoes(Lista<EstacaoTransferencia> estacoes) {
-        Simulador.estacoes = estacoes;
+    public double getTicksPorSegundo() {
+        return ticksPorSegundo;
     }
-    public static void setToleranciaCaminhoesGrandes(int tolerancia) {
-        toleranciaCaminhoesGrandes = tolerancia;
+    protected Lista<ZonaUrbana> getZonas() {
+        return zonas;
     }
-    public static Estatisticas getEstatisticas() {
+    public Estatisticas getEstatisticas() {
         return estatisticas;
     }
-    public static Lista<EstacaoTransferencia> getEstacoes() {
-        return estacoes;
-    }
 }
-
-
@@ -0,0 +1,318 @@
+package simulacao;
+
+import estruturas.Lista;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Varredura de parâmetros para dimensionar a frota: simula todas as combinações de uma grade em paralelo
+// e grava uma tabela com uma linha por combinação.
+// As combinações são processadas em ondas, da menor para a maior frota total. Quando uma frota atinge a meta
+// de coleta, toda frota maior ou igual em cada tipo de caminhão (com os mesmos limite, tolerância e espera)
+// só acrescenta custo e é podada sem ser simulada
+public class VarreduraParametros {
+    public enum Parametro {
+        QTD_2T("Quantidade de caminhões de 2t"),
+        QTD_4T("Quantidade de caminhões de 4t"),
+        QTD_8T("Quantidade de caminhões de 8t"),
+        QTD_10T("Quantidade de caminhões de 10t"),
+        LIMITE_VIAGENS("Quantidade máxima de viagens diárias"),
+        TOLERANCIA("Tolerância de espera dos caminhões grandes (min)"),
+        TEMPO_MAX_ESPERA("Tempo máximo de espera dos caminhões pequenos (min)");
+
+        private final String descricao;
+
+        Parametro(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+
+    // Limite de segurança para não gerar grades que nunca terminariam
+    private static final int MAX_COMBINACOES = 1_000_000;
+
+    private final ConfiguracaoSimulacao base;
+    private final int minutos;
+    private final long semente;
+    private final int[][] grades;
+    private double metaColeta;
+    private int paralelismo;
+
+    public VarreduraParametros(ConfiguracaoSimulacao base, int minutos, long semente) {
+        this.base = base;
+        this.minutos = minutos;
+        this.semente = semente;
+        this.metaColeta = 0.99;
+        this.paralelismo = Runtime.getRuntime().availableProcessors();
+        // Sem grade definida, cada parâmetro fica fixo no valor da configuração base
+        this.grades = new int[][] {
+                {base.getQtd2t()}, {base.getQtd4t()}, {base.getQtd8t()}, {base.getQtd10t()},
+                {base.getLimiteViagens()}, {base.getTolerancia()}, {base.getTempoMaxEspera()}
+        };
+    }
+
+    public void definirGrade(Parametro parametro, int[] valores) {
+        if (valores.length == 0) {
+            throw new IllegalArgumentException("A grade de " + parametro + " está vazia!");
+        }
+        grades[parametro.ordinal()] = valores.clone();
+    }
+
+    // Fração do lixo gerado que uma frota precisa coletar para dominar as frotas maiores
+    public void setMetaColeta(double metaColeta) {
+        if (metaColeta <= 0 || metaColeta > 1) {
+            throw new IllegalArgumentException("A meta de coleta deve estar entre 0 e 1!");
+        }
+        this.metaColeta = metaColeta;
+    }
+
+    public void setParalelismo(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("O paralelismo deve ser pelo menos 1!");
+        }
+        this.paralelismo = paralelismo;
+    }
+
+    public long getTotalCombinacoes() {
+        long total = 1;
+        for (int[] grade : grades) {
+            total *= grade.length;
+        }
+        return total;
+    }
+
+    // Interpreta uma grade digitada: "5" (valor único), "1,2,4" (lista) ou "0-10:2" (intervalo com passo)
+    public static int[] interpretarGrade(String texto) {
+        String entrada = texto.replace(" ", "");
+        if (entrada.isEmpty()) {
+            throw new IllegalArgumentException("Grade vazia!");
+        }
+        if (entrada.contains(",")) {
+            String[] partes = entrada.split(",");
+            int[] valores = new int[partes.length];
+            for (int i = 0; i < partes.length; i++) {
+                valores[i] = lerNaoNegativo(partes[i]);
+            }
+            return valores;
+        }
+        int traco = entrada.indexOf('-');
+        if (traco < 0) {
+            return new int[] {lerNaoNegativo(entrada)};
+        }
+        int doisPontos = entrada.indexOf(':');
+        int inicio = lerNaoNegativo(entrada.substring(0, traco));
+        int fim = lerNaoNegativo(entrada.substring(traco + 1, doisPontos < 0 ? entrada.length() : doisPontos));
+        int passo = doisPontos < 0 ? 1 : Integer.parseInt(entrada.substring(doisPontos + 1));
+        if (passo <= 0 || fim < inicio) {
+            throw new IllegalArgumentException("Intervalo inválido: " + texto);
+        }
+        int[] valores = new int[(fim - inicio) / passo + 1];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = inicio + i * passo;
+        }
+        return valores;
+    }
+
+    private static int lerNaoNegativo(String texto) {
+        int valor = Integer.parseInt(texto);
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valores da grade não podem ser negativos: " + valor);
+        }
+        return valor;
+    }
+
+    // Executa a varredura e grava a tabela de resultados no arquivo informado
+    public void executar(String arquivo) throws IOException {
+        long total = getTotalCombinacoes();
+        if (total > MAX_COMBINACOES) {
+            throw new IllegalArgumentException(String.format("Grade com %d combinações excede o limite de %d!", total, MAX_COMBINACOES));
+        }
+        Ponto[] pontos = gerarPontos((int) total);
+        Lista<Lista<Ponto>> ondas = agruparPorFrota(pontos);
+
+        long inicio = System.nanoTime();
+        int simuladas = 0;
+        int podadas = 0;
+        int processadas = 0;
+        Lista<Ponto> dominantes = new Lista<>();
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            for (int o = 0; o < ondas.getTamanho(); o++) {
+                Lista<Ponto> onda = ondas.obter(o);
+                Lista<Ponto> simular = new Lista<>();
+                for (Ponto ponto : onda) {
+                    ponto.dominadoPor = buscarDominante(dominantes, ponto);
+                    if (ponto.dominadoPor == null) {
+                        simular.adicionar(ponto);
+                    } else {
+                        podadas++;
+                    }
+                }
+
+                Lista<Future<Estatisticas>> futuros = new Lista<>();
+                for (int i = 0; i < simular.getTamanho(); i++) {
+                    ConfiguracaoSimulacao configuracao = simular.obter(i).configuracao;
+                    futuros.adicionar(pool.submit(() -> ExecutorReplicacoes.executarReplicacao(configuracao, semente, minutos)));
+                }
+                for (int i = 0; i < simular.getTamanho(); i++) {
+                    Ponto ponto = simular.obter(i);
+                    ponto.resultado = futuros.obter(i).get();
+                    simuladas++;
+                    // Dominantes entram só depois da onda inteira, então o resultado não depende da ordem das threads
+                    if (ponto.progresso() >= metaColeta) {
+                        dominantes.adicionar(ponto);
+                    }
+                }
+                processadas += onda.getTamanho();
+                LoggerSimulacao.log("INFO", String.format("Varredura: %d/%d combinações processadas (%d podadas)", processadas, total, podadas));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Varredura interrompida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Falha em uma das simulações da varredura: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        salvarTabela(arquivo, pontos);
+        LoggerSimulacao.log("INFO", String.format("Varredura concluída: %d combinações (%d simuladas, %d podadas) em %.1fs. Tabela salva em %s",
+                total, simuladas, podadas, segundos, arquivo));
+    }
+
+    // Gera as combinações em ordem lexicográfica da grade (a ordem das linhas da tabela)
+    private Ponto[] gerarPontos(int total) {
+        Ponto[] pontos = new Ponto[total];
+        int[] indices = new int[grades.length];
+        for (int id = 0; id < total; id++) {
+            int[] valores = new int[grades.length];
+            for (int p = 0; p < grades.length; p++) {
+                valores[p] = grades[p][indices[p]];
+            }
+            pontos[id] = new Ponto(id + 1, valores, new ConfiguracaoSimulacao(base.getMapa(),
+                    valores[Parametro.TOLERANCIA.ordinal()], valores[Parametro.TEMPO_MAX_ESPERA.ordinal()],
+                    valores[Parametro.LIMITE_VIAGENS.ordinal()], base.getIntervalosLixo(),
+                    base.getZonasEstacoes(), base.getZonaAterro(),
+                    valores[Parametro.QTD_2T.ordinal()], valores[Parametro.QTD_4T.ordinal()],
+                    valores[Parametro.QTD_8T.ordinal()], valores[Parametro.QTD_10T.ordinal()], base.getModoDistribuicao()));
+            // Incrementa os índices como um odômetro, com o último parâmetro variando mais rápido
+            for (int p = grades.length - 1; p >= 0; p--) {
+                if (++indices[p] < grades[p].length) break;
+                indices[p] = 0;
+            }
+        }
+        return pontos;
+    }
+
+    // Agrupa as combinações pela frota total, em ordem crescente. Frotas do mesmo tamanho nunca dominam
+    // umas às outras, então cada grupo pode ser simulado inteiro em paralelo
+    private Lista<Lista<Ponto>> agruparPorFrota(Ponto[] pontos) {
+        int maiorFrota = 0;
+        for (Ponto ponto : pontos) {
+            maiorFrota = Math.max(maiorFrota, ponto.frotaTotal());
+        }
+        Lista<Ponto>[] porFrota = novasListas(maiorFrota + 1);
+        for (Ponto ponto : pontos) {
+            porFrota[ponto.frotaTotal()].adicionar(ponto);
+        }
+        Lista<Lista<Ponto>> ondas = new Lista<>();
+        for (Lista<Ponto> onda : porFrota) {
+            if (onda.getTamanho() > 0) {
+                ondas.adicionar(onda);
+            }
+        }
+        return ondas;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Lista<Ponto>[] novasListas(int quantidade) {
+        Lista<Ponto>[] listas = new Lista[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            listas[i] = new Lista<>();
+        }
+        return listas;
+    }
+
+    private Ponto buscarDominante(Lista<Ponto> dominantes, Ponto ponto) {
+        for (Ponto dominante : dominantes) {
+            if (dominante.domina(ponto)) {
+                return dominante;
+            }
+        }
+        return null;
+    }
+
+    private void salvarTabela(String arquivo, Ponto[] pontos) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new File(arquivo), "UTF-8")) {
+            writer.println("id,qtd2t,qtd4t,qtd8t,qtd10t,limiteViagens,tolerancia,tempoMaxEspera,status,dominadaPor,"
+                    + "lixoGerado,lixoColetado,progresso,lixoAterro,esperaMedia,caminhoesGrandesUsados,maxCaminhoesGrandesEmUso");
+            for (Ponto ponto : pontos) {
+                StringBuilder linha = new StringBuilder();
+                linha.append(ponto.id);
+                for (int valor : ponto.valores) {
+                    linha.append(',').append(valor);
+                }
+                if (ponto.resultado == null) {
+                    linha.append(",PODADA,").append(ponto.dominadoPor.id).append(",,,,,,,");
+                } else {
+                    Estatisticas resultado = ponto.resultado;
+                    linha.append(",SIMULADA,,")
+                            .append(resultado.getTotalLixoGerado()).append(',')
+                            .append(resultado.getTotalLixoColetado()).append(',')
+                            .append(String.format(Locale.ROOT, "%.4f", ponto.progresso())).append(',')
+                            .append(resultado.getTotalLixoAterro()).append(',')
+                            .append(String.format(Locale.ROOT, "%.2f", resultado.getTempoMedioEspera())).append(',')
+                            .append(resultado.getTotalCaminhoesGrandesUsados()).append(',')
+                            .append(resultado.getMaxCaminhoesGrandesEmUso());
+                }
+                writer.println(linha);
+            }
+        }
+    }
+
+    // Uma combinação da grade e o resultado da sua simulação (ou a combinação que a dominou)
+    private static class Ponto {
+        private final int id;
+        private final int[] valores;
+        private final ConfiguracaoSimulacao configuracao;
+        private Estatisticas resultado;
+        private Ponto dominadoPor;
+
+        Ponto(int id, int[] valores, ConfiguracaoSimulacao configuracao) {
+            this.id = id;
+            this.valores = valores;
+            this.configuracao = configuracao;
+        }
+
+        int frotaTotal() {
+            return valores[Parametro.QTD_2T.ordinal()] + valores[Parametro.QTD_4T.ordinal()]
+                    + valores[Parametro.QTD_8T.ordinal()] + valores[Parametro.QTD_10T.ordinal()];
+        }
+
+        double progresso() {
+            int gerado = resultado.getTotalLixoGerado();
+            return gerado > 0 ? (double) resultado.getTotalLixoColetado() / gerado : 1.0;
+        }
+
+        // Domina outra combinação com os mesmos parâmetros de operação e pelo menos a mesma frota de cada tipo
+        boolean domina(Ponto outro) {
+            for (Parametro parametro : Parametro.values()) {
+                int p = parametro.ordinal();
+                boolean quantidade = p <= Parametro.QTD_10T.ordinal();
+                if (quantidade ? valores[p] > outro.valores[p] : valores[p] != outro.valores[p]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
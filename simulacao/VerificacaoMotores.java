@@ -0,0 +1,98 @@
+package simulacao;
+
+import caminhoes.DistribuicaoCaminhoes;
+import estruturas.Histograma;
+import zonas.MapaCidade;
+
+import java.util.Locale;
+
+// Autoverificação do motor: roda a mesma configuração e semente no modo rápido sequencial, avançando minuto a minuto
+// e com os caminhões pequenos em shards, e confere se as estatísticas finais são idênticas. Uma diferença indica
+// algum efeito compartilhado aplicado fora da ordem dos caminhões
+public class VerificacaoMotores {
+    // Cenários fixos: caminhões de cada tipo e semente. A frota grande lota as zonas e exercita o limite por zona
+    private static final int[] CAMINHOES_POR_TIPO = {20, 200};
+    private static final long[] SEMENTES = {7, 13};
+    private static final int[] SHARDS = {2, 3};
+    private static final int MINUTOS = 3 * 24 * 60;
+
+    private VerificacaoMotores() {
+    }
+
+    // Verifica todos os cenários nos dois modos de distribuição; devolve false se algum motor divergir
+    public static boolean verificar() {
+        boolean ok = true;
+        for (int i = 0; i < CAMINHOES_POR_TIPO.length; i++) {
+            for (DistribuicaoCaminhoes.ModoDistribuicao modo : DistribuicaoCaminhoes.ModoDistribuicao.values()) {
+                ok &= verificarCenario(CAMINHOES_POR_TIPO[i], SEMENTES[i], modo);
+            }
+        }
+        LoggerSimulacao.log(ok ? "INFO" : "ERRO", ok
+                ? "Autoverificação concluída: todos os motores chegaram às mesmas estatísticas."
+                : "Autoverificação falhou: há motores com estatísticas diferentes.");
+        return ok;
+    }
+
+    private static boolean verificarCenario(int caminhoesPorTipo, long semente, DistribuicaoCaminhoes.ModoDistribuicao modo) {
+        MapaCidade mapa = MapaCidade.padrao();
+        ConfiguracaoSimulacao configuracao = new ConfiguracaoSimulacao(mapa, 30, 20, 5, mapa.copiarIntervalosLixo(),
+                new int[] {0, 1, 2}, 4, caminhoesPorTipo, caminhoesPorTipo, caminhoesPorTipo, caminhoesPorTipo, modo);
+        String cenario = String.format("%d caminhões por tipo, semente %d, distribuição %s", caminhoesPorTipo, semente, modo);
+
+        String referencia = resumir(executar(configuracao, semente, 1, false));
+        boolean ok = conferir(cenario, "minuto a minuto", referencia, resumir(executar(configuracao, semente, 1, true)));
+        for (int shards : SHARDS) {
+            ok &= conferir(cenario, shards + " shards", referencia, resumir(executar(configuracao, semente, shards, false)));
+        }
+        if (ok) {
+            LoggerSimulacao.log("INFO", "%s: OK (%s)", cenario, referencia);
+        }
+        return ok;
+    }
+
+    private static boolean conferir(String cenario, String motor, String esperado, String obtido) {
+        if (esperado.equals(obtido)) {
+            return true;
+        }
+        LoggerSimulacao.log("ERRO", "%s: motor %s divergiu do sequencial. Sequencial: %s | %s: %s",
+                cenario, motor, esperado, motor, obtido);
+        return false;
+    }
+
+    // Uma execução sem log, no contexto próprio, como as replicações
+    private static Estatisticas executar(ConfiguracaoSimulacao configuracao, long semente, int shards, boolean minutoAMinuto) {
+        ContextoSimulacao contexto = new ContextoSimulacao(semente);
+        contexto.setLogAtivo(false);
+        ContextoSimulacao contextoAnterior = LoggerSimulacao.vincularContexto(contexto);
+        Simulador simulador = new Simulador(contexto);
+        try {
+            simulador.configurar(configuracao);
+            simulador.setShardsZonas(shards);
+            if (!minutoAMinuto) {
+                return simulador.executarModoRapido(MINUTOS);
+            }
+            for (int minuto = 0; minuto < MINUTOS; minuto++) {
+                simulador.avancarMinuto();
+            }
+            return simulador.getEstatisticas();
+        } finally {
+            simulador.setShardsZonas(1); // Encerra o pool dos shards
+            LoggerSimulacao.vincularContexto(contextoAnterior);
+        }
+    }
+
+    // Totais e distribuições finais numa linha; duas execuções equivalentes produzem exatamente o mesmo texto
+    private static String resumir(Estatisticas estatisticas) {
+        return String.format(Locale.ROOT, "coletado=%dkg gerado=%dkg aterro=%dkg grandes=%d maxGrandes=%d espera=%.6f"
+                        + " fila=%s ociosidade=%s viagensPequenos=%s viagensAterro=%s",
+                estatisticas.getTotalLixoColetado(), estatisticas.getTotalLixoGerado(), estatisticas.getTotalLixoAterro(),
+                estatisticas.getTotalCaminhoesGrandesUsados(), estatisticas.getMaxCaminhoesGrandesEmUso(),
+                estatisticas.getTempoMedioEspera(), resumir(estatisticas.getEsperaFila()),
+                resumir(estatisticas.getOciosidadeCaminhoesGrandes()), resumir(estatisticas.getViagensPequenos()),
+                resumir(estatisticas.getViagensAterro()));
+    }
+
+    private static String resumir(Histograma histograma) {
+        return String.format(Locale.ROOT, "%d/%.4f/%d", histograma.getTotal(), histograma.getMedia(), histograma.getMaximo());
+    }
+}
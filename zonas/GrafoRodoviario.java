@@ -0,0 +1,102 @@
+package zonas;
+
+import estruturas.FilaPrioridade;
+import estruturas.IntLista;
+
+import java.util.Arrays;
+
+// Grafo das estradas da cidade: os nós são as zonas (ids 0..zonas-1) seguidas dos cruzamentos, e cada estrada
+// é uma aresta de mão dupla com o comprimento em km. calcularDistancias() roda Dijkstra uma vez a partir de cada
+// zona e devolve os menores caminhos entre zonas em um array n*n, consultado depois em O(1) pelo MapaCidade
+public class GrafoRodoviario {
+    public static final int SEM_CAMINHO = Integer.MAX_VALUE;
+
+    private final int totalNos;
+    private final IntLista extremosA = new IntLista();
+    private final IntLista extremosB = new IntLista();
+    private final IntLista comprimentos = new IntLista();
+
+    public GrafoRodoviario(int totalNos) {
+        if (totalNos <= 0) {
+            throw new IllegalArgumentException("O grafo precisa de pelo menos um nó!");
+        }
+        this.totalNos = totalNos;
+    }
+
+    public void adicionarEstrada(int a, int b, int km) {
+        if (a < 0 || a >= totalNos || b < 0 || b >= totalNos) {
+            throw new IllegalArgumentException(String.format("Estrada entre nós inexistentes: %d e %d", a, b));
+        }
+        if (km < 0) {
+            throw new IllegalArgumentException("Comprimento de estrada negativo: " + km);
+        }
+        extremosA.adicionar(a);
+        extremosB.adicionar(b);
+        comprimentos.adicionar(km);
+    }
+
+    public int getTotalNos() {
+        return totalNos;
+    }
+
+    public int getTotalEstradas() {
+        return comprimentos.getTamanho();
+    }
+
+    // Menores distâncias entre as primeiras `zonas` zonas: resultado[origem * zonas + destino], ou SEM_CAMINHO
+    // quando não há estrada ligando as duas
+    public int[] calcularDistancias(int zonas) {
+        if (zonas <= 0 || zonas > totalNos) {
+            throw new IllegalArgumentException("Número de zonas inválido: " + zonas);
+        }
+        // Adjacência compacta (CSR): os vizinhos do nó v ficam em vizinhos[inicio[v] .. inicio[v + 1])
+        int estradas = comprimentos.getTamanho();
+        int[] inicio = new int[totalNos + 1];
+        for (int e = 0; e < estradas; e++) {
+            inicio[extremosA.obter(e) + 1]++;
+            inicio[extremosB.obter(e) + 1]++;
+        }
+        for (int v = 0; v < totalNos; v++) {
+            inicio[v + 1] += inicio[v];
+        }
+        int[] vizinhos = new int[estradas * 2];
+        int[] pesos = new int[estradas * 2];
+        int[] proximo = Arrays.copyOf(inicio, totalNos);
+        for (int e = 0; e < estradas; e++) {
+            int a = extremosA.obter(e);
+            int b = extremosB.obter(e);
+            int km = comprimentos.obter(e);
+            vizinhos[proximo[a]] = b;
+            pesos[proximo[a]++] = km;
+            vizinhos[proximo[b]] = a;
+            pesos[proximo[b]++] = km;
+        }
+
+        int[] resultado = new int[zonas * zonas];
+        int[] distancia = new int[totalNos];
+        FilaPrioridade<Integer> fila = new FilaPrioridade<>(totalNos);
+        for (int origem = 0; origem < zonas; origem++) {
+            Arrays.fill(distancia, SEM_CAMINHO);
+            distancia[origem] = 0;
+            fila.limpar();
+            fila.inserir(origem, 0);
+            while (!fila.estaVazia()) {
+                int d = fila.prioridadeDoPrimeiro();
+                int v = fila.remover();
+                if (d > distancia[v]) {
+                    continue; // entrada antiga: o nó já saiu da fila com uma distância menor
+                }
+                for (int i = inicio[v]; i < inicio[v + 1]; i++) {
+                    int w = vizinhos[i];
+                    long candidata = (long) d + pesos[i];
+                    if (candidata < distancia[w]) {
+                        distancia[w] = (int) candidata;
+                        fila.inserir(w, distancia[w]);
+                    }
+                }
+            }
+            System.arraycopy(distancia, 0, resultado, origem * zonas, zonas);
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,281 @@
+package zonas;
+
+import estruturas.IntLista;
+import estruturas.Lista;
+import estruturas.MapaIndices;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Modelo da cidade: nomes das zonas, intervalos diários de geração de lixo, variações de trânsito e
+// distâncias entre zonas (km). As distâncias ficam em um único array n*n indexado pelo id das zonas, então
+// a consulta é O(1) qualquer que seja o número de zonas. padrao() devolve as 5 zonas de Teresina;
+// carregar() lê uma cidade de qualquer tamanho de um arquivo de texto:
+//
+//   # comentário
+//   zona;Norte;69600;120000;0;0        nome; lixo mínimo e máximo por dia (kg); variação no pico e fora dele (min)
+//   matriz                             seguida de uma linha por zona, na ordem das zonas: 0;13;14;11;11
+//   distancia;Norte;Sul;13             ou as estradas de mão dupla entre zonas e cruzamentos (km)
+//   no;Ponte Sul                       cruzamento do grafo de estradas que não é zona
+//
+// Com estradas, a distância entre duas zonas é o menor caminho no GrafoRodoviario, calculado uma vez na carga
+public class MapaCidade {
+    private final String[] nomes;
+    private final int[] lixoMin;
+    private final int[] lixoMax;
+    private final int[] variacoesPico;
+    private final int[] variacoesNormal;
+    private final int[] distancias; // distancias[origem * n + destino]
+    private final MapaIndices indicePorNome;
+
+    public MapaCidade(String[] nomes, int[][] intervalosLixo, int[] variacoesPico, int[] variacoesNormal, int[] distancias) {
+        int n = nomes.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("A cidade precisa de pelo menos uma zona!");
+        }
+        if (intervalosLixo.length != n || variacoesPico.length != n || variacoesNormal.length != n
+                || distancias.length != n * n) {
+            throw new IllegalArgumentException("Dados das zonas não batem com o número de zonas (" + n + ")");
+        }
+        this.nomes = nomes.clone();
+        this.lixoMin = new int[n];
+        this.lixoMax = new int[n];
+        this.variacoesPico = variacoesPico.clone();
+        this.variacoesNormal = variacoesNormal.clone();
+        this.distancias = distancias.clone();
+        this.indicePorNome = new MapaIndices(n);
+        for (int i = 0; i < n; i++) {
+            if (nomes[i] == null || nomes[i].isBlank()) {
+                throw new IllegalArgumentException("Zona " + (i + 1) + " sem nome");
+            }
+            if (indicePorNome.colocar(chave(nomes[i]), i) != -1) {
+                throw new IllegalArgumentException("Zona repetida: " + nomes[i]);
+            }
+            validarIntervalo(nomes[i], intervalosLixo[i][0], intervalosLixo[i][1]);
+            lixoMin[i] = intervalosLixo[i][0];
+            lixoMax[i] = intervalosLixo[i][1];
+            for (int j = 0; j < n; j++) {
+                int distancia = this.distancias[i * n + j];
+                if (distancia < 0) {
+                    throw new IllegalArgumentException(String.format("Distância negativa entre %s e %s", nomes[i], nomes[j]));
+                }
+            }
+        }
+    }
+
+    // As 5 zonas de Teresina usadas quando nenhuma cidade é carregada
+    public static MapaCidade padrao() {
+        String[] nomes = {"Norte", "Sul", "Leste", "Sudeste", "Centro"};
+        int[][] intervalos = {
+                {2900 * 24, 5000 * 24}, // Norte: 69600 a 120000 kg
+                {3500 * 24, 6500 * 24}, // Sul: 84000 a 156000 kg
+                {3900 * 24, 6800 * 24}, // Leste: 93600 a 163200 kg
+                {2800 * 24, 5500 * 24}, // Sudeste: 67200 a 132000 kg
+                {3500 * 24, 6000 * 24}  // Centro: 84000 a 144000 kg
+        };
+        //Variação no tempo de trânsito por zona. Ex: O Centro é mais estreito e mais transitado, logo o tempo de trânsito dele
+        //é maior do que o de outras zonas, a variação é baseada na zona Norte, portanto ela tem 0 0 de variação
+        //Essa variação irá adicionar ou remover tempos de trânsito dependendo da zona
+        int[] variacoesPico = {0, 10, 7, 5, 10};
+        int[] variacoesNormal = {0, 5, -5, 3, -7};
+        int[] distancias = {
+                0, 13, 14, 11, 11,
+                13, 0, 11, 9, 16,
+                14, 11, 0, 9, 16,
+                11, 9, 9, 0, 13,
+                11, 16, 16, 13, 0
+        };
+        return new MapaCidade(nomes, intervalos, variacoesPico, variacoesNormal, distancias);
+    }
+
+    // Lê uma cidade no formato descrito no topo da classe. Erros de formato viram IllegalArgumentException com a linha
+    public static MapaCidade carregar(Path arquivo) throws IOException {
+        Lista<String> nomes = new Lista<>();
+        Lista<String> cruzamentos = new Lista<>();
+        IntLista linhasCruzamentos = new IntLista();
+        Lista<int[]> dadosZonas = new Lista<>(); // {mínimo, máximo, variação no pico, variação normal}
+        Lista<String[]> arestas = new Lista<>();
+        IntLista linhasArestas = new IntLista();
+        Lista<String> linhasMatriz = new Lista<>();
+        IntLista numerosMatriz = new IntLista();
+        int linhaMatriz = 0;
+        boolean lendoMatriz = false;
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            int numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                String[] campos = linha.split(";", -1);
+                for (int i = 0; i < campos.length; i++) {
+                    campos[i] = campos[i].trim();
+                }
+                switch (campos[0].toLowerCase(Locale.ROOT)) {
+                    case "zona" -> {
+                        lendoMatriz = false;
+                        exigirCampos(campos, 6, numero, "zona;nome;mínimo;máximo;variação pico;variação normal");
+                        nomes.adicionar(campos[1]);
+                        dadosZonas.adicionar(new int[] {inteiro(campos[2], numero), inteiro(campos[3], numero),
+                                inteiro(campos[4], numero), inteiro(campos[5], numero)});
+                    }
+                    case "no" -> {
+                        lendoMatriz = false;
+                        exigirCampos(campos, 2, numero, "no;nome");
+                        cruzamentos.adicionar(campos[1]);
+                        linhasCruzamentos.adicionar(numero);
+                    }
+                    case "matriz" -> {
+                        lendoMatriz = true;
+                        linhaMatriz = numero;
+                    }
+                    case "distancia" -> {
+                        lendoMatriz = false;
+                        exigirCampos(campos, 4, numero, "distancia;origem;destino;km");
+                        arestas.adicionar(campos);
+                        linhasArestas.adicionar(numero);
+                    }
+                    default -> {
+                        if (!lendoMatriz) {
+                            throw new IllegalArgumentException(String.format("Linha %d: registro desconhecido '%s'", numero, campos[0]));
+                        }
+                        linhasMatriz.adicionar(linha);
+                        numerosMatriz.adicionar(numero);
+                    }
+                }
+            }
+        }
+
+        int n = nomes.getTamanho();
+        if (n == 0) {
+            throw new IllegalArgumentException("Nenhuma zona definida em " + arquivo);
+        }
+        String[] vetorNomes = new String[n];
+        int[][] intervalos = new int[n][2];
+        int[] variacoesPico = new int[n];
+        int[] variacoesNormal = new int[n];
+        for (int i = 0; i < n; i++) {
+            vetorNomes[i] = nomes.obter(i);
+            int[] dados = dadosZonas.obter(i);
+            intervalos[i][0] = dados[0];
+            intervalos[i][1] = dados[1];
+            variacoesPico[i] = dados[2];
+            variacoesNormal[i] = dados[3];
+        }
+        MapaIndices indices = new MapaIndices(n);
+        for (int i = 0; i < n; i++) {
+            indices.colocar(chave(vetorNomes[i]), i);
+        }
+
+        int[] distancias = new int[n * n];
+        if (!linhasMatriz.estaVazia()) {
+            if (linhasMatriz.getTamanho() != n) {
+                throw new IllegalArgumentException(String.format("Linha %d: a matriz tem %d linhas, mas há %d zonas",
+                        linhaMatriz, linhasMatriz.getTamanho(), n));
+            }
+            for (int i = 0; i < n; i++) {
+                String[] valores = linhasMatriz.obter(i).split(";");
+                if (valores.length != n) {
+                    throw new IllegalArgumentException(String.format("Linha %d: %d distâncias para a zona %s, esperadas %d",
+                            numerosMatriz.obter(i), valores.length, vetorNomes[i], n));
+                }
+                for (int j = 0; j < n; j++) {
+                    distancias[i * n + j] = inteiro(valores[j].trim(), numerosMatriz.obter(i));
+                }
+            }
+        } else {
+            // Sem matriz, as distâncias são os menores caminhos pelas estradas. Os cruzamentos vêm depois das zonas
+            int totalNos = n + cruzamentos.getTamanho();
+            for (int c = 0; c < cruzamentos.getTamanho(); c++) {
+                String nome = cruzamentos.obter(c);
+                if (nome.isEmpty() || indices.colocar(chave(nome), n + c) != -1) {
+                    throw new IllegalArgumentException(String.format("Linha %d: nó sem nome ou repetido '%s'",
+                            linhasCruzamentos.obter(c), nome));
+                }
+            }
+            GrafoRodoviario grafo = new GrafoRodoviario(totalNos);
+            for (int a = 0; a < arestas.getTamanho(); a++) {
+                String[] campos = arestas.obter(a);
+                int numero = linhasArestas.obter(a);
+                int km = inteiro(campos[3], numero);
+                if (km < 0) {
+                    throw new IllegalArgumentException(String.format("Linha %d: distância negativa", numero));
+                }
+                grafo.adicionarEstrada(noExistente(indices, campos[1], numero), noExistente(indices, campos[2], numero), km);
+            }
+            distancias = grafo.calcularDistancias(n);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (distancias[i * n + j] == GrafoRodoviario.SEM_CAMINHO) {
+                        throw new IllegalArgumentException(String.format("Nenhuma estrada liga %s a %s", vetorNomes[i], vetorNomes[j]));
+                    }
+                }
+            }
+        }
+        return new MapaCidade(vetorNomes, intervalos, variacoesPico, variacoesNormal, distancias);
+    }
+
+    public int getQuantidadeZonas() { return nomes.length; }
+    public String getNome(int zona) { return nomes[zona]; }
+    public int getLixoMin(int zona) { return lixoMin[zona]; }
+    public int getLixoMax(int zona) { return lixoMax[zona]; }
+    public int getVariacaoPico(int zona) { return variacoesPico[zona]; }
+    public int getVariacaoNormal(int zona) { return variacoesNormal[zona]; }
+
+    public int getDistancia(int origem, int destino) {
+        return distancias[origem * nomes.length + destino];
+    }
+
+    // Id da zona pelo nome (sem diferenciar maiúsculas), ou -1 se não existe
+    public int indiceDaZona(String nome) {
+        return indicePorNome.obter(chave(nome));
+    }
+
+    // Cópia dos intervalos diários de lixo, no formato de ConfiguracaoSimulacao ({mínimo, máximo} por zona)
+    public int[][] copiarIntervalosLixo() {
+        int[][] intervalos = new int[nomes.length][2];
+        for (int i = 0; i < nomes.length; i++) {
+            intervalos[i][0] = lixoMin[i];
+            intervalos[i][1] = lixoMax[i];
+        }
+        return intervalos;
+    }
+
+    private static void validarIntervalo(String zona, int minimo, int maximo) {
+        if (minimo < 0 || maximo < minimo) {
+            throw new IllegalArgumentException(String.format("Intervalo de lixo inválido na zona %s: [%d, %d]", zona, minimo, maximo));
+        }
+    }
+
+    private static String chave(String nome) {
+        return nome.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int noExistente(MapaIndices indices, String nome, int linha) {
+        int indice = indices.obter(chave(nome));
+        if (indice < 0) {
+            throw new IllegalArgumentException(String.format("Linha %d: zona ou nó desconhecido '%s'", linha, nome));
+        }
+        return indice;
+    }
+
+    private static void exigirCampos(String[] campos, int quantidade, int linha, String formato) {
+        if (campos.length != quantidade) {
+            throw new IllegalArgumentException(String.format("Linha %d: esperado '%s'", linha, formato));
+        }
+    }
+
+    private static int inteiro(String valor, int linha) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Linha %d: número inválido '%s'", linha, valor));
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package zonas;
 
-import estruturas.Lista;
+import estruturas.IntLista;
 
 public class ZonaEstatistica {
+    private final int idZona;
     private final String nomeZona;
     private int lixoColetado;
     private int lixoGerado;
@@ -10,17 +11,18 @@ public class ZonaEstatistica {
     private int caminhoes;
     private int capacidadeTotal;
     private int semColeta;
-    private Lista<Integer> coletas;
+    private final IntLista coletas; // Coletas do minuto atual, reaproveitada a cada reset
 
     // Construtor da estatística de uma zona
-    public ZonaEstatistica(String nomeZona) {
+    public ZonaEstatistica(int idZona, String nomeZona) {
+        this.idZona = idZona;
         this.nomeZona = nomeZona;
         this.lixoColetado = 0;
         this.lixoGerado = 0;
         this.caminhoes = 0;
         this.capacidadeTotal = 0;
         this.semColeta = 0;
-        this.coletas = new Lista<>();
+        this.coletas = new IntLista();
     }
 
     public void adicionarLixo(int kg) {
@@ -52,13 +54,14 @@ public class ZonaEstatistica {
     }
 
     // Getters
+    public int getIdZona() { return idZona; }
     public String getNomeZona() { return nomeZona; }
     public int getLixoColetado() { return lixoColetado; }
     public int getLixoGerado() { return lixoGerado; }
     public int getCaminhoes() { return caminhoes; }
     public int getCapacidadeTotal() { return capacidadeTotal; }
     public int getSemColeta() { return semColeta; }
-    public Lista<Integer> getColetas() { return coletas; }
+    public IntLista getColetas() { return coletas; }
 }
 
 
@@ -1,24 +1,18 @@
 package zonas;
 
+import estruturas.Lista;
+import simulacao.BufferEfeitos;
 import simulacao.LoggerSimulacao;
 
-import java.util.Random;
-
-public class ZonaUrbana {
-    private static final String[] ZONAS = {"Norte", "Sul", "Leste", "Sudeste", "Centro"};
-    private static final int[] VARIACOES_PICO = {0, 10, 7, 5, 10};
-    private static final int[] VARIACOES_NORMAL = {0, 5, -5, 3, -7};
-    //Variação no tempo de trânsito por zona. Ex: O Centro é mais estreito e mais transitado, logo o tempo de trânsito dele
-    //é maior do que o de outras zonas, a variação é baseada na zona Norte, portanto ela tem 0 0 de variação
-    //Essa variação irá adicionar ou remover tempos de trânsito dependendo da zona
-    private static final int[][] DISTANCIAS_ZONAS = {
-            //  Sul  N  C   L   Sud
-            {0, 13, 14, 11, 11},  // Sul
-            {13, 0, 11, 9, 16},   // Norte
-            {14, 11, 0, 9, 16},   // Centro
-            {11, 9,  9, 0, 13},    // Leste
-            {11, 16, 16, 13, 0}   // Sudeste
-    };
+import java.util.SplittableRandom;
+
+// Zona de coleta. Nome, variações de trânsito e distâncias vêm do MapaCidade da simulação
+public class ZonaUrbana implements BufferEfeitos.Receptor {
+    // Operações adiadas de aplicarEfeitoAdiado
+    private static final int OPERACAO_MARCAR_ALTERADA = 0;
+    private static final int OPERACAO_MUDAR_DE_ZONA = 1;
+
+    private final int id; // Identificador estável da zona, usado como índice nas tabelas por zona
     private final String nome;
     private int lixoAcumulado;
     private final int lixoMin;
@@ -26,69 +20,120 @@ public class ZonaUrbana {
     private final int variacaoPico;
     private final int variacaoNormal;
     private int caminhoesAtivos;
+    private final MapaCidade mapa;
+    private final SplittableRandom aleatorio; // Fluxo aleatório próprio da zona, usado na geração de lixo
+    // Zonas com lixo ou caminhões ativos alterados desde a última leitura do índice de distribuição
+    private Lista<ZonaUrbana> alteradas;
+    private boolean pendente;
 
-    public ZonaUrbana(int escolha, int lixoMin, int lixoMax) {
-        this.nome = determinarZona(escolha);
+    public ZonaUrbana(MapaCidade mapa, int id, int lixoMin, int lixoMax, SplittableRandom aleatorio) {
+        if (id < 0 || id >= mapa.getQuantidadeZonas()) {
+            throw new IllegalArgumentException("Zona deve ser de 0 a " + (mapa.getQuantidadeZonas() - 1) + ".");
+        }
+        this.mapa = mapa;
+        this.nome = mapa.getNome(id);
+        this.id = id;
         this.lixoMin = lixoMin;
         this.lixoMax = lixoMax;
-        this.variacaoPico = VARIACOES_PICO[escolha];
-        this.variacaoNormal = VARIACOES_NORMAL[escolha];
+        this.variacaoPico = mapa.getVariacaoPico(id);
+        this.variacaoNormal = mapa.getVariacaoNormal(id);
         this.lixoAcumulado = 0;
         this.caminhoesAtivos = 0;
+        this.aleatorio = aleatorio;
     }
 
-    private String determinarZona(int escolha) {
-        if (escolha < 0 || escolha > 4) {
-            throw new IllegalArgumentException("Escolha deve ser de 0 a 4.");
-        }
-        return ZONAS[escolha];
+    public static int getDistancia(ZonaUrbana zonaA, ZonaUrbana zonaB) {
+        return zonaA.mapa.getDistancia(zonaA.id, zonaB.id);
     }
 
-    public static int getDistancia(String zonaA, String zonaB) {
-        int i = getIndiceZona(zonaA);
-        int j = getIndiceZona(zonaB);
-        if (i == -1 || j == -1) {
-            return Integer.MAX_VALUE;
-        }
-        return DISTANCIAS_ZONAS[i][j];
+    // Passa a avisar na lista toda alteração de lixo ou de caminhões ativos (uma entrada por zona até ser lida)
+    public void acompanharAlteracoes(Lista<ZonaUrbana> alteradas) {
+        this.alteradas = alteradas;
+        this.pendente = false;
+        marcarAlterada();
+    }
+
+    // Põe a zona na lista de alteradas por um motivo que ela mesma não acompanha (ex.: caminhões a caminho dela)
+    public void marcarParaReindexar() {
+        marcarAlterada();
+    }
+
+    // Chamado por quem leu a zona da lista de alteradas
+    public void limparAlteracao() {
+        pendente = false;
     }
 
-    private static int getIndiceZona(String nome) {
-        for (int i = 0; i < ZONAS.length; i++) {
-            if (ZONAS[i].equalsIgnoreCase(nome)) {
-                return i;
+    private void marcarAlterada() {
+        if (alteradas != null && !pendente) {
+            // A lista é de toda a simulação: dentro de uma tarefa paralela o aviso vai para o buffer da tarefa
+            BufferEfeitos buffer = BufferEfeitos.atual();
+            if (buffer != null) {
+                buffer.adiar(this, OPERACAO_MARCAR_ALTERADA, null, 0);
+                return;
             }
+            pendente = true;
+            alteradas.adicionar(this);
         }
-        return -1;
     }
 
     public int gerarLixo() {
-        int quantidade = new Random().nextInt(lixoMin, lixoMax + 1);
+        int quantidade = aleatorio.nextInt(lixoMin, lixoMax + 1);
         lixoAcumulado += quantidade;
-        LoggerSimulacao.log("CONFIG", String.format("Zona %s: Gerou %dkg de lixo. Total: %dkg.", nome, quantidade, lixoAcumulado));
+        marcarAlterada();
+        LoggerSimulacao.log("CONFIG", "Zona %s: Gerou %dkg de lixo. Total: %dkg.", nome, quantidade, lixoAcumulado);
         return quantidade;
     }
 
     public int coletarLixo(int quantidade) {
         int coletado = Math.min(quantidade, lixoAcumulado);
         lixoAcumulado -= coletado;
-        if (LoggerSimulacao.getModoLog() == LoggerSimulacao.ModoLog.DEBUG) {
-            LoggerSimulacao.log("COLETA", String.format("Zona %s: Coletado %dkg de lixo. Lixo restante: %dkg.", nome, coletado, lixoAcumulado));
+        if (coletado != 0) {
+            marcarAlterada();
+        }
+        // Roda a cada minuto para cada caminhão coletando: o teste vem antes de montar os argumentos do log
+        if (LoggerSimulacao.estaAtivoDebug()) {
+            LoggerSimulacao.log("COLETA", "Zona %s: Coletado %dkg de lixo. Lixo restante: %dkg.", nome, coletado, lixoAcumulado);
         }
         return coletado;
     }
 
     public void incrementarCaminhoesAtivos() {
         caminhoesAtivos++;
+        marcarAlterada();
     }
 
     public void decrementarCaminhoesAtivos() {
         if (caminhoesAtivos > 0) {
             caminhoesAtivos--;
+            marcarAlterada();
+        }
+    }
+
+    // Caminhão ativo que deixa a zona origem e passa a coletar no destino. Dentro de uma tarefa paralela as duas
+    // contagens são ajustadas juntas depois da barreira, na ordem dos caminhões: como o decremento não desce de zero,
+    // aplicar um lado na hora e o outro depois mudaria o resultado em relação ao modo sequencial
+    public static void mudarCaminhaoDeZona(ZonaUrbana origem, ZonaUrbana destino) {
+        BufferEfeitos buffer = BufferEfeitos.atual();
+        if (buffer != null) {
+            buffer.adiar(origem, OPERACAO_MUDAR_DE_ZONA, destino, 0);
+            return;
+        }
+        origem.decrementarCaminhoesAtivos();
+        destino.incrementarCaminhoesAtivos();
+    }
+
+    @Override
+    public void aplicarEfeitoAdiado(int operacao, Object argumento, int a, int b, int c, int d, int e) {
+        switch (operacao) {
+            case OPERACAO_MARCAR_ALTERADA -> marcarAlterada();
+            case OPERACAO_MUDAR_DE_ZONA -> mudarCaminhaoDeZona(this, (ZonaUrbana) argumento);
+            default -> throw new IllegalArgumentException("Operação adiada desconhecida: " + operacao);
         }
     }
 
     public int getLixoAcumulado() {return lixoAcumulado;}
+    public int getId() {return id;}
+    public MapaCidade getMapa() {return mapa;}
     public String getNome() {return nome;}
     public int getVariacaoPico() { return variacaoPico; }
     public int getVariacaoNormal() { return variacaoNormal; }